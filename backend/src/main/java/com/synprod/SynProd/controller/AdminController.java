@@ -1,22 +1,36 @@
 package com.synprod.SynProd.controller;
 
 import com.synprod.SynProd.dto.InviteUserRequest;
+import com.synprod.SynProd.dto.ProductDto;
 import com.synprod.SynProd.dto.UserDto;
+import com.synprod.SynProd.service.ProductArchiveService;
+import com.synprod.SynProd.service.ProductDetailCache;
+import com.synprod.SynProd.service.ResponseBodyCache;
 import com.synprod.SynProd.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/admin")
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
 
     private final UserService userService;
+    private final ProductDetailCache productDetailCache;
+    private final ResponseBodyCache responseBodyCache;
+    private final ProductArchiveService productArchiveService;
 
-    public AdminController(UserService userService) {
+    public AdminController(UserService userService, ProductDetailCache productDetailCache,
+            ResponseBodyCache responseBodyCache, ProductArchiveService productArchiveService) {
         this.userService = userService;
+        this.productDetailCache = productDetailCache;
+        this.responseBodyCache = responseBodyCache;
+        this.productArchiveService = productArchiveService;
     }
 
     @PostMapping("/invite")
@@ -24,5 +38,27 @@ public class AdminController {
         UserDto userDto = userService.inviteUser(request);
         return ResponseEntity.ok(userDto);
     }
-}
 
+    // Cache counters (size, hits, misses, evictions) for monitoring
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("productDetail", productDetailCache.stats());
+        stats.put("responseBody", responseBodyCache.stats());
+        return ResponseEntity.ok(stats);
+    }
+
+    // Bring back a deleted product, from the hot table or from the archive
+    @PostMapping("/products/{id}/restore")
+    public ResponseEntity<ProductDto> restoreProduct(@PathVariable Long id) {
+        return ResponseEntity.ok(productArchiveService.restore(id));
+    }
+
+    // Run the archive job now instead of waiting for the schedule
+    @PostMapping("/products/archive")
+    public ResponseEntity<Map<String, Object>> archiveDeletedProducts() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("archived", productArchiveService.archiveExpired());
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,111 @@
+package com.synprod.SynProd.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Binary encodings of the API for machine clients (line controllers, MES),
+ * selected with the Accept header: application/cbor or
+ * application/x-jackson-smile. Both carry exactly the fields of the JSON
+ * responses, written by a copy of the application's ObjectMapper.
+ *
+ * Negotiated responses carry "Vary: Accept, Accept-Encoding", and their ETags
+ * differ per encoding (see {@link #variantTag}), so no cache hands one
+ * client's encoding to another.
+ *
+ * Every binary response states the schema it was written with in
+ * X-Schema-Version. The number only moves when a field is renamed, removed or
+ * changes type; added fields keep the version, so clients must ignore unknown
+ * keys.
+ */
+@Configuration
+public class BinaryFormats {
+
+    public static final String SCHEMA_VERSION_HEADER = "X-Schema-Version";
+    public static final String SCHEMA_VERSION = "1";
+
+    public static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    public static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())) {
+            @Override
+            protected void addDefaultHeaders(HttpHeaders headers, Object body, MediaType contentType) throws IOException {
+                super.addDefaultHeaders(headers, body, contentType);
+                headers.set(SCHEMA_VERSION_HEADER, SCHEMA_VERSION);
+            }
+        };
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())) {
+            @Override
+            protected void addDefaultHeaders(HttpHeaders headers, Object body, MediaType contentType) throws IOException {
+                super.addDefaultHeaders(headers, body, contentType);
+                headers.set(SCHEMA_VERSION_HEADER, SCHEMA_VERSION);
+            }
+        };
+    }
+
+    /**
+     * True when the client ranks a binary encoding above JSON. Wildcards do not
+     * count, so browsers and other JSON clients keep getting JSON.
+     */
+    public static boolean prefersBinary(String accept) {
+        return preferredBinary(accept) != null;
+    }
+
+    /**
+     * Gives a strong ETag of the JSON representation its own value for the
+     * encoding negotiated from {@code accept}, e.g. "3.1f2a" becomes "3.1f2a-cbor".
+     * Byte-different representations must not share a strong validator;
+     * EntityTags.parseProductVersion still reads the version from either form.
+     */
+    public static String variantTag(String etag, String accept) {
+        MediaType binary = preferredBinary(accept);
+        if (binary == null) {
+            return etag;
+        }
+        String suffix = binary.equalsTypeAndSubtype(CBOR) ? "-cbor" : "-smile";
+        return etag.substring(0, etag.length() - 1) + suffix + "\"";
+    }
+
+    // The binary type the client ranks above JSON, or null when JSON wins
+    private static MediaType preferredBinary(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.equalsTypeAndSubtype(CBOR) || type.equalsTypeAndSubtype(SMILE)) {
+                return type;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON) && !type.isWildcardSubtype()) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
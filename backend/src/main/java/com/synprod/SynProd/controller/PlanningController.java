@@ -0,0 +1,36 @@
+package com.synprod.SynProd.controller;
+
+import com.synprod.SynProd.dto.PlanRequest;
+import com.synprod.SynProd.dto.PlanRequirementsDto;
+import com.synprod.SynProd.exception.ProductNotFoundException;
+import com.synprod.SynProd.exception.ValidationException;
+import com.synprod.SynProd.service.PlanningService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/planning")
+public class PlanningController {
+
+    private final PlanningService planningService;
+
+    public PlanningController(PlanningService planningService) {
+        this.planningService = planningService;
+    }
+
+    // Summed component and ingredient needs of a production plan (accessible by all authenticated users)
+    @PostMapping("/requirements")
+    public ResponseEntity<PlanRequirementsDto> calculateRequirements(@Valid @RequestBody PlanRequest request) {
+        try {
+            return ResponseEntity.ok(planningService.calculateRequirements(request.getLines()));
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ProductNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
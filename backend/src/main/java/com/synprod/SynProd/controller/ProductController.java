@@ -1,46 +1,201 @@
 package com.synprod.SynProd.controller;
 
+import com.synprod.SynProd.dto.BatchGetRequest;
+import com.synprod.SynProd.dto.BatchScaleRequest;
 import com.synprod.SynProd.dto.CreateProductRequest;
+import com.synprod.SynProd.dto.CursorPage;
+import com.synprod.SynProd.dto.FilterFacetsDto;
+import com.synprod.SynProd.dto.ImportReportDto;
+import com.synprod.SynProd.dto.PackagingCapacityDto;
+import com.synprod.SynProd.dto.PatchProductRequest;
+import com.synprod.SynProd.dto.ProductChangesDto;
 import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.dto.ProductRevisionDto;
+import com.synprod.SynProd.dto.ProductSummaryDto;
+import com.synprod.SynProd.dto.ScaleRequest;
+import com.synprod.SynProd.dto.ScaledRecipeDto;
+import com.synprod.SynProd.dto.SuggestionDto;
 import com.synprod.SynProd.entity.ProductType;
+import com.synprod.SynProd.exception.DuplicateResourceException;
+import com.synprod.SynProd.exception.PreconditionFailedException;
+import com.synprod.SynProd.exception.ProductNotFoundException;
+import com.synprod.SynProd.exception.ValidationException;
+import com.synprod.SynProd.service.ProductChangeBroadcaster;
+import com.synprod.SynProd.service.ProductExportService;
+import com.synprod.SynProd.service.ProductImportService;
+import com.synprod.SynProd.service.ProductRevisionService;
 import com.synprod.SynProd.service.ProductService;
+import com.synprod.SynProd.service.RecipePdfService;
+import com.synprod.SynProd.service.RecipeScalingService;
+import com.synprod.SynProd.service.ResponseBodyCache;
+import com.synprod.SynProd.util.EntityTags;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Responses whose encoding is negotiated (JSON / CBOR / Smile, identity / gzip)
+    static final String NEGOTIATED_VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
+    // Product data may be stored by the browser but must be revalidated (ETag) on every use
+    private static final CacheControl REVALIDATE_POLICY = CacheControl.noCache().cachePrivate();
+
+    // Filter options change rarely; a short private max-age avoids a request per page load
+    private static final CacheControl FILTER_OPTIONS_POLICY = CacheControl.maxAge(Duration.ofMinutes(1)).cachePrivate();
+
+    // Suggestions are re-requested on every keystroke; let the browser reuse them briefly
+    private static final CacheControl SUGGEST_POLICY = CacheControl.maxAge(Duration.ofSeconds(30)).cachePrivate();
+
+    // Newline-delimited JSON, one product per line
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    static final MediaType ZIP = MediaType.parseMediaType("application/zip");
+
     private final ProductService productService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final RecipeScalingService recipeScalingService;
+    private final RecipePdfService recipePdfService;
+    private final ResponseBodyCache responseBodyCache;
+    private final ProductChangeBroadcaster productChangeBroadcaster;
+    private final ProductRevisionService productRevisionService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductExportService productExportService,
+            ProductImportService productImportService, RecipeScalingService recipeScalingService,
+            RecipePdfService recipePdfService, ResponseBodyCache responseBodyCache,
+            ProductChangeBroadcaster productChangeBroadcaster, ProductRevisionService productRevisionService) {
         this.productService = productService;
+        this.productExportService = productExportService;
+        this.productImportService = productImportService;
+        this.recipeScalingService = recipeScalingService;
+        this.recipePdfService = recipePdfService;
+        this.responseBodyCache = responseBodyCache;
+        this.productChangeBroadcaster = productChangeBroadcaster;
+        this.productRevisionService = productRevisionService;
     }
 
     // Get all products (accessible by all authenticated users)
+    // Pages are served pre-serialized (and pre-gzipped) until the next catalog write
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<ProductDto> products = productService.getAllProducts();
-            return ResponseEntity.ok(products);
+            if (BinaryFormats.prefersBinary(accept)) {
+                return pageResponse(productService.getAllProducts(cursor, limit), accept);
+            }
+            ResponseBodyCache.SerializedPage page = responseBodyCache.page("all:" + cursor + ":" + limit,
+                    () -> productService.getAllProducts(cursor, limit));
+            return serializedPageResponse(page, acceptEncoding);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Live feed of committed product changes as Server-Sent Events (accessible by all authenticated users)
+    // Events carry id, version and change type; reconnecting with Last-Event-ID resumes the feed
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = productChangeBroadcaster.subscribe(lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // Stops nginx from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    // Catalog changes since a change token, for clients that keep a local copy of the list
+    // (accessible by all authenticated users); poll again with the returned token
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangesDto> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            ProductChangesDto changes = productService.getChangesSince(since, limit);
+            // 410 Gone: deletions after this token were purged; sync again from scratch
+            return ResponseEntity.status(changes.isResyncRequired() ? HttpStatus.GONE : HttpStatus.OK)
+                    .cacheControl(CacheControl.noStore())
+                    .body(changes);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    // Export the whole catalog with recipe data as NDJSON (accessible by all authenticated users)
+    // The body is streamed from a database cursor, so memory stays flat for any catalog size
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = productExportService::exportCatalog;
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+
     // Get product by ID with full recipe data (accessible by all authenticated users)
+    // Conditional GET: Spring answers 304 Not Modified when If-None-Match matches the ETag
+    // The JSON body is cached per product version, so a hit skips serialization entirely;
+    // CBOR / Smile clients (see BinaryFormats) get the DTO through the binary converters
+    // With ?asOf= (ISO date-time) the recipe is rebuilt as it was saved at that time
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
+    public ResponseEntity<?> getProductById(@PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
+            if (asOf != null) {
+                return ResponseEntity.ok()
+                        .cacheControl(REVALIDATE_POLICY)
+                        .header(HttpHeaders.VARY, NEGOTIATED_VARY)
+                        .body(productRevisionService.getProductAsOf(id, asOf));
+            }
             ProductDto product = productService.getProductById(id);
-            return ResponseEntity.ok(product);
+            if (BinaryFormats.prefersBinary(accept)) {
+                return ResponseEntity.ok()
+                        .eTag(BinaryFormats.variantTag(EntityTags.forProduct(product), accept))
+                        .cacheControl(REVALIDATE_POLICY)
+                        .header(HttpHeaders.VARY, NEGOTIATED_VARY)
+                        .body(product);
+            }
+            return serializedResponse(responseBodyCache.product(product), acceptEncoding, new HttpHeaders());
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -48,12 +203,156 @@ public class ProductController {
         }
     }
 
+    // Revision history of a recipe, newest first (accessible by all authenticated users)
+    // Page back with before = the last revisionNo received
+    @GetMapping("/{id}/revisions")
+    public ResponseEntity<List<ProductRevisionDto>> getProductRevisions(@PathVariable Long id,
+            @RequestParam(required = false) Integer before,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(productRevisionService.getRevisions(id, before, limit));
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Same recipe as GET /{id}, assembled by the database in a single query and
+    // written straight to the response without building entities or DTOs
+    @GetMapping(value = "/{id}/json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getProductJsonById(@PathVariable Long id) {
+        try {
+            String json = productService.getProductJsonById(id);
+            return ResponseEntity.ok()
+                    .eTag(EntityTags.forJson(json))
+                    .cacheControl(REVALIDATE_POLICY)
+                    .body(json);
+        } catch (ProductNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Get several products with full recipe data in one call (accessible by all authenticated users)
+    // Products are returned in request order; unknown or deleted ids are skipped
+    @PostMapping("/batch-get")
+    public ResponseEntity<List<ProductDto>> getProductsByIds(@Valid @RequestBody BatchGetRequest request) {
+        try {
+            List<ProductDto> products = productService.getProductsByIds(request.getIds());
+            return ResponseEntity.ok(products);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Scale a recipe to a production order (accessible by all authenticated users)
+    @PostMapping("/{id}/scale")
+    public ResponseEntity<ScaledRecipeDto> scaleProduct(@PathVariable Long id, @Valid @RequestBody ScaleRequest request) {
+        try {
+            return ResponseEntity.ok(recipeScalingService.scale(id, request));
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ProductNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Scale several orders in one call; results are returned in request order
+    @PostMapping("/scale")
+    public ResponseEntity<List<ScaledRecipeDto>> scaleProducts(@Valid @RequestBody BatchScaleRequest request) {
+        try {
+            return ResponseEntity.ok(recipeScalingService.scaleBatch(request.getItems()));
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ProductNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Recipe sheet for a production order as PDF (accessible by all authenticated users)
+    // Sheets are cached on disk per product version and sent with FileChannel.transferTo
+    @GetMapping("/{id}/pdf")
+    public ResponseEntity<StreamingResponseBody> getProductPdf(@PathVariable Long id,
+            @RequestParam Double quantity,
+            @RequestParam(required = false) String capacity) {
+        try {
+            FileChannel pdf = recipePdfService.openPdf(id, new ScaleRequest(id, quantity, capacity));
+            StreamingResponseBody body = out -> {
+                try (FileChannel source = pdf) {
+                    RecipePdfService.copy(source, out);
+                }
+            };
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .contentLength(pdf.size())
+                    .header(HttpHeaders.CONTENT_DISPOSITION, attachment("recipe-" + id + ".pdf"))
+                    .cacheControl(CacheControl.noStore())
+                    .body(body);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ProductNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Recipe sheets for several orders as one ZIP, entries in request order
+    @PostMapping("/pdf-bundle")
+    public ResponseEntity<StreamingResponseBody> getProductPdfBundle(@Valid @RequestBody BatchScaleRequest request) {
+        try {
+            List<RecipePdfService.PdfJob> jobs = recipePdfService.prepareBundle(request.getItems());
+            StreamingResponseBody body = out -> recipePdfService.writeBundle(jobs, out);
+            return ResponseEntity.ok()
+                    .contentType(ZIP)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, attachment("recipes.zip"))
+                    .cacheControl(CacheControl.noStore())
+                    .body(body);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ProductNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private static String attachment(String fileName) {
+        return ContentDisposition.attachment().filename(fileName).build().toString();
+    }
+
+    // Packaging units per product type used by the scale endpoints
+    @GetMapping("/capacities")
+    public ResponseEntity<Map<ProductType, List<PackagingCapacityDto>>> getPackagingCapacities() {
+        try {
+            return ResponseEntity.ok()
+                    .cacheControl(FILTER_OPTIONS_POLICY)
+                    .body(recipeScalingService.getCapacities());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     // Search products by name (accessible by all authenticated users)
     @GetMapping("/search")
-    public ResponseEntity<List<ProductDto>> searchProducts(@RequestParam String name) {
+    public ResponseEntity<List<ProductSummaryDto>> searchProducts(
+            @RequestParam String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
-            List<ProductDto> products = productService.searchProductsByName(name);
-            return ResponseEntity.ok(products);
+            CursorPage<ProductSummaryDto> page = productService.searchProductsByName(name, cursor, limit);
+            return pageResponse(page, accept);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -61,17 +360,22 @@ public class ProductController {
 
     // Advanced search with multiple filters (accessible by all authenticated users)
     @GetMapping("/search/advanced")
-    public ResponseEntity<List<ProductDto>> searchProductsAdvanced(
+    public ResponseEntity<List<ProductSummaryDto>> searchProductsAdvanced(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String description,
             @RequestParam(required = false) String componentName,
             @RequestParam(required = false) String ingredientName,
-            @RequestParam(required = false) ProductType productType) {
+            @RequestParam(required = false) ProductType productType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
-            List<ProductDto> products = productService.searchProductsWithFilters(
-                    name, description, componentName, ingredientName, productType
+            CursorPage<ProductSummaryDto> page = productService.searchProductsWithFilters(
+                    name, description, componentName, ingredientName, productType, cursor, limit
             );
-            return ResponseEntity.ok(products);
+            return pageResponse(page, accept);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -79,10 +383,16 @@ public class ProductController {
 
     // Search by component (accessible by all authenticated users)
     @GetMapping("/search/component")
-    public ResponseEntity<List<ProductDto>> searchByComponent(@RequestParam String componentName) {
+    public ResponseEntity<List<ProductSummaryDto>> searchByComponent(
+            @RequestParam String componentName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
-            List<ProductDto> products = productService.searchProductsByComponent(componentName);
-            return ResponseEntity.ok(products);
+            CursorPage<ProductSummaryDto> page = productService.searchProductsByComponent(componentName, cursor, limit);
+            return pageResponse(page, accept);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -90,10 +400,16 @@ public class ProductController {
 
     // Search by ingredient (accessible by all authenticated users)
     @GetMapping("/search/ingredient")
-    public ResponseEntity<List<ProductDto>> searchByIngredient(@RequestParam String ingredientName) {
+    public ResponseEntity<List<ProductSummaryDto>> searchByIngredient(
+            @RequestParam String ingredientName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
-            List<ProductDto> products = productService.searchProductsByIngredient(ingredientName);
-            return ResponseEntity.ok(products);
+            CursorPage<ProductSummaryDto> page = productService.searchProductsByIngredient(ingredientName, cursor, limit);
+            return pageResponse(page, accept);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -101,24 +417,68 @@ public class ProductController {
 
     // Search by product type (accessible by all authenticated users)
     @GetMapping("/search/type")
-    public ResponseEntity<List<ProductDto>> searchByProductType(@RequestParam ProductType productType) {
+    public ResponseEntity<?> searchByProductType(
+            @RequestParam ProductType productType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<ProductDto> products = productService.searchProductsByType(productType);
-            return ResponseEntity.ok(products);
+            if (BinaryFormats.prefersBinary(accept)) {
+                return pageResponse(productService.searchProductsByType(productType, cursor, limit), accept);
+            }
+            ResponseBodyCache.SerializedPage page = responseBodyCache.page(
+                    "type:" + productType + ":" + cursor + ":" + limit,
+                    () -> productService.searchProductsByType(productType, cursor, limit));
+            return serializedPageResponse(page, acceptEncoding);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     // Get filter options (accessible by all authenticated users)
+    // includeNames=false skips the component and ingredient dictionaries (use /suggest instead)
     @GetMapping("/filter-options")
-    public ResponseEntity<Map<String, Object>> getFilterOptions() {
+    public ResponseEntity<Map<String, Object>> getFilterOptions(
+            @RequestParam(defaultValue = "true") boolean includeNames) {
         try {
+            FilterFacetsDto facets = productService.getFilterFacets();
+            Map<String, Object> counts = new HashMap<>();
+            counts.put("productTypes", facets.getProductTypes());
+
             Map<String, Object> options = new HashMap<>();
-            options.put("productTypes", productService.getAvailableProductTypes());
-            options.put("components", productService.getAvailableComponents());
-            options.put("ingredients", productService.getAvailableIngredients());
-            return ResponseEntity.ok(options);
+            options.put("productTypes", ProductService.getAvailableProductTypes(facets));
+            if (includeNames) {
+                options.put("components", ProductService.getAvailableComponents(facets));
+                options.put("ingredients", ProductService.getAvailableIngredients(facets));
+                counts.put("components", facets.getComponents());
+                counts.put("ingredients", facets.getIngredients());
+            }
+            // Number of live products matching each option
+            options.put("counts", counts);
+            return ResponseEntity.ok()
+                    .cacheControl(FILTER_OPTIONS_POLICY)
+                    .body(options);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Typeahead suggestions for a filter field: name, component or ingredient
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @RequestParam String field,
+            @RequestParam(required = false, defaultValue = "") String q,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<SuggestionDto> suggestions = productService.suggest(field, q, limit);
+            return ResponseEntity.ok()
+                    .cacheControl(SUGGEST_POLICY)
+                    .body(suggestions);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -138,13 +498,74 @@ public class ProductController {
         }
     }
 
+    // Bulk import from CSV (text/csv) or NDJSON (application/x-ndjson) (MANAGER and ADMIN only)
+    // The body is read as a stream; the report lists every rejected row
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<ImportReportDto> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) {
+        try {
+            ProductImportService.Format format = CSV.isCompatibleWith(MediaType.parseMediaType(contentType))
+                    ? ProductImportService.Format.CSV
+                    : ProductImportService.Format.NDJSON;
+            ImportReportDto report = productImportService.importProducts(request.getInputStream(), format);
+            return ResponseEntity.ok(report);
+        } catch (ValidationException | IOException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     // Update existing product (MANAGER and ADMIN only)
+    // With If-Match (the ETag from GET /{id}, or its version) the write only succeeds while the
+    // product is still at that version; otherwise 412 Precondition Failed
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
-    public ResponseEntity<ProductDto> updateProduct(@PathVariable Long id, @Valid @RequestBody CreateProductRequest request) {
+    public ResponseEntity<ProductDto> updateProduct(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody CreateProductRequest request) {
+        Long expectedVersion = null;
+        try {
+            expectedVersion = expectedVersion(ifMatch);
+            ProductDto product = productService.updateProduct(id, request, expectedVersion);
+            return ResponseEntity.ok().eTag(EntityTags.forProduct(product)).body(product);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (DuplicateResourceException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return conflict(expectedVersion);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Partially update a product (MANAGER and ADMIN only); omitted fields are left unchanged
+    // If-Match works as for PUT
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<ProductDto> patchProduct(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody PatchProductRequest request) {
+        Long expectedVersion = null;
         try {
-            ProductDto product = productService.updateProduct(id, request);
-            return ResponseEntity.ok(product);
+            expectedVersion = expectedVersion(ifMatch);
+            ProductDto product = productService.patchProduct(id, request, expectedVersion);
+            return ResponseEntity.ok().eTag(EntityTags.forProduct(product)).body(product);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (DuplicateResourceException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return conflict(expectedVersion);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -152,6 +573,24 @@ public class ProductController {
         }
     }
 
+    // If-Match takes the ETag from GET /{id} or a bare version; "*" or no header means unconditional
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Long version = EntityTags.parseProductVersion(ifMatch);
+        if (version == null) {
+            throw new PreconditionFailedException("If-Match does not name a product version");
+        }
+        return version;
+    }
+
+    // Another save committed between our read and our version-checked write
+    private static ResponseEntity<ProductDto> conflict(Long expectedVersion) {
+        return ResponseEntity.status(expectedVersion != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                .build();
+    }
+
     // Delete product (ADMIN only)
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -169,12 +608,73 @@ public class ProductController {
     // Get products by current user (for managers/admins to see their created products)
     @GetMapping("/my-products")
     @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
-    public ResponseEntity<List<ProductDto>> getMyProducts() {
+    public ResponseEntity<List<ProductSummaryDto>> getMyProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
-            List<ProductDto> products = productService.getProductsByCurrentUser();
-            return ResponseEntity.ok(products);
+            CursorPage<ProductSummaryDto> page = productService.getProductsByCurrentUser(cursor, limit);
+            return pageResponse(page, accept);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    // Listings return the page items as the body; the continuation token and the
+    // total are sent as headers so the body stays a plain JSON array. The ETag
+    // covers every row version on the page, so unchanged pages revalidate with 304.
+    // The body goes through content negotiation, so the tag and Vary follow the Accept header.
+    private ResponseEntity<List<ProductSummaryDto>> pageResponse(CursorPage<ProductSummaryDto> page, String accept) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(BinaryFormats.variantTag(
+                        EntityTags.forPage(page.getItems(), page.getNextCursor(), page.getTotalCount()), accept))
+                .cacheControl(REVALIDATE_POLICY)
+                .header(HttpHeaders.VARY, NEGOTIATED_VARY)
+                .header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotalCount()));
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    private ResponseEntity<byte[]> serializedPageResponse(ResponseBodyCache.SerializedPage page, String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(TOTAL_COUNT_HEADER, String.valueOf(page.totalCount()));
+        if (page.nextCursor() != null) {
+            headers.set(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return serializedResponse(page.body(), acceptEncoding, headers);
+    }
+
+    // Picks the gzip variant when the client accepts it; the stored bytes are written as they are
+    private static ResponseEntity<byte[]> serializedResponse(ResponseBodyCache.SerializedBody body,
+            String acceptEncoding, HttpHeaders headers) {
+        boolean gzip = body.hasGzip() && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(REVALIDATE_POLICY)
+                .header(HttpHeaders.VARY, NEGOTIATED_VARY);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip").eTag(body.gzipEtag());
+        } else {
+            response.eTag(body.etag());
+        }
+        return response.body(gzip ? body.gzip() : body.identity());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equals("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,66 @@
+package com.synprod.SynProd.controller;
+
+import com.synprod.SynProd.dto.CursorPage;
+import com.synprod.SynProd.dto.WhereUsedDto;
+import com.synprod.SynProd.exception.ValidationException;
+import com.synprod.SynProd.service.WhereUsedIndex;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Recipes using a component or ingredient, e.g. to trace a supplier recall
+@RestController
+@RequestMapping("/api")
+public class WhereUsedController {
+
+    private final WhereUsedIndex whereUsedIndex;
+
+    public WhereUsedController(WhereUsedIndex whereUsedIndex) {
+        this.whereUsedIndex = whereUsedIndex;
+    }
+
+    // Products using a component, largest percentage first (accessible by all authenticated users)
+    @GetMapping("/components/{name}/where-used")
+    public ResponseEntity<List<WhereUsedDto>> componentWhereUsed(
+            @PathVariable String name,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return whereUsed(WhereUsedIndex.Material.COMPONENT, name, direction, cursor, limit);
+    }
+
+    // Products using an ingredient, largest quantity first (accessible by all authenticated users)
+    @GetMapping("/ingredients/{name}/where-used")
+    public ResponseEntity<List<WhereUsedDto>> ingredientWhereUsed(
+            @PathVariable String name,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return whereUsed(WhereUsedIndex.Material.INGREDIENT, name, direction, cursor, limit);
+    }
+
+    private ResponseEntity<List<WhereUsedDto>> whereUsed(WhereUsedIndex.Material material, String name,
+            String direction, String cursor, Integer limit) {
+        try {
+            if (!direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) {
+                throw new ValidationException("Direction must be asc or desc");
+            }
+            CursorPage<WhereUsedDto> page = whereUsedIndex.whereUsed(material, name, cursor,
+                    direction.equalsIgnoreCase("asc"), limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .header(ProductController.TOTAL_COUNT_HEADER, String.valueOf(page.getTotalCount()));
+            if (page.getNextCursor() != null) {
+                response.header(ProductController.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.synprod.SynProd.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchGetRequest {
+
+    @NotEmpty(message = "At least one product id is required")
+    @Size(max = 500, message = "At most 500 product ids can be requested at once")
+    private List<@NotNull(message = "Product id is required") Long> ids;
+
+    // Constructors
+    public BatchGetRequest() {
+    }
+
+    public BatchGetRequest(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,33 @@
+package com.synprod.SynProd.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchScaleRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 500, message = "At most 500 items can be scaled at once")
+    @Valid
+    private List<@NotNull ScaleRequest> items;
+
+    // Constructors
+    public BatchScaleRequest() {
+    }
+
+    public BatchScaleRequest(List<ScaleRequest> items) {
+        this.items = items;
+    }
+
+    // Getters and Setters
+    public List<ScaleRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ScaleRequest> items) {
+        this.items = items;
+    }
+}
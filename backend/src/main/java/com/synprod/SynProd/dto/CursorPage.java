@@ -0,0 +1,53 @@
+package com.synprod.SynProd.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. The items are returned as the
+ * response body; the cursor and total are sent as headers by the controller.
+ */
+public class CursorPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private long totalCount;
+
+    // Constructors
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> items, String nextCursor, long totalCount) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.totalCount = totalCount;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.synprod.SynProd.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filter sidebar options with the number of live products matching each one.
+ * Instances are shared snapshots and must not be modified.
+ */
+public class FilterFacetsDto {
+
+    private final List<FacetCountDto> productTypes;
+    private final List<FacetCountDto> components;
+    private final List<FacetCountDto> ingredients;
+    private final LocalDateTime generatedAt;
+
+    public FilterFacetsDto(List<FacetCountDto> productTypes, List<FacetCountDto> components,
+            List<FacetCountDto> ingredients, LocalDateTime generatedAt) {
+        this.productTypes = List.copyOf(productTypes);
+        this.components = List.copyOf(components);
+        this.ingredients = List.copyOf(ingredients);
+        this.generatedAt = generatedAt;
+    }
+
+    // Getters
+    public List<FacetCountDto> getProductTypes() {
+        return productTypes;
+    }
+
+    public List<FacetCountDto> getComponents() {
+        return components;
+    }
+
+    public List<FacetCountDto> getIngredients() {
+        return ingredients;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+}
@@ -0,0 +1,115 @@
+package com.synprod.SynProd.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import: how many rows were read and imported, and
+ * why each rejected row failed. Only the first MAX_ERRORS errors are listed;
+ * failedRows always holds the full count.
+ */
+public class ImportReportDto {
+
+    public static final int MAX_ERRORS = 1000;
+
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private List<RowError> errors = new ArrayList<>();
+
+    // Constructors
+    public ImportReportDto() {
+    }
+
+    public void addRow() {
+        totalRows++;
+    }
+
+    public void addImported(long count) {
+        importedRows += count;
+    }
+
+    public void addError(long line, String name, String message) {
+        failedRows++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, name, message));
+        }
+    }
+
+    // Getters and Setters
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    public void setImportedRows(long importedRows) {
+        this.importedRows = importedRows;
+    }
+
+    public long getFailedRows() {
+        return failedRows;
+    }
+
+    public void setFailedRows(long failedRows) {
+        this.failedRows = failedRows;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * One rejected row: the input line it started on, the product name when it
+     * could be read, and the reason.
+     */
+    public static class RowError {
+
+        private long line;
+        private String name;
+        private String message;
+
+        public RowError() {
+        }
+
+        public RowError(long line, String name, String message) {
+            this.line = line;
+            this.name = name;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
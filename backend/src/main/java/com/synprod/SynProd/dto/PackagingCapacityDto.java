@@ -0,0 +1,59 @@
+package com.synprod.SynProd.dto;
+
+import com.synprod.SynProd.entity.PackagingCapacity;
+import com.synprod.SynProd.entity.ProductType;
+
+public class PackagingCapacityDto {
+
+    private ProductType productType;
+    private String code;
+    private String label;
+    private Double multiplier;
+
+    // Constructors
+    public PackagingCapacityDto() {
+    }
+
+    // Static factory method
+    public static PackagingCapacityDto fromEntity(PackagingCapacity capacity) {
+        PackagingCapacityDto dto = new PackagingCapacityDto();
+        dto.setProductType(capacity.getProductType());
+        dto.setCode(capacity.getCode());
+        dto.setLabel(capacity.getLabel());
+        dto.setMultiplier(capacity.getMultiplier());
+        return dto;
+    }
+
+    // Getters and Setters
+    public ProductType getProductType() {
+        return productType;
+    }
+
+    public void setProductType(ProductType productType) {
+        this.productType = productType;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public Double getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(Double multiplier) {
+        this.multiplier = multiplier;
+    }
+}
@@ -0,0 +1,73 @@
+package com.synprod.SynProd.dto;
+
+import com.synprod.SynProd.entity.ProductType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Body of PATCH /api/products/{id}. Null fields keep their stored value; a
+ * list that is present replaces the stored list (rows are matched by id).
+ */
+public class PatchProductRequest {
+
+    @Size(max = 100, message = "Product name must be less than 100 characters")
+    private String name;
+
+    @Size(max = 500, message = "Description must be less than 500 characters")
+    private String description;
+
+    private ProductType productType;
+
+    @Valid
+    private List<ProductCompositionDto> compositions;
+
+    @Valid
+    private List<ProductIngredientDto> additionalIngredients;
+
+    // Constructors
+    public PatchProductRequest() {
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public ProductType getProductType() {
+        return productType;
+    }
+
+    public void setProductType(ProductType productType) {
+        this.productType = productType;
+    }
+
+    public List<ProductCompositionDto> getCompositions() {
+        return compositions;
+    }
+
+    public void setCompositions(List<ProductCompositionDto> compositions) {
+        this.compositions = compositions;
+    }
+
+    public List<ProductIngredientDto> getAdditionalIngredients() {
+        return additionalIngredients;
+    }
+
+    public void setAdditionalIngredients(List<ProductIngredientDto> additionalIngredients) {
+        this.additionalIngredients = additionalIngredients;
+    }
+}
@@ -0,0 +1,36 @@
+package com.synprod.SynProd.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Production plan: one line per order (productId, quantity, packaging code).
+ */
+public class PlanRequest {
+
+    @NotEmpty(message = "At least one plan line is required")
+    @Size(max = 10000, message = "A plan can have at most 10000 lines")
+    @Valid
+    private List<@NotNull ScaleRequest> lines;
+
+    // Constructors
+    public PlanRequest() {
+    }
+
+    public PlanRequest(List<ScaleRequest> lines) {
+        this.lines = lines;
+    }
+
+    // Getters and Setters
+    public List<ScaleRequest> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<ScaleRequest> lines) {
+        this.lines = lines;
+    }
+}
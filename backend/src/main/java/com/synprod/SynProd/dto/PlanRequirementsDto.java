@@ -0,0 +1,101 @@
+package com.synprod.SynProd.dto;
+
+import java.util.List;
+
+/**
+ * Material requirements of a production plan: total batch weight plus the
+ * summed amount of every component and ingredient, largest first.
+ */
+public class PlanRequirementsDto {
+
+    private int lineCount;
+    private int productCount;
+    private double totalWeight;
+    private String weightUnit;
+    private List<Requirement> components;
+    private List<Requirement> ingredients;
+
+    // Constructors
+    public PlanRequirementsDto() {
+    }
+
+    // Getters and Setters
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public void setLineCount(int lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    public int getProductCount() {
+        return productCount;
+    }
+
+    public void setProductCount(int productCount) {
+        this.productCount = productCount;
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public void setTotalWeight(double totalWeight) {
+        this.totalWeight = totalWeight;
+    }
+
+    public String getWeightUnit() {
+        return weightUnit;
+    }
+
+    public void setWeightUnit(String weightUnit) {
+        this.weightUnit = weightUnit;
+    }
+
+    public List<Requirement> getComponents() {
+        return components;
+    }
+
+    public void setComponents(List<Requirement> components) {
+        this.components = components;
+    }
+
+    public List<Requirement> getIngredients() {
+        return ingredients;
+    }
+
+    public void setIngredients(List<Requirement> ingredients) {
+        this.ingredients = ingredients;
+    }
+
+    // Total need for one material; usedBy is the number of distinct products needing it
+    public static class Requirement {
+        private final String name;
+        private final double amount;
+        private final String unit;
+        private final int usedBy;
+
+        public Requirement(String name, double amount, String unit, int usedBy) {
+            this.name = name;
+            this.amount = amount;
+            this.unit = unit;
+            this.usedBy = usedBy;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        public int getUsedBy() {
+            return usedBy;
+        }
+    }
+}
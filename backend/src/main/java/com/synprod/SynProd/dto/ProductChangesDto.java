@@ -0,0 +1,76 @@
+package com.synprod.SynProd.dto;
+
+import java.util.List;
+
+/**
+ * One batch of the catalog change feed: products created or updated since the
+ * client's token, ids of products deleted since then, and the token to send
+ * with the next poll.
+ */
+public class ProductChangesDto {
+
+    private List<ProductSummaryDto> updated;
+    private List<Long> deleted;
+    private String token;
+    private boolean hasMore;
+    private boolean resyncRequired;
+
+    // Constructors
+    public ProductChangesDto() {
+    }
+
+    public ProductChangesDto(List<ProductSummaryDto> updated, List<Long> deleted, String token, boolean hasMore) {
+        this.updated = updated;
+        this.deleted = deleted;
+        this.token = token;
+        this.hasMore = hasMore;
+    }
+
+    // The token is too old to be continued: drop the local copy and sync again without a token
+    public static ProductChangesDto resyncRequired() {
+        ProductChangesDto dto = new ProductChangesDto(List.of(), List.of(), null, false);
+        dto.setResyncRequired(true);
+        return dto;
+    }
+
+    // Getters and Setters
+    public List<ProductSummaryDto> getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(List<ProductSummaryDto> updated) {
+        this.updated = updated;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Long> deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public boolean isResyncRequired() {
+        return resyncRequired;
+    }
+
+    public void setResyncRequired(boolean resyncRequired) {
+        this.resyncRequired = resyncRequired;
+    }
+}
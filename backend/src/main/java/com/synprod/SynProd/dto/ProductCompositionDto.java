@@ -9,6 +9,7 @@ public class ProductCompositionDto {
     private Double percentage;
     private String notes;
     private Integer sortOrder;
+    private Long version;
 
     // Constructors
     public ProductCompositionDto() {
@@ -33,6 +34,7 @@ public class ProductCompositionDto {
         dto.setPercentage(composition.getPercentage());
         dto.setNotes(composition.getNotes());
         dto.setSortOrder(composition.getSortOrder());
+        dto.setVersion(composition.getVersion());
         return dto;
     }
 
@@ -76,4 +78,12 @@ public class ProductCompositionDto {
     public void setSortOrder(Integer sortOrder) {
         this.sortOrder = sortOrder;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -18,6 +18,7 @@ public class ProductDto {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private String createdByName;
+    private Long version;
 
     // Constructors
     public ProductDto() {
@@ -39,6 +40,7 @@ public class ProductDto {
         dto.setProductType(product.getProductType());
         dto.setCreatedAt(product.getCreatedAt());
         dto.setUpdatedAt(product.getUpdatedAt());
+        dto.setVersion(product.getVersion());
 
         if (product.getCreatedBy() != null) {
             dto.setCreatedByName(product.getCreatedBy().getFullName());
@@ -149,6 +151,14 @@ public class ProductDto {
         this.createdByName = createdByName;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // Helper methods
     public Double getTotalCompositionPercentage() {
         if (compositions == null || compositions.isEmpty()) {
@@ -10,6 +10,7 @@ public class ProductIngredientDto {
     private String unit;
     private String notes;
     private Integer sortOrder;
+    private Long version;
 
     // Constructors
     public ProductIngredientDto() {
@@ -37,6 +38,7 @@ public class ProductIngredientDto {
         dto.setUnit(ingredient.getUnit());
         dto.setNotes(ingredient.getNotes());
         dto.setSortOrder(ingredient.getSortOrder());
+        dto.setVersion(ingredient.getVersion());
         return dto;
     }
 
@@ -89,6 +91,14 @@ public class ProductIngredientDto {
         this.sortOrder = sortOrder;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // Helper method for display
     public String getDisplayText() {
         return String.format("%.2f %s %s", quantity, unit, ingredientName);
@@ -0,0 +1,60 @@
+package com.synprod.SynProd.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a recipe's revision history: the revision number, the product
+ * version it recorded, what kind of change it was and when it was saved. The
+ * recipe itself is fetched with GET /api/products/{id}?asOf=createdAt.
+ */
+public class ProductRevisionDto {
+
+    private Integer revisionNo;
+    private Long version;
+    private String changeType;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public ProductRevisionDto() {
+    }
+
+    public ProductRevisionDto(Integer revisionNo, Long version, String changeType, LocalDateTime createdAt) {
+        this.revisionNo = revisionNo;
+        this.version = version;
+        this.changeType = changeType;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Integer getRevisionNo() {
+        return revisionNo;
+    }
+
+    public void setRevisionNo(Integer revisionNo) {
+        this.revisionNo = revisionNo;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(String changeType) {
+        this.changeType = changeType;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,147 @@
+package com.synprod.SynProd.dto;
+
+import com.synprod.SynProd.entity.ProductType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight product row for list and search pages. Built directly by a JPQL
+ * constructor expression, so no entity or collection is ever loaded; the
+ * component and ingredient totals are computed in the same statement.
+ */
+public class ProductSummaryDto {
+
+    private Long id;
+    private String name;
+    private String description;
+    private ProductType productType;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
+    private String createdByName;
+    private long componentCount;
+    private long ingredientCount;
+
+    // Constructors
+    public ProductSummaryDto() {
+    }
+
+    // Used by the projection queries in ProductRepository
+    public ProductSummaryDto(Long id, String name, String description, ProductType productType,
+            LocalDateTime createdAt, LocalDateTime updatedAt, Long version,
+            String creatorFirstName, String creatorLastName, String creatorEmail,
+            Long componentCount, Long ingredientCount) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.productType = productType;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+        this.createdByName = fullName(creatorFirstName, creatorLastName, creatorEmail);
+        this.componentCount = componentCount != null ? componentCount : 0;
+        this.ingredientCount = ingredientCount != null ? ingredientCount : 0;
+    }
+
+    // Mirrors User.getFullName(): fall back to the email when names are not set
+    private static String fullName(String firstName, String lastName, String email) {
+        if (firstName == null || lastName == null || firstName.trim().isEmpty() || lastName.trim().isEmpty()) {
+            return email;
+        }
+        return firstName + " " + lastName;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public ProductType getProductType() {
+        return productType;
+    }
+
+    public void setProductType(ProductType productType) {
+        this.productType = productType;
+    }
+
+    // Convenience methods for base weight information
+    public Double getBaseWeight() {
+        return productType != null ? productType.getBaseWeight() : null;
+    }
+
+    public String getBaseWeightUnit() {
+        return productType != null ? productType.getBaseWeightUnit() : null;
+    }
+
+    public String getBaseWeightDisplay() {
+        return productType != null ? productType.getBaseWeightDisplay() : null;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getCreatedByName() {
+        return createdByName;
+    }
+
+    public void setCreatedByName(String createdByName) {
+        this.createdByName = createdByName;
+    }
+
+    public long getComponentCount() {
+        return componentCount;
+    }
+
+    public void setComponentCount(long componentCount) {
+        this.componentCount = componentCount;
+    }
+
+    public long getIngredientCount() {
+        return ingredientCount;
+    }
+
+    public void setIngredientCount(long ingredientCount) {
+        this.ingredientCount = ingredientCount;
+    }
+}
@@ -0,0 +1,55 @@
+package com.synprod.SynProd.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * One scale request: how many packages of which packaging unit. The product id
+ * is taken from the path for POST /{id}/scale and from the body in batches.
+ * Without a capacity the first packaging unit of the product type is used.
+ */
+public class ScaleRequest {
+
+    private Long productId;
+
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be positive")
+    private Double quantity;
+
+    private String capacity;
+
+    // Constructors
+    public ScaleRequest() {
+    }
+
+    public ScaleRequest(Long productId, Double quantity, String capacity) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.capacity = capacity;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Double getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Double quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(String capacity) {
+        this.capacity = capacity;
+    }
+}
@@ -0,0 +1,171 @@
+package com.synprod.SynProd.dto;
+
+import com.synprod.SynProd.entity.ProductType;
+
+import java.util.List;
+
+/**
+ * A recipe scaled to a production order: the batch weight, every component's
+ * weight in grams (0.1 g resolution) and every ingredient amount.
+ */
+public class ScaledRecipeDto {
+
+    private Long productId;
+    private String productName;
+    private ProductType productType;
+    private Long version;
+    private String capacity;
+    private Double quantity;
+    private Double multiplier;
+    private Double totalWeight;
+    private String weightUnit;
+    private List<ScaledComponent> components;
+    private List<ScaledIngredient> ingredients;
+
+    // Constructors
+    public ScaledRecipeDto() {
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public ProductType getProductType() {
+        return productType;
+    }
+
+    public void setProductType(ProductType productType) {
+        this.productType = productType;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(String capacity) {
+        this.capacity = capacity;
+    }
+
+    public Double getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Double quantity) {
+        this.quantity = quantity;
+    }
+
+    public Double getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(Double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    public Double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public void setTotalWeight(Double totalWeight) {
+        this.totalWeight = totalWeight;
+    }
+
+    public String getWeightUnit() {
+        return weightUnit;
+    }
+
+    public void setWeightUnit(String weightUnit) {
+        this.weightUnit = weightUnit;
+    }
+
+    public List<ScaledComponent> getComponents() {
+        return components;
+    }
+
+    public void setComponents(List<ScaledComponent> components) {
+        this.components = components;
+    }
+
+    public List<ScaledIngredient> getIngredients() {
+        return ingredients;
+    }
+
+    public void setIngredients(List<ScaledIngredient> ingredients) {
+        this.ingredients = ingredients;
+    }
+
+    public static class ScaledComponent {
+        private final String componentName;
+        private final double percentage;
+        private final double weight;
+
+        public ScaledComponent(String componentName, double percentage, double weight) {
+            this.componentName = componentName;
+            this.percentage = percentage;
+            this.weight = weight;
+        }
+
+        public String getComponentName() {
+            return componentName;
+        }
+
+        public double getPercentage() {
+            return percentage;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+    }
+
+    public static class ScaledIngredient {
+        private final String ingredientName;
+        private final double baseQuantity;
+        private final double quantity;
+        private final String unit;
+
+        public ScaledIngredient(String ingredientName, double baseQuantity, double quantity, String unit) {
+            this.ingredientName = ingredientName;
+            this.baseQuantity = baseQuantity;
+            this.quantity = quantity;
+            this.unit = unit;
+        }
+
+        public String getIngredientName() {
+            return ingredientName;
+        }
+
+        public double getBaseQuantity() {
+            return baseQuantity;
+        }
+
+        public double getQuantity() {
+            return quantity;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+    }
+}
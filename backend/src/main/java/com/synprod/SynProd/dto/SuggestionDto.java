@@ -0,0 +1,50 @@
+package com.synprod.SynProd.dto;
+
+import com.synprod.SynProd.util.SuggestionTrie;
+
+public class SuggestionDto {
+
+    private String value;
+    private long usageCount;
+    private boolean fuzzy;
+
+    // Constructors
+    public SuggestionDto() {
+    }
+
+    public SuggestionDto(String value, long usageCount, boolean fuzzy) {
+        this.value = value;
+        this.usageCount = usageCount;
+        this.fuzzy = fuzzy;
+    }
+
+    // Static factory method to create DTO from a trie match
+    public static SuggestionDto fromMatch(SuggestionTrie.Match match) {
+        return new SuggestionDto(match.getValue(), match.getWeight(), match.getDistance() > 0);
+    }
+
+    // Getters and Setters
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public long getUsageCount() {
+        return usageCount;
+    }
+
+    public void setUsageCount(long usageCount) {
+        this.usageCount = usageCount;
+    }
+
+    public boolean isFuzzy() {
+        return fuzzy;
+    }
+
+    public void setFuzzy(boolean fuzzy) {
+        this.fuzzy = fuzzy;
+    }
+}
@@ -0,0 +1,67 @@
+package com.synprod.SynProd.dto;
+
+/**
+ * One recipe using a component or ingredient, with its share: the percentage
+ * of a component or the quantity and unit of an ingredient.
+ */
+public class WhereUsedDto {
+
+    private Long productId;
+    private String productName;
+    private String name;
+    private Double amount;
+    private String unit;
+
+    // Constructors
+    public WhereUsedDto() {
+    }
+
+    public WhereUsedDto(Long productId, String productName, String name, Double amount, String unit) {
+        this.productId = productId;
+        this.productName = productName;
+        this.name = name;
+        this.amount = amount;
+        this.unit = unit;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+}
@@ -0,0 +1,95 @@
+package com.synprod.SynProd.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * A packaging unit an order can be placed in (tubs, bottles, pouches) and how
+ * many base weights of the product type one unit holds.
+ */
+@Entity
+@Table(name = "packaging_capacities", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_packaging_capacity_type_code", columnNames = {"product_type", "code"})
+})
+public class PackagingCapacity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "packaging_capacity_id")
+    @SequenceGenerator(name = "packaging_capacity_id", sequenceName = "packaging_capacities_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "product_type", nullable = false)
+    private ProductType productType;
+
+    @Column(name = "code", nullable = false, length = 50)
+    private String code;
+
+    @Column(name = "label", nullable = false, length = 100)
+    private String label;
+
+    @Column(name = "multiplier", nullable = false)
+    private Double multiplier;
+
+    @Column(name = "sort_order", nullable = false)
+    private Integer sortOrder = 0;
+
+    // Constructors
+    public PackagingCapacity() {
+    }
+
+    public PackagingCapacity(ProductType productType, String code, String label, Double multiplier) {
+        this.productType = productType;
+        this.code = code;
+        this.label = label;
+        this.multiplier = multiplier;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ProductType getProductType() {
+        return productType;
+    }
+
+    public void setProductType(ProductType productType) {
+        this.productType = productType;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public Double getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(Double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    public Integer getSortOrder() {
+        return sortOrder;
+    }
+
+    public void setSortOrder(Integer sortOrder) {
+        this.sortOrder = sortOrder;
+    }
+}
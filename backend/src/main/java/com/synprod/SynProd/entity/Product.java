@@ -12,15 +12,19 @@ import java.util.List;
 @Entity
 @Table(name = "products", indexes = {
     @Index(name = "idx_product_name", columnList = "name"),
+    @Index(name = "idx_product_name_id", columnList = "name, id"),
     @Index(name = "idx_product_type", columnList = "product_type"),
     @Index(name = "idx_product_created_by", columnList = "created_by"),
     @Index(name = "idx_product_created_at", columnList = "created_at"),
+    @Index(name = "idx_product_created_by_created_at", columnList = "created_by, created_at DESC, id DESC"),
     @Index(name = "idx_product_deleted_at", columnList = "deleted_at")
 })
 public class Product {
 
+    // Sequence ids (pooled-lo, blocks of 50) keep inserts batchable; IDENTITY would force one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_id")
+    @SequenceGenerator(name = "product_id", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Product name is required")
@@ -38,9 +42,11 @@ public class Product {
     private ProductType productType;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @OrderBy("sortOrder ASC, id ASC")
     private List<ProductComposition> compositions = new ArrayList<>();
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @OrderBy("sortOrder ASC, id ASC")
     private List<ProductIngredient> additionalIngredients = new ArrayList<>();
 
     @Column(name = "created_at", nullable = false, updatable = false)
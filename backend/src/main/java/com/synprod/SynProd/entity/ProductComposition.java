@@ -16,7 +16,8 @@ import jakarta.validation.constraints.Size;
 public class ProductComposition {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_composition_id")
+    @SequenceGenerator(name = "product_composition_id", sequenceName = "product_compositions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -109,6 +110,14 @@ public class ProductComposition {
         this.sortOrder = sortOrder;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -15,7 +15,8 @@ import jakarta.validation.constraints.Size;
 public class ProductIngredient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_ingredient_id")
+    @SequenceGenerator(name = "product_ingredient_id", sequenceName = "product_ingredients_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -122,6 +123,14 @@ public class ProductIngredient {
         this.sortOrder = sortOrder;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // Helper method for display
     public String getDisplayText() {
         return String.format("%.2f %s %s", quantity, unit, ingredientName);
@@ -0,0 +1,56 @@
+package com.synprod.SynProd.event;
+
+import com.synprod.SynProd.dto.ProductDto;
+
+/**
+ * Published by ProductService whenever a product or its recipe data is written.
+ * Listeners that keep derived state (caches, indexes) should react with
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)} so they only ever
+ * observe committed data.
+ */
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Long productId;
+    private final Long version;
+    private final ChangeType changeType;
+    private final ProductDto snapshot;
+
+    public ProductChangedEvent(Long productId, Long version, ChangeType changeType) {
+        this(productId, version, changeType, null);
+    }
+
+    public ProductChangedEvent(Long productId, Long version, ChangeType changeType, ProductDto snapshot) {
+        this.productId = productId;
+        this.version = version;
+        this.changeType = changeType;
+        this.snapshot = snapshot;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    // The recipe as written by this change, when the publisher had it at hand; null for deletes
+    public ProductDto getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductChangedEvent{productId=" + productId + ", version=" + version + ", changeType=" + changeType + "}";
+    }
+}
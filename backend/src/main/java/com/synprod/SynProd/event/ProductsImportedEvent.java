@@ -0,0 +1,19 @@
+package com.synprod.SynProd.event;
+
+/**
+ * Published once after a bulk import has committed its products. Bulk imports
+ * bypass the per-product ProductChangedEvent, so listeners that keep derived
+ * state should rebuild or invalidate it wholesale when they receive this.
+ */
+public class ProductsImportedEvent {
+
+    private final long importedCount;
+
+    public ProductsImportedEvent(long importedCount) {
+        this.importedCount = importedCount;
+    }
+
+    public long getImportedCount() {
+        return importedCount;
+    }
+}
@@ -0,0 +1,18 @@
+package com.synprod.SynProd.repository;
+
+/**
+ * Projection for the where-used index: one composition or ingredient row of a
+ * live product with its amount (percentage or quantity) and unit.
+ */
+public interface MaterialUsageRow {
+
+    Long getProductId();
+
+    String getProductName();
+
+    String getName();
+
+    Double getAmount();
+
+    String getUnit();
+}
@@ -0,0 +1,13 @@
+package com.synprod.SynProd.repository;
+
+import com.synprod.SynProd.entity.PackagingCapacity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PackagingCapacityRepository extends JpaRepository<PackagingCapacity, Long> {
+
+    List<PackagingCapacity> findAllByOrderByProductTypeAscSortOrderAscIdAsc();
+}
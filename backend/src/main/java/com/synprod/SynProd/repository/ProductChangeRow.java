@@ -0,0 +1,17 @@
+package com.synprod.SynProd.repository;
+
+/**
+ * Projection for the delta-sync feed: a product id, the transaction id and
+ * change sequence number of its last write, and whether that write was a soft
+ * delete.
+ */
+public interface ProductChangeRow {
+
+    Long getProductId();
+
+    Long getChangeXid();
+
+    Long getChangeSeq();
+
+    Boolean getDeleted();
+}
@@ -0,0 +1,12 @@
+package com.synprod.SynProd.repository;
+
+/**
+ * Projection used to build in-memory name indexes: a product id with one name
+ * (the product name, a component name or an ingredient name).
+ */
+public interface ProductNameRow {
+
+    Long getProductId();
+
+    String getName();
+}
@@ -1,40 +1,123 @@
 package com.synprod.SynProd.repository;
 
+import com.synprod.SynProd.dto.ProductSummaryDto;
 import com.synprod.SynProd.entity.Product;
 import com.synprod.SynProd.entity.ProductType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-       // Find products by name (case insensitive search)
+       // Summary projection for list pages: scalar columns, creator name and child
+       // counts in one statement, no collections are loaded
+       String SUMMARY_SELECT = "SELECT new com.synprod.SynProd.dto.ProductSummaryDto(" +
+                     "p.id, p.name, p.description, p.productType, p.createdAt, p.updatedAt, p.version, " +
+                     "u.firstName, u.lastName, u.email, " +
+                     "(SELECT COUNT(c) FROM ProductComposition c WHERE c.product = p), " +
+                     "(SELECT COUNT(i) FROM ProductIngredient i WHERE i.product = p)) " +
+                     "FROM Product p LEFT JOIN p.createdBy u ";
+
+       // Keyset pagination: every listing is ordered by a unique (sort key, id) pair and
+       // resumes after the last row of the previous page instead of using OFFSET. The first
+       // page has its own query; later pages seek with a row-value comparison, which
+       // PostgreSQL turns into an index bound on (name, id). An OR of separate comparisons
+       // is only a filter, so the scan would still start at the first row.
+       String AFTER_NAME = "AND (p.name, p.id) > (:afterName, :afterId) ";
+       String ORDER_BY_NAME = "ORDER BY p.name ASC, p.id ASC";
+
+       // Find a page of product summaries ordered by name (exclude soft deleted)
+       @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL " + ORDER_BY_NAME)
+       List<ProductSummaryDto> findSummaryPageOrderByName(Limit limit);
+
+       @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL " + AFTER_NAME + ORDER_BY_NAME)
+       List<ProductSummaryDto> findSummaryPageOrderByNameAfter(
+                     @Param("afterName") String afterName,
+                     @Param("afterId") Long afterId,
+                     Limit limit);
+
+       // Count all live products
+       @Query("SELECT COUNT(p) FROM Product p WHERE p.deletedAt IS NULL")
+       long countActive();
+
+       // Find a page of product summaries by name (case insensitive search)
        // Expect the caller to provide wildcarded pattern (e.g., %term%) to avoid
        // DB-side CONCAT
-       @Query("SELECT p FROM Product p WHERE p.name ILIKE :name AND p.deletedAt IS NULL")
-       List<Product> findByNameContainingIgnoreCase(@Param("name") String name);
+       @Query(SUMMARY_SELECT + "WHERE p.name ILIKE :name AND p.deletedAt IS NULL " + ORDER_BY_NAME)
+       List<ProductSummaryDto> findSummaryPageByNameContainingIgnoreCase(
+                     @Param("name") String name,
+                     Limit limit);
 
-       // Find all products ordered by name (exclude soft deleted)
-       @Query("SELECT p FROM Product p WHERE p.deletedAt IS NULL ORDER BY p.name ASC")
-       List<Product> findAllOrderByName();
+       @Query(SUMMARY_SELECT + "WHERE p.name ILIKE :name AND p.deletedAt IS NULL " + AFTER_NAME + ORDER_BY_NAME)
+       List<ProductSummaryDto> findSummaryPageByNameContainingIgnoreCaseAfter(
+                     @Param("name") String name,
+                     @Param("afterName") String afterName,
+                     @Param("afterId") Long afterId,
+                     Limit limit);
 
-       // Find all products with user (prevents N+1 queries, exclude soft deleted)
-       @Query("SELECT p FROM Product p LEFT JOIN FETCH p.createdBy WHERE p.deletedAt IS NULL ORDER BY p.name ASC")
-       List<Product> findAllOrderByNameWithUser();
+       @Query("SELECT COUNT(p) FROM Product p WHERE p.name ILIKE :name AND p.deletedAt IS NULL")
+       long countByNameContainingIgnoreCase(@Param("name") String name);
 
-       // Find products with full composition data (exclude soft deleted)
-       @Query("SELECT DISTINCT p FROM Product p " +
-                     "LEFT JOIN FETCH p.compositions " +
-                     "LEFT JOIN FETCH p.additionalIngredients " +
+       // Ranked full-text search over products.search_document (name, components,
+       // ingredients, description; GIN index) with a trigram match on the name for
+       // partial words. Ordered by relevance, then id; the first page passes
+       // afterRank = +Infinity and afterId = 0.
+       @Query(value = "SELECT r.id AS id, r.rank AS rank FROM (" +
+                     "SELECT p.id AS id, CAST(ts_rank(p.search_document, q) + similarity(p.name, :term) AS real) AS rank " +
+                     "FROM products p, to_tsquery('simple', :tsQuery) q " +
+                     "WHERE p.deleted_at IS NULL AND (p.search_document @@ q OR p.name ILIKE :pattern)) r " +
+                     "WHERE r.rank < :afterRank OR (r.rank = :afterRank AND r.id > :afterId) " +
+                     "ORDER BY r.rank DESC, r.id ASC " +
+                     "LIMIT :limit", nativeQuery = true)
+       List<RankedProductId> searchRankedIds(
+                     @Param("tsQuery") String tsQuery,
+                     @Param("term") String term,
+                     @Param("pattern") String pattern,
+                     @Param("afterRank") float afterRank,
+                     @Param("afterId") long afterId,
+                     @Param("limit") int limit);
+
+       @Query(value = "SELECT COUNT(*) FROM products p " +
+                     "WHERE p.deleted_at IS NULL " +
+                     "AND (p.search_document @@ to_tsquery('simple', :tsQuery) OR p.name ILIKE :pattern)",
+                     nativeQuery = true)
+       long countRanked(@Param("tsQuery") String tsQuery, @Param("pattern") String pattern);
+
+       // Rebuild the search document of one product from its current rows
+       @Modifying(flushAutomatically = true)
+       @Query(value = "UPDATE products SET search_document = product_search_document(:id) WHERE id = :id",
+                     nativeQuery = true)
+       void refreshSearchDocument(@Param("id") Long id);
+
+       // Hydrate summaries for ids found by a search; the caller restores the ranking order
+       @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+       List<ProductSummaryDto> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+       // Stream all live products with their creator for the catalog export. Rows are
+       // pulled from a server-side cursor in fetch-size chunks (needs an open
+       // transaction); collections are loaded per chunk with the IN queries below.
+       @QueryHints({
+                     @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                     @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+       })
+       @Query("SELECT p FROM Product p " +
                      "LEFT JOIN FETCH p.createdBy " +
                      "WHERE p.deletedAt IS NULL " +
-                     "ORDER BY p.name ASC")
-       List<Product> findAllWithRecipeData();
+                     "ORDER BY p.id ASC")
+       Stream<Product> streamAllWithCreator();
 
        // Find single product with full recipe data (fetch user first, then collections
        // separately) - Note: soft delete check done in service layer for this method
@@ -57,59 +140,273 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
                      "WHERE p.id = :id")
        Optional<Product> findByIdWithIngredients(@Param("id") Long id);
 
+       // Batch variants of the three queries above: one IN query per association,
+       // so loading N products costs three statements instead of 3 * N
+       @Query("SELECT p FROM Product p " +
+                     "LEFT JOIN FETCH p.createdBy " +
+                     "WHERE p.id IN :ids AND p.deletedAt IS NULL")
+       List<Product> findAllByIdWithRecipeData(@Param("ids") Collection<Long> ids);
+
+       @Query("SELECT DISTINCT p FROM Product p " +
+                     "LEFT JOIN FETCH p.compositions " +
+                     "WHERE p.id IN :ids")
+       List<Product> findAllByIdWithCompositions(@Param("ids") Collection<Long> ids);
+
+       @Query("SELECT DISTINCT p FROM Product p " +
+                     "LEFT JOIN FETCH p.additionalIngredients " +
+                     "WHERE p.id IN :ids")
+       List<Product> findAllByIdWithIngredients(@Param("ids") Collection<Long> ids);
+
+       // Full recipe assembled as JSON by PostgreSQL in one round trip: product,
+       // creator name, compositions and ingredients (each ordered by sort_order, id)
+       // in the same shape ProductDto serializes to. :productTypes maps each type
+       // name to its base weight fields (built from the ProductType enum) so the
+       // enum stays the only source of those values.
+       @Query(value = "SELECT CAST(jsonb_build_object(" +
+                     "'id', p.id, 'name', p.name, 'description', p.description, " +
+                     "'productType', p.product_type, 'createdAt', p.created_at, 'updatedAt', p.updated_at, " +
+                     "'version', p.version, " +
+                     "'createdByName', CASE WHEN u.id IS NULL THEN NULL " +
+                     "WHEN COALESCE(btrim(u.first_name), '') = '' OR COALESCE(btrim(u.last_name), '') = '' THEN u.email " +
+                     "ELSE u.first_name || ' ' || u.last_name END, " +
+                     "'compositions', COALESCE(c.items, CAST('[]' AS jsonb)), " +
+                     "'additionalIngredients', COALESCE(i.items, CAST('[]' AS jsonb)), " +
+                     "'totalCompositionPercentage', COALESCE(c.total, 0)) " +
+                     "|| COALESCE(CAST(:productTypes AS jsonb) -> p.product_type, CAST('{}' AS jsonb)) AS text) " +
+                     "FROM products p " +
+                     "LEFT JOIN users u ON u.id = p.created_by " +
+                     "LEFT JOIN LATERAL (SELECT jsonb_agg(jsonb_build_object(" +
+                     "'id', pc.id, 'componentName', pc.component_name, 'percentage', pc.percentage, " +
+                     "'notes', pc.notes, 'sortOrder', pc.sort_order, 'version', pc.version) " +
+                     "ORDER BY pc.sort_order, pc.id) AS items, SUM(pc.percentage) AS total " +
+                     "FROM product_compositions pc WHERE pc.product_id = p.id) c ON TRUE " +
+                     "LEFT JOIN LATERAL (SELECT jsonb_agg(jsonb_build_object(" +
+                     "'id', pi.id, 'ingredientName', pi.ingredient_name, 'quantity', pi.quantity, " +
+                     "'unit', pi.unit, 'notes', pi.notes, 'sortOrder', pi.sort_order, 'version', pi.version, " +
+                     "'displayText', round(CAST(pi.quantity AS numeric), 2) || ' ' || pi.unit || ' ' || pi.ingredient_name) " +
+                     "ORDER BY pi.sort_order, pi.id) AS items " +
+                     "FROM product_ingredients pi WHERE pi.product_id = p.id) i ON TRUE " +
+                     "WHERE p.id = :id AND p.deleted_at IS NULL", nativeQuery = true)
+       Optional<String> findRecipeJsonById(@Param("id") Long id, @Param("productTypes") String productTypes);
+
+       // Lower-cased names among the given ones that a live product already uses (bulk import)
+       @Query("SELECT LOWER(p.name) FROM Product p WHERE p.deletedAt IS NULL AND LOWER(p.name) IN :names")
+       List<String> findExistingNamesIgnoreCase(@Param("names") Collection<String> names);
+
        // Check if product name exists (excluding specific ID for updates, exclude soft deleted)
        @Query("SELECT COUNT(p) > 0 FROM Product p WHERE p.deletedAt IS NULL AND LOWER(p.name) = LOWER(:name) AND (:id IS NULL OR p.id != :id)")
        boolean existsByNameIgnoreCaseAndIdNot(@Param("name") String name, @Param("id") Long id);
 
-       // Find products created by specific user (exclude soft deleted)
-       @Query("SELECT p FROM Product p WHERE p.deletedAt IS NULL AND p.createdBy.id = :userId ORDER BY p.createdAt DESC")
-       List<Product> findByCreatedByIdOrderByCreatedAtDesc(@Param("userId") Long userId);
+       // Find a page of product summaries created by specific user, newest first
+       // (exclude soft deleted)
+       @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL AND u.id = :userId " +
+                     "ORDER BY p.createdAt DESC, p.id DESC")
+       List<ProductSummaryDto> findSummaryPageByCreatedByIdOrderByCreatedAtDesc(
+                     @Param("userId") Long userId,
+                     Limit limit);
+
+       @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL AND u.id = :userId " +
+                     "AND (p.createdAt, p.id) < (:beforeCreatedAt, :beforeId) " +
+                     "ORDER BY p.createdAt DESC, p.id DESC")
+       List<ProductSummaryDto> findSummaryPageByCreatedByIdOrderByCreatedAtDescBefore(
+                     @Param("userId") Long userId,
+                     @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                     @Param("beforeId") Long beforeId,
+                     Limit limit);
+
+       @Query("SELECT COUNT(p) FROM Product p WHERE p.deletedAt IS NULL AND p.createdBy.id = :userId")
+       long countByCreatedById(@Param("userId") Long userId);
 
        // Advanced search with multiple criteria (PostgreSQL-specific ILIKE for
-       // case-insensitive matching)
+       // case-insensitive matching). Child filters use EXISTS so no DISTINCT is needed.
        // Caller must pass pre-wildcarded parameters (e.g., %term%)
-       @Query("SELECT DISTINCT p FROM Product p " +
-                     "LEFT JOIN p.compositions c " +
-                     "LEFT JOIN p.additionalIngredients i " +
-                     "WHERE p.deletedAt IS NULL " +
+       String FILTER_CRITERIA = "WHERE p.deletedAt IS NULL " +
                      "AND (:name IS NULL OR p.name ILIKE :name) " +
                      "AND (:description IS NULL OR p.description ILIKE :description) " +
-                     "AND (:componentName IS NULL OR c.componentName ILIKE :componentName) " +
-                     "AND (:ingredientName IS NULL OR i.ingredientName ILIKE :ingredientName) " +
-                     "AND (:productType IS NULL OR p.productType = :productType) " +
-                     "ORDER BY p.name ASC")
-       List<Product> findWithFilters(
+                     "AND (:componentName IS NULL OR EXISTS (SELECT 1 FROM ProductComposition c " +
+                     "WHERE c.product = p AND c.componentName ILIKE :componentName)) " +
+                     "AND (:ingredientName IS NULL OR EXISTS (SELECT 1 FROM ProductIngredient i " +
+                     "WHERE i.product = p AND i.ingredientName ILIKE :ingredientName)) " +
+                     "AND (:productType IS NULL OR p.productType = :productType) ";
+
+       @Query(SUMMARY_SELECT + FILTER_CRITERIA + ORDER_BY_NAME)
+       List<ProductSummaryDto> findSummaryPageWithFilters(
+                     @Param("name") String name,
+                     @Param("description") String description,
+                     @Param("componentName") String componentName,
+                     @Param("ingredientName") String ingredientName,
+                     @Param("productType") ProductType productType,
+                     Limit limit);
+
+       @Query(SUMMARY_SELECT + FILTER_CRITERIA + AFTER_NAME + ORDER_BY_NAME)
+       List<ProductSummaryDto> findSummaryPageWithFiltersAfter(
+                     @Param("name") String name,
+                     @Param("description") String description,
+                     @Param("componentName") String componentName,
+                     @Param("ingredientName") String ingredientName,
+                     @Param("productType") ProductType productType,
+                     @Param("afterName") String afterName,
+                     @Param("afterId") Long afterId,
+                     Limit limit);
+
+       @Query("SELECT COUNT(p) FROM Product p " + FILTER_CRITERIA)
+       long countWithFilters(
                      @Param("name") String name,
                      @Param("description") String description,
                      @Param("componentName") String componentName,
                      @Param("ingredientName") String ingredientName,
                      @Param("productType") ProductType productType);
 
-       // Find products with specific component (use ILIKE with pre-wildcarded param, exclude soft deleted)
-       @Query("SELECT DISTINCT p FROM Product p " +
-                     "JOIN p.compositions c " +
-                     "WHERE p.deletedAt IS NULL AND c.componentName ILIKE :componentName")
-       List<Product> findByComponentName(@Param("componentName") String componentName);
+       // Find a page of product summaries with specific component (use ILIKE with
+       // pre-wildcarded param, exclude soft deleted)
+       @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL " +
+                     "AND EXISTS (SELECT 1 FROM ProductComposition c WHERE c.product = p AND c.componentName ILIKE :componentName) " +
+                     ORDER_BY_NAME)
+       List<ProductSummaryDto> findSummaryPageByComponentName(
+                     @Param("componentName") String componentName,
+                     Limit limit);
 
-       // Find products with specific ingredient (use ILIKE with pre-wildcarded param, exclude soft deleted)
-       @Query("SELECT DISTINCT p FROM Product p " +
-                     "JOIN p.additionalIngredients i " +
-                     "WHERE p.deletedAt IS NULL AND i.ingredientName ILIKE :ingredientName")
-       List<Product> findByIngredientName(@Param("ingredientName") String ingredientName);
+       @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL " +
+                     "AND EXISTS (SELECT 1 FROM ProductComposition c WHERE c.product = p AND c.componentName ILIKE :componentName) " +
+                     AFTER_NAME + ORDER_BY_NAME)
+       List<ProductSummaryDto> findSummaryPageByComponentNameAfter(
+                     @Param("componentName") String componentName,
+                     @Param("afterName") String afterName,
+                     @Param("afterId") Long afterId,
+                     Limit limit);
+
+       @Query("SELECT COUNT(p) FROM Product p WHERE p.deletedAt IS NULL " +
+                     "AND EXISTS (SELECT 1 FROM ProductComposition c WHERE c.product = p AND c.componentName ILIKE :componentName)")
+       long countByComponentName(@Param("componentName") String componentName);
+
+       // Find a page of product summaries with specific ingredient (use ILIKE with
+       // pre-wildcarded param, exclude soft deleted)
+       @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL " +
+                     "AND EXISTS (SELECT 1 FROM ProductIngredient i WHERE i.product = p AND i.ingredientName ILIKE :ingredientName) " +
+                     ORDER_BY_NAME)
+       List<ProductSummaryDto> findSummaryPageByIngredientName(
+                     @Param("ingredientName") String ingredientName,
+                     Limit limit);
+
+       @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL " +
+                     "AND EXISTS (SELECT 1 FROM ProductIngredient i WHERE i.product = p AND i.ingredientName ILIKE :ingredientName) " +
+                     AFTER_NAME + ORDER_BY_NAME)
+       List<ProductSummaryDto> findSummaryPageByIngredientNameAfter(
+                     @Param("ingredientName") String ingredientName,
+                     @Param("afterName") String afterName,
+                     @Param("afterId") Long afterId,
+                     Limit limit);
+
+       @Query("SELECT COUNT(p) FROM Product p WHERE p.deletedAt IS NULL " +
+                     "AND EXISTS (SELECT 1 FROM ProductIngredient i WHERE i.product = p AND i.ingredientName ILIKE :ingredientName)")
+       long countByIngredientName(@Param("ingredientName") String ingredientName);
+
+       // Find a page of product summaries by product type (exclude soft deleted)
+       @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL AND p.productType = :productType " + ORDER_BY_NAME)
+       List<ProductSummaryDto> findSummaryPageByProductType(
+                     @Param("productType") ProductType productType,
+                     Limit limit);
+
+       @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL AND p.productType = :productType " + AFTER_NAME + ORDER_BY_NAME)
+       List<ProductSummaryDto> findSummaryPageByProductTypeAfter(
+                     @Param("productType") ProductType productType,
+                     @Param("afterName") String afterName,
+                     @Param("afterId") Long afterId,
+                     Limit limit);
+
+       @Query("SELECT COUNT(p) FROM Product p WHERE p.deletedAt IS NULL AND p.productType = :productType")
+       long countByProductType(@Param("productType") ProductType productType);
+
+       // Name rows of live products for the in-memory search indexes (ProductSearchIndex)
+       @Query("SELECT p.id AS productId, p.name AS name FROM Product p WHERE p.deletedAt IS NULL")
+       List<ProductNameRow> findLiveProductNames();
+
+       @Query("SELECT c.product.id AS productId, c.componentName AS name FROM ProductComposition c " +
+                     "WHERE c.product.deletedAt IS NULL")
+       List<ProductNameRow> findLiveComponentNames();
+
+       @Query("SELECT i.product.id AS productId, i.ingredientName AS name FROM ProductIngredient i " +
+                     "WHERE i.product.deletedAt IS NULL")
+       List<ProductNameRow> findLiveIngredientNames();
+
+       // Same rows for a single product (incremental index updates after a write)
+       @Query("SELECT p.id AS productId, p.name AS name FROM Product p WHERE p.id = :id AND p.deletedAt IS NULL")
+       List<ProductNameRow> findLiveProductNames(@Param("id") Long id);
+
+       @Query("SELECT c.product.id AS productId, c.componentName AS name FROM ProductComposition c " +
+                     "WHERE c.product.id = :id AND c.product.deletedAt IS NULL")
+       List<ProductNameRow> findLiveComponentNames(@Param("id") Long id);
+
+       @Query("SELECT i.product.id AS productId, i.ingredientName AS name FROM ProductIngredient i " +
+                     "WHERE i.product.id = :id AND i.product.deletedAt IS NULL")
+       List<ProductNameRow> findLiveIngredientNames(@Param("id") Long id);
+
+       // Usage rows for the where-used index; compositions are measured in percent of the batch
+       @Query("SELECT c.product.id AS productId, c.product.name AS productName, c.componentName AS name, " +
+                     "c.percentage AS amount, '%' AS unit FROM ProductComposition c WHERE c.product.deletedAt IS NULL")
+       List<MaterialUsageRow> findLiveComponentUsages();
+
+       @Query("SELECT i.product.id AS productId, i.product.name AS productName, i.ingredientName AS name, " +
+                     "i.quantity AS amount, i.unit AS unit FROM ProductIngredient i WHERE i.product.deletedAt IS NULL")
+       List<MaterialUsageRow> findLiveIngredientUsages();
+
+       @Query("SELECT c.product.id AS productId, c.product.name AS productName, c.componentName AS name, " +
+                     "c.percentage AS amount, '%' AS unit FROM ProductComposition c " +
+                     "WHERE c.product.id = :id AND c.product.deletedAt IS NULL")
+       List<MaterialUsageRow> findLiveComponentUsages(@Param("id") Long id);
+
+       @Query("SELECT i.product.id AS productId, i.product.name AS productName, i.ingredientName AS name, " +
+                     "i.quantity AS amount, i.unit AS unit FROM ProductIngredient i " +
+                     "WHERE i.product.id = :id AND i.product.deletedAt IS NULL")
+       List<MaterialUsageRow> findLiveIngredientUsages(@Param("id") Long id);
+
+       // Products written after a change position (products.change_xid and change_seq, set by a
+       // trigger), oldest change first; an initial sync (includeDeleted = false) skips soft-deleted
+       // products. Only changes of transactions below the snapshot's xmin are returned: those have
+       // all finished, and every transaction still running will commit with a larger id.
+       @Query(value = "SELECT p.id AS productId, CAST(CAST(p.change_xid AS text) AS bigint) AS changeXid, " +
+                     "p.change_seq AS changeSeq, (p.deleted_at IS NOT NULL) AS deleted FROM products p " +
+                     "WHERE (p.change_xid, p.change_seq) > (CAST(CAST(:sinceXid AS text) AS xid8), :sinceSeq) " +
+                     "AND p.change_xid < pg_snapshot_xmin(pg_current_snapshot()) " +
+                     "AND (:includeDeleted OR p.deleted_at IS NULL) " +
+                     "ORDER BY p.change_xid, p.change_seq LIMIT :limit", nativeQuery = true)
+       List<ProductChangeRow> findChangesSince(
+                     @Param("sinceXid") long sinceXid,
+                     @Param("sinceSeq") long sinceSeq,
+                     @Param("includeDeleted") boolean includeDeleted,
+                     @Param("limit") int limit);
+
+       // Whether the archive job has purged a change at or after this position from products
+       // (see ProductArchiveService)
+       @Query(value = "SELECT EXISTS (SELECT 1 FROM product_change_watermark w WHERE w.id = 1 " +
+                     "AND (CAST(CAST(:xid AS text) AS xid8), :seq) < (w.purged_through_xid, w.purged_through))",
+                     nativeQuery = true)
+       boolean isPurgedAfter(@Param("xid") long xid, @Param("seq") long seq);
+
+       // Current versions of the given live products (RecipePdfService startup sweep)
+       @Query("SELECT p.id AS productId, p.version AS version FROM Product p " +
+                     "WHERE p.id IN :ids AND p.deletedAt IS NULL")
+       List<ProductVersionRow> findLiveVersionsByIds(@Param("ids") Collection<Long> ids);
+
+       // Product types of live products for the facet counts (ProductFacetService)
+       @Query("SELECT p.id AS productId, p.productType AS productType FROM Product p WHERE p.deletedAt IS NULL")
+       List<ProductTypeRow> findLiveProductTypes();
 
-       // Find products by product type (exclude soft deleted)
-       @Query("SELECT p FROM Product p WHERE p.deletedAt IS NULL AND p.productType = :productType ORDER BY p.name ASC")
-       List<Product> findByProductType(@Param("productType") ProductType productType);
+       @Query("SELECT p.id AS productId, p.productType AS productType FROM Product p " +
+                     "WHERE p.id = :id AND p.deletedAt IS NULL")
+       List<ProductTypeRow> findLiveProductTypes(@Param("id") Long id);
 
-       // Get all product types used in products
-       @Query("SELECT DISTINCT p.productType FROM Product p ORDER BY p.productType")
+       // Get all product types used in live products
+       @Query("SELECT DISTINCT p.productType FROM Product p WHERE p.deletedAt IS NULL ORDER BY p.productType")
        List<ProductType> findDistinctProductTypes();
 
-       // Get all unique component names
-       @Query("SELECT DISTINCT c.componentName FROM ProductComposition c ORDER BY c.componentName")
+       // Get all unique component names of live products
+       @Query("SELECT DISTINCT c.componentName FROM ProductComposition c WHERE c.product.deletedAt IS NULL " +
+                     "ORDER BY c.componentName")
        List<String> findDistinctComponentNames();
 
-       // Get all unique ingredient names
-       @Query("SELECT DISTINCT i.ingredientName FROM ProductIngredient i ORDER BY i.ingredientName")
+       // Get all unique ingredient names of live products
+       @Query("SELECT DISTINCT i.ingredientName FROM ProductIngredient i WHERE i.product.deletedAt IS NULL " +
+                     "ORDER BY i.ingredientName")
        List<String> findDistinctIngredientNames();
 }
@@ -0,0 +1,13 @@
+package com.synprod.SynProd.repository;
+
+import com.synprod.SynProd.entity.ProductType;
+
+/**
+ * Projection used by the facet counts: a live product id with its type.
+ */
+public interface ProductTypeRow {
+
+    Long getProductId();
+
+    ProductType getProductType();
+}
@@ -0,0 +1,12 @@
+package com.synprod.SynProd.repository;
+
+/**
+ * Projection used to drop derived files of outdated recipes: a live product id
+ * with its current version.
+ */
+public interface ProductVersionRow {
+
+    Long getProductId();
+
+    Long getVersion();
+}
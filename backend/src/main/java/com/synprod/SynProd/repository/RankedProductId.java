@@ -0,0 +1,11 @@
+package com.synprod.SynProd.repository;
+
+/**
+ * Native query projection: a product id with its search relevance.
+ */
+public interface RankedProductId {
+
+    Long getId();
+
+    Float getRank();
+}
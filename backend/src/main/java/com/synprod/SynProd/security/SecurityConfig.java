@@ -1,5 +1,6 @@
 package com.synprod.SynProd.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -58,15 +59,19 @@ public class SecurityConfig {
                                 .preload(true))
                         .referrerPolicy(referrerPolicy -> referrerPolicy
                                 .policy(ReferrerPolicyHeaderWriter.ReferrerPolicy.STRICT_ORIGIN_WHEN_CROSS_ORIGIN))
+                        // Default no-store cache headers are only written when a controller
+                        // has not set its own Cache-Control (e.g. ETag-revalidated product reads)
+                        .cacheControl(cacheControl -> {
+                        })
                         .addHeaderWriter((request, response) -> {
                             response.setHeader("X-Content-Type-Options", "nosniff");
                             response.setHeader("X-Frame-Options", "DENY");
                             response.setHeader("X-XSS-Protection", "1; mode=block");
-                            response.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
-                            response.setHeader("Pragma", "no-cache");
-                            response.setHeader("Expires", "0");
                         }))
                 .authorizeHttpRequests(auth -> auth
+                        // The request was authorised on its original dispatch; the stateless
+                        // context is gone when SSE, StreamingResponseBody or error dispatches run
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/auth/login").permitAll()
                         .requestMatchers("/api/auth/refresh").permitAll()
                         .requestMatchers("/api/auth/accept-invite").permitAll()
@@ -107,6 +112,8 @@ public class SecurityConfig {
                 "Content-Type",
                 "X-Requested-With",
                 "Accept",
+                "If-None-Match",
+                "If-Match",
                 "Origin",
                 "Access-Control-Request-Method",
                 "Access-Control-Request-Headers"));
@@ -115,7 +122,9 @@ public class SecurityConfig {
         configuration.setExposedHeaders(Arrays.asList(
                 "Authorization",
                 "Content-Type",
-                "X-Total-Count"));
+                "X-Total-Count",
+                "X-Next-Cursor",
+                "ETag"));
 
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L); // Cache preflight for 1 hour
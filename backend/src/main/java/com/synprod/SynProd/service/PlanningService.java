@@ -0,0 +1,230 @@
+package com.synprod.SynProd.service;
+
+import com.synprod.SynProd.dto.PlanRequirementsDto;
+import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.dto.ScaleRequest;
+import com.synprod.SynProd.entity.PackagingCapacity;
+import com.synprod.SynProd.exception.ProductNotFoundException;
+import com.synprod.SynProd.exception.ValidationException;
+import com.synprod.SynProd.util.CompiledRecipe;
+import com.synprod.SynProd.util.UnitConversion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Material requirements of a production plan. Every line is scaled like
+ * POST /api/products/{id}/scale, then component weights and ingredient amounts
+ * are summed per material over all lines.
+ *
+ * Materials are numbered up front (components by name, ingredients by name
+ * and base unit), so the summing is a parallel fork-join reduction over plain
+ * double arrays: each worker fills its own arrays and the partial results are
+ * added pairwise.
+ */
+@Service
+public class PlanningService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanningService.class);
+
+    static final int MAX_PLAN_LINES = 10_000;
+
+    private final ProductService productService;
+    private final RecipeScalingService recipeScalingService;
+
+    public PlanningService(ProductService productService, RecipeScalingService recipeScalingService) {
+        this.productService = productService;
+        this.recipeScalingService = recipeScalingService;
+    }
+
+    public PlanRequirementsDto calculateRequirements(List<ScaleRequest> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new ValidationException("At least one plan line is required");
+        }
+        if (lines.size() > MAX_PLAN_LINES) {
+            throw new ValidationException("A plan can have at most " + MAX_PLAN_LINES + " lines");
+        }
+        long start = System.currentTimeMillis();
+
+        Map<Long, ProductDto> products = loadProducts(lines);
+
+        // Number the materials and map every recipe onto those numbers
+        Materials components = new Materials();
+        Materials ingredients = new Materials();
+        Map<Long, PlanRecipe> recipes = new HashMap<>();
+        products.values().forEach(product -> recipes.put(product.getId(),
+                planRecipe(recipeScalingService.compiled(product), recipes.size(), components, ingredients)));
+
+        // Resolve packaging and batch weight per line; errors surface here, before any summing
+        int n = lines.size();
+        PlanRecipe[] lineRecipes = new PlanRecipe[n];
+        double[] lineGrams = new double[n];
+        double totalGrams = 0;
+        for (int i = 0; i < n; i++) {
+            ScaleRequest line = lines.get(i);
+            if (line.getQuantity() == null || !(line.getQuantity() > 0) || line.getQuantity().isInfinite()) {
+                throw new ValidationException("Quantity must be a positive number (line " + (i + 1) + ")");
+            }
+            ProductDto product = products.get(line.getProductId());
+            PackagingCapacity capacity = recipeScalingService.resolveCapacity(product.getProductType(), line.getCapacity());
+            lineRecipes[i] = recipes.get(product.getId());
+            lineGrams[i] = lineRecipes[i].recipe.totalTenths(line.getQuantity(), capacity.getMultiplier()) / 10.0;
+            totalGrams += lineGrams[i];
+        }
+
+        int componentCount = components.size();
+        int ingredientCount = ingredients.size();
+        Totals totals = IntStream.range(0, n).parallel().collect(
+                () -> new Totals(componentCount, ingredientCount),
+                (acc, i) -> acc.add(lineRecipes[i], lineGrams[i]),
+                Totals::merge);
+
+        PlanRequirementsDto result = new PlanRequirementsDto();
+        result.setLineCount(n);
+        result.setProductCount(products.size());
+        result.setTotalWeight(round(totalGrams, 10));
+        result.setWeightUnit("g");
+        result.setComponents(components.toRequirements(totals.components, 10));
+        result.setIngredients(ingredients.toRequirements(totals.ingredients, 100));
+        log.debug("Plan of {} lines over {} products calculated in {} ms", n, products.size(),
+                System.currentTimeMillis() - start);
+        return result;
+    }
+
+    // Distinct products, fetched in batch-get sized chunks (mostly served from the detail cache)
+    private Map<Long, ProductDto> loadProducts(List<ScaleRequest> lines) {
+        LinkedHashSet<Long> ids = new LinkedHashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).getProductId() == null) {
+                throw new ValidationException("Product id is required (line " + (i + 1) + ")");
+            }
+            ids.add(lines.get(i).getProductId());
+        }
+        List<Long> idList = new ArrayList<>(ids);
+        Map<Long, ProductDto> products = new HashMap<>();
+        for (int from = 0; from < idList.size(); from += ProductService.MAX_BATCH_GET) {
+            List<Long> chunk = idList.subList(from, Math.min(from + ProductService.MAX_BATCH_GET, idList.size()));
+            productService.getProductsByIds(new ArrayList<>(chunk)).forEach(product -> products.put(product.getId(), product));
+        }
+        for (Long id : idList) {
+            if (!products.containsKey(id)) {
+                throw new ProductNotFoundException(id);
+            }
+        }
+        return products;
+    }
+
+    private static PlanRecipe planRecipe(CompiledRecipe recipe, int productOrdinal, Materials components,
+            Materials ingredients) {
+        int[] componentSlots = new int[recipe.componentCount()];
+        double[] componentFactors = new double[recipe.componentCount()];
+        for (int i = 0; i < componentSlots.length; i++) {
+            componentSlots[i] = components.slot(recipe.componentName(i), "g", productOrdinal);
+            componentFactors[i] = recipe.fraction(i);
+        }
+        int[] ingredientSlots = new int[recipe.ingredientCount()];
+        double[] ingredientFactors = new double[recipe.ingredientCount()];
+        for (int i = 0; i < ingredientSlots.length; i++) {
+            // Units are folded into a base unit before summing; other units are summed as given
+            UnitConversion conversion = UnitConversion.of(recipe.ingredientUnit(i));
+            ingredientSlots[i] = ingredients.slot(recipe.ingredientName(i), conversion.unit(), productOrdinal);
+            ingredientFactors[i] = conversion.toBase(recipe.ingredientPerGram(i));
+        }
+        return new PlanRecipe(recipe, componentSlots, componentFactors, ingredientSlots, ingredientFactors);
+    }
+
+    private static double round(double value, int scale) {
+        return Math.round(value * scale) / (double) scale;
+    }
+
+    // A compiled recipe with its materials mapped to plan-wide slots; factors are per gram of batch
+    private record PlanRecipe(CompiledRecipe recipe, int[] componentSlots, double[] componentFactors,
+            int[] ingredientSlots, double[] ingredientFactors) {
+    }
+
+    // Per-worker accumulators of the fork-join reduction
+    private static final class Totals {
+        private final double[] components;
+        private final double[] ingredients;
+
+        private Totals(int componentCount, int ingredientCount) {
+            this.components = new double[componentCount];
+            this.ingredients = new double[ingredientCount];
+        }
+
+        private void add(PlanRecipe plan, double grams) {
+            for (int i = 0; i < plan.componentSlots.length; i++) {
+                components[plan.componentSlots[i]] += grams * plan.componentFactors[i];
+            }
+            for (int i = 0; i < plan.ingredientSlots.length; i++) {
+                ingredients[plan.ingredientSlots[i]] += grams * plan.ingredientFactors[i];
+            }
+        }
+
+        private void merge(Totals other) {
+            for (int i = 0; i < components.length; i++) {
+                components[i] += other.components[i];
+            }
+            for (int i = 0; i < ingredients.length; i++) {
+                ingredients[i] += other.ingredients[i];
+            }
+        }
+    }
+
+    // Plan-wide numbering of materials, keyed by case-insensitive name and unit
+    private static final class Materials {
+        private final Map<String, Integer> slots = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<String> units = new ArrayList<>();
+        private int[] usedBy = new int[64];
+        private int[] lastProduct = new int[64];
+
+        private int slot(String name, String unit, int productOrdinal) {
+            String display = name != null ? name.trim() : "";
+            String key = display.toLowerCase(Locale.ROOT) + '\u0000' + unit;
+            Integer slot = slots.get(key);
+            if (slot == null) {
+                slot = names.size();
+                slots.put(key, slot);
+                names.add(display);
+                units.add(unit);
+                if (slot == usedBy.length) {
+                    usedBy = Arrays.copyOf(usedBy, slot * 2);
+                    lastProduct = Arrays.copyOf(lastProduct, slot * 2);
+                }
+                lastProduct[slot] = -1;
+            }
+            // Count each product once even if its recipe lists the material twice
+            if (lastProduct[slot] != productOrdinal) {
+                lastProduct[slot] = productOrdinal;
+                usedBy[slot]++;
+            }
+            return slot;
+        }
+
+        private int size() {
+            return names.size();
+        }
+
+        private List<PlanRequirementsDto.Requirement> toRequirements(double[] totals, int scale) {
+            List<PlanRequirementsDto.Requirement> requirements = new ArrayList<>(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                requirements.add(new PlanRequirementsDto.Requirement(
+                        names.get(i), round(totals[i], scale), units.get(i), usedBy[i]));
+            }
+            requirements.sort(Comparator.comparingDouble(PlanRequirementsDto.Requirement::getAmount).reversed()
+                    .thenComparing(PlanRequirementsDto.Requirement::getName));
+            return requirements;
+        }
+    }
+}
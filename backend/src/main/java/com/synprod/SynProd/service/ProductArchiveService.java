@@ -0,0 +1,200 @@
+package com.synprod.SynProd.service;
+
+import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.entity.Product;
+import com.synprod.SynProd.event.ProductChangedEvent;
+import com.synprod.SynProd.exception.DuplicateResourceException;
+import com.synprod.SynProd.exception.ProductNotFoundException;
+import com.synprod.SynProd.exception.ValidationException;
+import com.synprod.SynProd.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves products that were soft-deleted longer ago than the retention window,
+ * together with their compositions and ingredients, out of the hot tables into
+ * the *_archive tables, and restores them on request.
+ *
+ * The job works in small batches, each in its own short transaction with a
+ * lock timeout: rows are claimed with FOR UPDATE SKIP LOCKED, so it never
+ * waits on user writes and several instances can run it side by side.
+ */
+@Service
+public class ProductArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductArchiveService.class);
+
+    private static final String CLAIM_BATCH = "SELECT id FROM products WHERE deleted_at < ? " +
+            "ORDER BY deleted_at LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String ARCHIVE_PRODUCTS = "INSERT INTO products_archive " +
+            "(id, name, description, product_type, created_by, created_at, updated_at, deleted_at, version) " +
+            "SELECT id, name, description, product_type, created_by, created_at, updated_at, deleted_at, version " +
+            "FROM products WHERE id = ANY(?)";
+    private static final String ARCHIVE_COMPOSITIONS = "INSERT INTO product_compositions_archive " +
+            "(id, product_id, component_name, percentage, notes, sort_order, version) " +
+            "SELECT id, product_id, component_name, percentage, notes, sort_order, version " +
+            "FROM product_compositions WHERE product_id = ANY(?)";
+    private static final String ARCHIVE_INGREDIENTS = "INSERT INTO product_ingredients_archive " +
+            "(id, product_id, ingredient_name, quantity, unit, notes, sort_order, version) " +
+            "SELECT id, product_id, ingredient_name, quantity, unit, notes, sort_order, version " +
+            "FROM product_ingredients WHERE product_id = ANY(?)";
+
+    // Deletions purged here can no longer be reported by the change feed
+    private static final String RAISE_PURGE_WATERMARK = "WITH last AS (SELECT change_xid, change_seq " +
+            "FROM products WHERE id = ANY(?) ORDER BY change_xid DESC, change_seq DESC LIMIT 1) " +
+            "UPDATE product_change_watermark w SET purged_through_xid = last.change_xid, " +
+            "purged_through = last.change_seq FROM last WHERE w.id = 1 " +
+            "AND (last.change_xid, last.change_seq) > (w.purged_through_xid, w.purged_through)";
+
+    // Restored products come back live, with a new version so clients and caches see a change
+    private static final String RESTORE_PRODUCT = "INSERT INTO products " +
+            "(id, name, description, product_type, created_by, created_at, updated_at, version) " +
+            "SELECT id, name, description, product_type, created_by, created_at, now(), COALESCE(version, 0) + 1 " +
+            "FROM products_archive WHERE id = ?";
+    private static final String RESTORE_COMPOSITIONS = "INSERT INTO product_compositions " +
+            "(id, product_id, component_name, percentage, notes, sort_order, version) " +
+            "SELECT id, product_id, component_name, percentage, notes, sort_order, version " +
+            "FROM product_compositions_archive WHERE product_id = ?";
+    private static final String RESTORE_INGREDIENTS = "INSERT INTO product_ingredients " +
+            "(id, product_id, ingredient_name, quantity, unit, notes, sort_order, version) " +
+            "SELECT id, product_id, ingredient_name, quantity, unit, notes, sort_order, version " +
+            "FROM product_ingredients_archive WHERE product_id = ?";
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate batchTransaction;
+    private final long retentionDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long lockTimeoutMillis;
+
+    public ProductArchiveService(ProductRepository productRepository, JdbcTemplate jdbcTemplate,
+            EntityManager entityManager, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.archive.retention-days:30}") long retentionDays,
+            @Value("${app.archive.batch-size:200}") int batchSize,
+            @Value("${app.archive.max-batches-per-run:50}") int maxBatchesPerRun,
+            @Value("${app.archive.lock-timeout-ms:2000}") long lockTimeoutMillis) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+    }
+
+    /**
+     * Archives expired soft-deleted products batch by batch until none are
+     * left or the per-run batch limit is reached.
+     *
+     * @return The number of products archived
+     */
+    @Scheduled(initialDelayString = "${app.archive.initial-delay:PT5M}", fixedDelayString = "${app.archive.interval:PT1H}")
+    public int archiveExpired() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        long start = System.currentTimeMillis();
+        int archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int moved;
+            try {
+                moved = batchTransaction.execute(status -> archiveBatch(cutoff));
+            } catch (DataAccessException e) {
+                // Typically the lock timeout; the remaining rows are picked up by the next run
+                log.warn("Product archive batch failed, stopping this run: {}", e.getMessage());
+                break;
+            }
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} soft-deleted products in {} ms", archived, System.currentTimeMillis() - start);
+        }
+        return archived;
+    }
+
+    private int archiveBatch(Timestamp cutoff) {
+        // Bounds how long this batch may wait for, and so hold up, other writers
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeoutMillis + "ms'");
+        List<Long> ids = jdbcTemplate.queryForList(CLAIM_BATCH, Long.class, cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Object idArray = ids.toArray(new Long[0]);
+        jdbcTemplate.update(ARCHIVE_PRODUCTS, idArray);
+        jdbcTemplate.update(ARCHIVE_COMPOSITIONS, idArray);
+        jdbcTemplate.update(ARCHIVE_INGREDIENTS, idArray);
+        jdbcTemplate.update(RAISE_PURGE_WATERMARK, idArray);
+        jdbcTemplate.update("DELETE FROM product_compositions WHERE product_id = ANY(?)", idArray);
+        jdbcTemplate.update("DELETE FROM product_ingredients WHERE product_id = ANY(?)", idArray);
+        jdbcTemplate.update("DELETE FROM products WHERE id = ANY(?)", idArray);
+        return ids.size();
+    }
+
+    /**
+     * Brings a deleted product back: clears deletedAt if it is still in the hot
+     * table, otherwise moves it and its recipe rows back from the archive.
+     */
+    @Transactional
+    public ProductDto restore(Long id) {
+        Product product = productRepository.findById(id).orElse(null);
+        if (product != null) {
+            if (!product.isDeleted()) {
+                throw new ValidationException("Product " + id + " is not deleted");
+            }
+            checkNameFree(product.getName(), id);
+            product.setDeletedAt(null);
+            product.setUpdatedAt(LocalDateTime.now());
+            productRepository.saveAndFlush(product);
+        } else {
+            List<String> names = jdbcTemplate.queryForList(
+                    "SELECT name FROM products_archive WHERE id = ? FOR UPDATE", String.class, id);
+            if (names.isEmpty()) {
+                throw new ProductNotFoundException(id);
+            }
+            checkNameFree(names.get(0), id);
+            jdbcTemplate.update(RESTORE_PRODUCT, id);
+            jdbcTemplate.update(RESTORE_COMPOSITIONS, id);
+            jdbcTemplate.update(RESTORE_INGREDIENTS, id);
+            // Children are removed by ON DELETE CASCADE
+            jdbcTemplate.update("DELETE FROM products_archive WHERE id = ?", id);
+        }
+        productRepository.refreshSearchDocument(id);
+
+        // Load what was just written, not what the persistence context remembers
+        entityManager.clear();
+        Product restored = productRepository.findByIdWithRecipeData(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
+        ProductDto dto = ProductDto.fromEntity(restored);
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                id, restored.getVersion(), ProductChangedEvent.ChangeType.CREATED, dto));
+        log.info("Product {} restored", id);
+        return dto;
+    }
+
+    private void checkNameFree(String name, Long id) {
+        if (productRepository.existsByNameIgnoreCaseAndIdNot(name, id)) {
+            throw new DuplicateResourceException("Product with name '" + name + "' already exists");
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.synprod.SynProd.service;
+
+import com.synprod.SynProd.event.ProductChangedEvent;
+import com.synprod.SynProd.event.ProductsImportedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed product changes to every open GET /api/products/stream
+ * connection as Server-Sent Events.
+ *
+ * Connections are async servlet requests, so an idle subscriber costs a socket
+ * and an emitter but no thread. Changes are collected for a short window and
+ * sent as one batch, with repeated writes to the same product coalesced into
+ * the latest one. Recent batches are kept in a ring so a reconnecting client
+ * gets what it missed from Last-Event-ID; when that is no longer possible
+ * (older than the ring, or from before a restart) it receives a "reset" event
+ * and should reload the list.
+ *
+ * Publishing never writes to a socket: each subscriber has a small bounded
+ * queue, drained by a pool of sender threads. A subscriber whose queue
+ * overflows, or whose current write has been blocked longer than the write
+ * deadline, is dropped, so one slow client cannot hold up the others. Dropped
+ * clients reconnect with Last-Event-ID like after any other disconnect.
+ */
+@Service
+public class ProductChangeBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeBroadcaster.class);
+
+    static final String CHANGES_EVENT = "changes";
+    static final String RESET_EVENT = "reset";
+
+    // Event ids are "<boot>-<sequence>", so ids from an earlier run are recognised
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final int maxSubscribers;
+    private final int historySize;
+    private final int queueSize;
+    private final long timeoutMillis;
+    private final long writeDeadlineNanos;
+
+    // Guarded by itself; committing request threads only ever touch this map
+    private final Map<Long, ChangeMessage> pending = new LinkedHashMap<>();
+    private boolean resetPending;
+
+    // Guarded by "this": history, sequence and the order in which batches are queued.
+    // Nothing done under the lock blocks on I/O.
+    private final Deque<Batch> history = new ArrayDeque<>();
+    private long sequence;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-change-sse");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService senders;
+
+    public ProductChangeBroadcaster(
+            @Value("${app.sse.max-subscribers:5000}") int maxSubscribers,
+            @Value("${app.sse.history-size:256}") int historySize,
+            @Value("${app.sse.coalesce-millis:250}") long coalesceMillis,
+            @Value("${app.sse.heartbeat-seconds:25}") long heartbeatSeconds,
+            @Value("${app.sse.timeout-minutes:30}") long timeoutMinutes,
+            @Value("${app.sse.queue-size:32}") int queueSize,
+            @Value("${app.sse.sender-threads:8}") int senderThreads,
+            @Value("${app.sse.write-deadline-millis:5000}") long writeDeadlineMillis) {
+        this.maxSubscribers = maxSubscribers;
+        this.historySize = historySize;
+        this.queueSize = queueSize;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.writeDeadlineNanos = TimeUnit.MILLISECONDS.toNanos(writeDeadlineMillis);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "product-change-sse-send-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> guarded(this::flush), coalesceMillis, coalesceMillis,
+                TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> guarded(this::heartbeat), heartbeatSeconds, heartbeatSeconds,
+                TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(() -> guarded(this::dropStalled), writeDeadlineMillis, writeDeadlineMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers a subscriber and queues the batches after {@code lastEventId}.
+     *
+     * @return null when the subscriber limit is reached
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, queueSize);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        // Replay and registration happen under the lock, so no batch is queued twice or skipped
+        synchronized (this) {
+            List<Outgoing> initial = new ArrayList<>();
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                List<Batch> missed = missedSince(lastEventId.trim());
+                if (missed == null) {
+                    initial.add(Outgoing.event(currentId(), RESET_EVENT, Map.of()));
+                } else {
+                    for (Batch batch : missed) {
+                        initial.add(batch.toOutgoing(this));
+                    }
+                }
+            } else {
+                // Tell the client where it starts, so its first reconnect can resume
+                initial.add(Outgoing.comment(currentId(), "subscribed"));
+            }
+            if (initial.size() > queueSize) {
+                // Too much to replay through the queue; a reload is cheaper
+                initial = List.of(Outgoing.event(currentId(), RESET_EVENT, Map.of()));
+            }
+            initial.forEach(subscriber.queue::offer);
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (pending) {
+            pending.put(event.getProductId(), new ChangeMessage(event.getProductId(), event.getVersion(),
+                    event.getChangeType().name()));
+        }
+    }
+
+    // Imports do not publish per-product events; clients have to reload
+    @EventListener
+    public void onProductsImported(ProductsImportedEvent event) {
+        synchronized (pending) {
+            pending.clear();
+            resetPending = true;
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void flush() {
+        List<ChangeMessage> changes;
+        boolean reset;
+        synchronized (pending) {
+            changes = new ArrayList<>(pending.values());
+            reset = resetPending;
+            pending.clear();
+            resetPending = false;
+        }
+        if (!reset && changes.isEmpty()) {
+            return;
+        }
+        Outgoing message;
+        synchronized (this) {
+            Batch batch = record(reset ? RESET_EVENT : CHANGES_EVENT, reset ? List.of() : changes);
+            message = batch.toOutgoing(this);
+            subscribers.forEach(subscriber -> enqueue(subscriber, message));
+        }
+        subscribers.forEach(this::schedule);
+        log.debug("Queued {} product changes for {} subscribers", changes.size(), subscribers.size());
+    }
+
+    private Batch record(String name, List<ChangeMessage> changes) {
+        Batch batch = new Batch(++sequence, name, changes);
+        history.addLast(batch);
+        while (history.size() > historySize) {
+            history.removeFirst();
+        }
+        return batch;
+    }
+
+    // A comment line keeps idle connections open through proxies and detects dead clients
+    private void heartbeat() {
+        Outgoing ping = Outgoing.comment(null, "ping");
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, ping);
+            schedule(subscriber);
+        }
+    }
+
+    // A full queue means the client has stopped reading
+    private void enqueue(Subscriber subscriber, Outgoing message) {
+        if (!subscriber.queue.offer(message)) {
+            drop(subscriber, "send queue full");
+        }
+    }
+
+    // Starts a drain for the subscriber unless one is already running
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Outgoing message;
+            while (subscribers.contains(subscriber) && (message = subscriber.queue.poll()) != null) {
+                subscriber.writeStartedNanos = System.nanoTime();
+                try {
+                    subscriber.emitter.send(message.toEvent());
+                } catch (IOException | IllegalStateException e) {
+                    // The connection is gone; the emitter callbacks are not always invoked for this
+                    drop(subscriber, e.getMessage());
+                    return;
+                } finally {
+                    subscriber.writeStartedNanos = 0;
+                }
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Something may have been queued between the last poll and clearing the flag
+        if (subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    // Writes block while the client's TCP buffer is full; give up on clients stuck past the deadline
+    private void dropStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.writeStartedNanos;
+            if (started != 0 && now - started > writeDeadlineNanos) {
+                drop(subscriber, "write deadline exceeded");
+            }
+        }
+    }
+
+    private void drop(Subscriber subscriber, String reason) {
+        if (remove(subscriber)) {
+            log.debug("Dropping product change subscriber: {}", reason);
+            // Completing the async request closes the response, which also fails a blocked write
+            subscriber.emitter.completeWithError(new IOException(reason));
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        subscriber.queue.clear();
+        return subscribers.remove(subscriber);
+    }
+
+    // Batches after the given id, or null when they cannot all be replayed
+    private List<Batch> missedSince(String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(bootId)) {
+            return null;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (last > sequence) {
+            return null;
+        }
+        long oldest = history.isEmpty() ? sequence + 1 : history.peekFirst().sequence();
+        if (last < oldest - 1) {
+            return null;
+        }
+        List<Batch> missed = new ArrayList<>();
+        for (Batch batch : history) {
+            if (batch.sequence() > last) {
+                missed.add(batch);
+            }
+        }
+        return missed;
+    }
+
+    private String currentId() {
+        return eventId(sequence);
+    }
+
+    private String eventId(long value) {
+        return bootId + "-" + value;
+    }
+
+    // A failing run must not cancel the periodic task
+    private static void guarded(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.warn("Product change broadcast failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * Payload of one change: the product, its committed version and
+     * CREATED / UPDATED / DELETED.
+     */
+    public record ChangeMessage(Long id, Long version, String changeType) {
+    }
+
+    private record Batch(long sequence, String name, List<ChangeMessage> changes) {
+
+        Outgoing toOutgoing(ProductChangeBroadcaster broadcaster) {
+            return Outgoing.event(broadcaster.eventId(sequence), name,
+                    name.equals(RESET_EVENT) ? Map.of() : changes);
+        }
+    }
+
+    // One queued SSE frame; the emitter's event builder is not reusable, so it is built per send
+    private record Outgoing(String id, String name, Object data, String comment) {
+
+        static Outgoing event(String id, String name, Object data) {
+            return new Outgoing(id, name, data, null);
+        }
+
+        static Outgoing comment(String id, String comment) {
+            return new Outgoing(id, null, null, comment);
+        }
+
+        SseEmitter.SseEventBuilder toEvent() {
+            SseEmitter.SseEventBuilder event = SseEmitter.event();
+            if (id != null) {
+                event.id(id);
+            }
+            if (name != null) {
+                event.name(name);
+            }
+            if (comment != null) {
+                event.comment(comment);
+            }
+            if (data != null) {
+                event.data(data, MediaType.APPLICATION_JSON);
+            }
+            return event;
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Outgoing> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // System.nanoTime() when the current write started, 0 while not writing
+        private volatile long writeStartedNanos;
+
+        private Subscriber(SseEmitter emitter, int queueSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+    }
+}
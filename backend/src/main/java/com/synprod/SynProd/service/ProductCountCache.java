@@ -0,0 +1,72 @@
+package com.synprod.SynProd.service;
+
+import com.synprod.SynProd.event.ProductChangedEvent;
+import com.synprod.SynProd.event.ProductsImportedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache for the totals reported in the X-Total-Count header.
+ * Counting a filtered listing costs as much as the search itself, so the total
+ * is computed once per query signature and reused for the following pages.
+ * Committed product writes clear the whole cache.
+ */
+@Component
+public class ProductCountCache {
+
+    // Hard cap so arbitrary search terms cannot grow the map without bound
+    private static final int MAX_ENTRIES = 1000;
+
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    public ProductCountCache(@Value("${app.pagination.count-cache-ttl-seconds:30}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public long get(String key, LongSupplier loader) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.value;
+        }
+
+        long value = loader.getAsLong();
+        if (counts.size() >= MAX_ENTRIES) {
+            counts.clear();
+        }
+        counts.put(key, new CachedCount(value, now + ttlMillis));
+        return value;
+    }
+
+    public void invalidateAll() {
+        counts.clear();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidateAll();
+    }
+
+    @EventListener
+    public void onProductsImported(ProductsImportedEvent event) {
+        invalidateAll();
+    }
+
+    private static final class CachedCount {
+        private final long value;
+        private final long expiresAt;
+
+        private CachedCount(long value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
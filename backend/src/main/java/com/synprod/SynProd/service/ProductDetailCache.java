@@ -0,0 +1,112 @@
+package com.synprod.SynProd.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.event.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded in-process cache of full recipe details (ProductDto), keyed by product
+ * id and guarded by the Product.version column.
+ *
+ * Entries are evicted by Caffeine's W-TinyLFU policy once the size limit is
+ * reached and expire after the configured TTL. Writes invalidate the entry after
+ * commit and leave a version floor behind, so a reader that loaded the previous
+ * version concurrently cannot put stale data back into the cache.
+ */
+@Component
+public class ProductDetailCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductDetailCache.class);
+
+    private final Cache<Long, ProductDto> cache;
+
+    // Last committed version per invalidated product; loads older than this are not cached
+    private final Cache<Long, Long> versionFloors;
+
+    public ProductDetailCache(
+            @Value("${app.cache.product-detail.max-size:2000}") long maxSize,
+            @Value("${app.cache.product-detail.ttl-minutes:60}") long ttlMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        this.versionFloors = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    public Optional<ProductDto> get(Long productId) {
+        return Optional.ofNullable(cache.getIfPresent(productId));
+    }
+
+    /**
+     * Caches a freshly loaded product unless a newer version, or the floor left by
+     * a committed write, is already recorded for the same id.
+     */
+    public void put(ProductDto product) {
+        if (product == null || product.getId() == null || product.getVersion() == null) {
+            return;
+        }
+        // compute() serializes with invalidate() for the same key
+        cache.asMap().compute(product.getId(), (id, current) -> {
+            Long floor = versionFloors.getIfPresent(id);
+            if (floor != null && product.getVersion() < floor) {
+                return current;
+            }
+            if (current != null && current.getVersion() != null && current.getVersion() > product.getVersion()) {
+                return current;
+            }
+            return product;
+        });
+    }
+
+    /**
+     * Drops the cached product and remembers the committed version as a floor.
+     */
+    public void invalidate(Long productId, Long committedVersion) {
+        cache.asMap().compute(productId, (id, current) -> {
+            if (committedVersion != null) {
+                versionFloors.put(id, committedVersion);
+            }
+            return null;
+        });
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        versionFloors.invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        log.debug("Invalidating cached product {} after {}", event.getProductId(), event.getChangeType());
+        invalidate(event.getProductId(), event.getVersion());
+    }
+
+    // Hit/miss/eviction counters for the admin cache endpoint
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,123 @@
+package com.synprod.SynProd.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.entity.Product;
+import com.synprod.SynProd.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole live catalog with recipe data as newline-delimited JSON.
+ * Products are read from a database cursor and handled in fixed-size chunks:
+ * the chunk's compositions and ingredients are loaded with one IN query each,
+ * every product is written through a single Jackson generator, and the
+ * persistence context is cleared before the next chunk. Memory use depends on
+ * the chunk size, not on the catalog size.
+ */
+@Service
+public class ProductExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductExportService.class);
+
+    static final int CHUNK_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter lineWriter;
+    private final ObjectMapper objectMapper;
+
+    public ProductExportService(ProductRepository productRepository, EntityManager entityManager,
+            PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        // Flushing is done once per chunk instead of after every product
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes one JSON object (same shape as GET /api/products/{id}) per line.
+     * The stream is flushed after each chunk but not closed.
+     *
+     * @return The number of products written
+     */
+    public long exportCatalog(OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are terminated explicitly; no separator between root values
+        generator.setRootValueSeparator(null);
+
+        Long written;
+        try {
+            // The PostgreSQL driver only honours the fetch size inside a transaction
+            written = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<Product> products = productRepository.streamAllWithCreator()) {
+                    List<Product> chunk = new ArrayList<>(CHUNK_SIZE);
+                    Iterator<Product> iterator = products.iterator();
+                    while (iterator.hasNext()) {
+                        chunk.add(iterator.next());
+                        if (chunk.size() == CHUNK_SIZE) {
+                            count += writeChunk(chunk, generator);
+                        }
+                    }
+                    count += writeChunk(chunk, generator);
+                }
+                return count;
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-export
+            throw e.getCause();
+        }
+
+        generator.close();
+        log.info("Exported {} products in {} ms", written, System.currentTimeMillis() - start);
+        return written != null ? written : 0;
+    }
+
+    private int writeChunk(List<Product> chunk, JsonGenerator generator) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = chunk.stream().map(Product::getId).toList();
+        // Initializes the collections of the managed instances already in the chunk
+        productRepository.findAllByIdWithCompositions(ids);
+        productRepository.findAllByIdWithIngredients(ids);
+
+        try {
+            for (Product product : chunk) {
+                lineWriter.writeValue(generator, ProductDto.fromEntity(product));
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int size = chunk.size();
+        chunk.clear();
+        // Detach the chunk so the persistence context does not grow with the export
+        entityManager.clear();
+        return size;
+    }
+}
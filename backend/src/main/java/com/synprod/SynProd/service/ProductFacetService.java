@@ -0,0 +1,248 @@
+package com.synprod.SynProd.service;
+
+import com.synprod.SynProd.dto.FacetCountDto;
+import com.synprod.SynProd.dto.FilterFacetsDto;
+import com.synprod.SynProd.entity.ProductType;
+import com.synprod.SynProd.event.ProductChangedEvent;
+import com.synprod.SynProd.event.ProductsImportedEvent;
+import com.synprod.SynProd.repository.ProductNameRow;
+import com.synprod.SynProd.repository.ProductRepository;
+import com.synprod.SynProd.repository.ProductTypeRow;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Product counts per type, component and ingredient over live (not deleted)
+ * products, served from an immutable snapshot.
+ *
+ * Committed writes adjust the counts of the changed product only and publish a
+ * new snapshot. That work and every full recount run on one background thread,
+ * in submission order, so committing threads neither wait for it nor hold a
+ * connection while it runs. As a safety net against changes made outside the
+ * application, a snapshot older than the refresh interval is still served while
+ * a full rebuild runs in the background (stale-while-revalidate).
+ */
+@Service
+public class ProductFacetService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductFacetService.class);
+
+    private final ProductRepository productRepository;
+    private final long refreshMillis;
+
+    // Guarded by "this"
+    private final Map<Long, ProductFacets> facetsByProduct = new HashMap<>();
+    private final Map<ProductType, Long> typeCounts = new EnumMap<>(ProductType.class);
+    private final Map<String, Long> componentCounts = new HashMap<>();
+    private final Map<String, Long> ingredientCounts = new HashMap<>();
+
+    private volatile FilterFacetsDto snapshot;
+    private volatile long rebuiltAt;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    // Background rebuilds and per-product updates, in submission order
+    private final ExecutorService updateExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "facet-update");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductFacetService(ProductRepository productRepository,
+            @Value("${app.cache.facets.refresh-minutes:10}") long refreshMinutes) {
+        this.productRepository = productRepository;
+        this.refreshMillis = refreshMinutes * 60_000;
+    }
+
+    /**
+     * Current facet counts. Only the very first call (before the startup build)
+     * waits for the database.
+     */
+    public FilterFacetsDto getFacets() {
+        FilterFacetsDto current = snapshot;
+        if (current == null) {
+            awaitFirstBuild();
+            return snapshot;
+        }
+        if (System.currentTimeMillis() - rebuiltAt > refreshMillis) {
+            scheduleRebuild();
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    // Bulk imports do not publish per-product events; recount everything
+    @EventListener
+    public void onProductsImported(ProductsImportedEvent event) {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long id = event.getProductId();
+        updateExecutor.execute(() -> {
+            if (snapshot == null) {
+                // Not built yet; the first build reads the committed state anyway
+                return;
+            }
+            try {
+                refresh(id);
+            } catch (Exception e) {
+                log.warn("Could not update facet counts of product {}: {}", id, e.getMessage());
+            }
+        });
+    }
+
+    // Full recounts run on the update thread too, so an older recount can never be
+    // swapped in over a newer per-product update
+    private void scheduleRebuild() {
+        if (!rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        updateExecutor.execute(() -> {
+            rebuildScheduled.set(false);
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.warn("Background facet rebuild failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void awaitFirstBuild() {
+        Future<?> build = updateExecutor.submit(() -> {
+            if (snapshot == null) {
+                rebuild();
+            }
+        });
+        try {
+            build.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building facet counts", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not build facet counts", e.getCause());
+        }
+    }
+
+    private void rebuild() {
+        Map<Long, ProductFacets> loaded = new HashMap<>();
+        for (ProductTypeRow row : productRepository.findLiveProductTypes()) {
+            loaded.put(row.getProductId(), new ProductFacets(row.getProductType()));
+        }
+        for (ProductNameRow row : productRepository.findLiveComponentNames()) {
+            ProductFacets facets = loaded.get(row.getProductId());
+            if (facets != null) {
+                facets.components.add(row.getName());
+            }
+        }
+        for (ProductNameRow row : productRepository.findLiveIngredientNames()) {
+            ProductFacets facets = loaded.get(row.getProductId());
+            if (facets != null) {
+                facets.ingredients.add(row.getName());
+            }
+        }
+
+        synchronized (this) {
+            facetsByProduct.clear();
+            typeCounts.clear();
+            componentCounts.clear();
+            ingredientCounts.clear();
+            loaded.forEach(this::add);
+            rebuiltAt = System.currentTimeMillis();
+            publish();
+        }
+    }
+
+    // Reads the product's committed state first and only locks to swap it in. Updates
+    // run in order on one thread, so the last one applied read the latest state.
+    private void refresh(Long id) {
+        ProductFacets current = null;
+        List<ProductTypeRow> type = productRepository.findLiveProductTypes(id);
+        if (!type.isEmpty()) {
+            ProductFacets loaded = new ProductFacets(type.get(0).getProductType());
+            productRepository.findLiveComponentNames(id).forEach(row -> loaded.components.add(row.getName()));
+            productRepository.findLiveIngredientNames(id).forEach(row -> loaded.ingredients.add(row.getName()));
+            current = loaded;
+        }
+
+        synchronized (this) {
+            ProductFacets previous = facetsByProduct.remove(id);
+            if (previous != null) {
+                apply(previous, -1);
+            }
+            if (current != null) {
+                add(id, current);
+            }
+            publish();
+        }
+    }
+
+    private void add(Long productId, ProductFacets facets) {
+        facetsByProduct.put(productId, facets);
+        apply(facets, 1);
+    }
+
+    private void apply(ProductFacets facets, long delta) {
+        adjust(typeCounts, facets.type, delta);
+        facets.components.forEach(name -> adjust(componentCounts, name, delta));
+        facets.ingredients.forEach(name -> adjust(ingredientCounts, name, delta));
+    }
+
+    private static <K> void adjust(Map<K, Long> counts, K key, long delta) {
+        counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    // Sorted copies in the same order the DISTINCT queries used
+    private void publish() {
+        snapshot = new FilterFacetsDto(toFacets(typeCounts), toFacets(componentCounts), toFacets(ingredientCounts),
+                LocalDateTime.now());
+    }
+
+    private static List<FacetCountDto> toFacets(Map<?, Long> counts) {
+        return counts.entrySet().stream()
+                .map(entry -> new FacetCountDto(entry.getKey().toString(), entry.getValue()))
+                .sorted(Comparator.comparing(FacetCountDto::getValue))
+                .collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updateExecutor.shutdownNow();
+    }
+
+    // Facet values of one product; names are de-duplicated so counts are per product
+    private static final class ProductFacets {
+        private final ProductType type;
+        private final Set<String> components = new LinkedHashSet<>();
+        private final Set<String> ingredients = new LinkedHashSet<>();
+
+        private ProductFacets(ProductType type) {
+            this.type = type;
+        }
+    }
+}
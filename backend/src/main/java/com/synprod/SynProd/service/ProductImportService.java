@@ -0,0 +1,564 @@
+package com.synprod.SynProd.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synprod.SynProd.dto.CreateProductRequest;
+import com.synprod.SynProd.dto.ImportReportDto;
+import com.synprod.SynProd.dto.ProductCompositionDto;
+import com.synprod.SynProd.dto.ProductIngredientDto;
+import com.synprod.SynProd.entity.ProductType;
+import com.synprod.SynProd.entity.User;
+import com.synprod.SynProd.event.ProductsImportedEvent;
+import com.synprod.SynProd.exception.ValidationException;
+import com.synprod.SynProd.repository.ProductRepository;
+import com.synprod.SynProd.util.CsvReader;
+import com.synprod.SynProd.util.InputSanitizer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of recipes from CSV or NDJSON. The input is read as a stream and
+ * handled in chunks: each row is validated with the same rules as
+ * POST /api/products, name conflicts for the whole chunk are checked with one
+ * query, and the chunk is written with JDBC batch inserts in its own
+ * transaction. A failing row is reported and does not stop the import; input
+ * that cannot be read any further (e.g. an unterminated CSV quote) is reported
+ * on its line and ends the import with the rows before it kept.
+ *
+ * CSV layout (header row required, one row per composition or ingredient;
+ * rows of the same product must be consecutive):
+ * name,description,productType,itemType,itemName,percentage,quantity,unit,notes
+ * where itemType is COMPONENT, INGREDIENT or empty for a product without items.
+ *
+ * NDJSON: one CreateProductRequest JSON object per line.
+ *
+ * Input rows (CSV records, NDJSON lines) are limited in length and number; input
+ * beyond either limit is rejected as a whole with a ValidationException, keeping
+ * the chunks already committed.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    static final int CHUNK_SIZE = 500;
+
+    // allocationSize of the entity id sequences
+    private static final int ID_BLOCK_SIZE = 50;
+
+    static final List<String> CSV_COLUMNS = List.of(
+            "name", "description", "productType", "itemType", "itemName", "percentage", "quantity", "unit", "notes");
+
+    private static final String INSERT_PRODUCT = "INSERT INTO products " +
+            "(id, name, description, product_type, created_by, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_COMPOSITION = "INSERT INTO product_compositions " +
+            "(id, product_id, component_name, percentage, notes, sort_order, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_INGREDIENT = "INSERT INTO product_ingredients " +
+            "(id, product_id, ingredient_name, quantity, unit, notes, sort_order, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String REFRESH_SEARCH_DOCUMENTS =
+            "UPDATE products SET search_document = product_search_document(id) WHERE id = ANY(?)";
+
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final InputSanitizer inputSanitizer;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductRevisionService productRevisionService;
+    private final int maxRows;
+    private final int maxRowLength;
+
+    public ProductImportService(ProductRepository productRepository, ProductService productService,
+            InputSanitizer inputSanitizer, Validator validator, ObjectMapper objectMapper,
+            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher, ProductRevisionService productRevisionService,
+            @Value("${app.import.max-rows:100000}") int maxRows,
+            @Value("${app.import.max-row-length:65536}") int maxRowLength) {
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.inputSanitizer = inputSanitizer;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.productRevisionService = productRevisionService;
+        this.maxRows = maxRows;
+        this.maxRowLength = maxRowLength;
+    }
+
+    /**
+     * Imports all rows of the input for the current user and reports per-row
+     * failures. Rows that pass validation are committed chunk by chunk.
+     */
+    public ImportReportDto importProducts(InputStream input, Format format) throws IOException {
+        User currentUser = productService.getCurrentUser();
+        ImportReportDto report = new ImportReportDto();
+        Set<String> seenNames = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        long start = System.currentTimeMillis();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowSource source = format == Format.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+        try {
+            ImportRow row;
+            while ((row = read(source, report)) != null) {
+                report.addRow();
+                if (accept(row, seenNames, report)) {
+                    chunk.add(row);
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, currentUser.getId(), report);
+                    chunk.clear();
+                }
+            }
+            writeChunk(chunk, currentUser.getId(), report);
+        } finally {
+            // Committed chunks stay committed even if a later one aborts the import;
+            // the caches and indexes still have to pick them up
+            if (report.getImportedRows() > 0) {
+                eventPublisher.publishEvent(new ProductsImportedEvent(report.getImportedRows()));
+            }
+        }
+        log.info("Imported {} of {} products in {} ms", report.getImportedRows(), report.getTotalRows(),
+                System.currentTimeMillis() - start);
+        return report;
+    }
+
+    // The next row, or null at the end of the input or once it cannot be read any further
+    private static ImportRow read(RowSource source, ImportReportDto report) {
+        try {
+            return source.next();
+        } catch (ValidationException e) {
+            // Missing or unusable CSV header, or input over the size limits: rejected as a whole
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            report.addRow();
+            report.addError(source.line(), null, "Could not read input: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Per-row validation: parse errors, bean validation, content rules, duplicates within the file
+    private boolean accept(ImportRow row, Set<String> seenNames, ImportReportDto report) {
+        if (row.error != null) {
+            report.addError(row.line, row.rawName(), row.error);
+            return false;
+        }
+        try {
+            Set<ConstraintViolation<CreateProductRequest>> violations = validator.validate(row.request);
+            if (!violations.isEmpty()) {
+                throw new ValidationException(violations.iterator().next().getMessage());
+            }
+            productService.validateRecipe(row.request);
+            row.sanitize(inputSanitizer);
+        } catch (RuntimeException e) {
+            report.addError(row.line, row.rawName(), e.getMessage());
+            return false;
+        }
+
+        if (!seenNames.add(row.nameKey())) {
+            report.addError(row.line, row.name, "Duplicate product name in import: '" + row.name + "'");
+            return false;
+        }
+        return true;
+    }
+
+    private void writeChunk(List<ImportRow> chunk, Long userId, ImportReportDto report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // One set-based query for name conflicts with existing live products
+        Set<String> keys = new HashSet<>();
+        chunk.forEach(row -> keys.add(row.nameKey()));
+        Set<String> existing = new HashSet<>(productRepository.findExistingNamesIgnoreCase(keys));
+        List<ImportRow> rows = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (existing.contains(row.nameKey())) {
+                report.addError(row.line, row.name, "Product with name '" + row.name + "' already exists");
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            chunkTransaction.executeWithoutResult(status -> insertRows(rows, userId));
+            report.addImported(rows.size());
+        } catch (RuntimeException e) {
+            // Isolate the offending rows: retry one product per transaction
+            log.warn("Import chunk failed, retrying row by row: {}", causeMessage(e));
+            for (ImportRow row : rows) {
+                try {
+                    chunkTransaction.executeWithoutResult(status -> insertRows(List.of(row), userId));
+                    report.addImported(1);
+                } catch (RuntimeException rowError) {
+                    report.addError(row.line, row.name, causeMessage(rowError));
+                }
+            }
+        }
+    }
+
+    private static String causeMessage(RuntimeException e) {
+        return e instanceof DataAccessException dataAccess ? dataAccess.getMostSpecificCause().getMessage()
+                : e.getMessage();
+    }
+
+    // Batched inserts with ids taken up front from the entity sequences
+    private void insertRows(List<ImportRow> rows, Long userId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> productIds = nextIds("products_seq", rows.size());
+
+        List<Object[]> products = new ArrayList<>(rows.size());
+        List<Object[]> compositions = new ArrayList<>();
+        List<Object[]> ingredients = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            CreateProductRequest request = rows.get(i).request;
+            Long productId = productIds.get(i);
+            products.add(new Object[] { productId, request.getName(), request.getDescription(),
+                    request.getProductType().name(), userId, now, now });
+            if (request.getCompositions() != null) {
+                for (int order = 0; order < request.getCompositions().size(); order++) {
+                    ProductCompositionDto composition = request.getCompositions().get(order);
+                    compositions.add(new Object[] { null, productId, composition.getComponentName(),
+                            ProductService.roundPercentage(composition.getPercentage()), composition.getNotes(), order });
+                }
+            }
+            if (request.getAdditionalIngredients() != null) {
+                for (int order = 0; order < request.getAdditionalIngredients().size(); order++) {
+                    ProductIngredientDto ingredient = request.getAdditionalIngredients().get(order);
+                    ingredients.add(new Object[] { null, productId, ingredient.getIngredientName(),
+                            ingredient.getQuantity(), ingredient.getUnit(), ingredient.getNotes(), order });
+                }
+            }
+        }
+        assignIds(compositions, nextIds("product_compositions_seq", compositions.size()));
+        assignIds(ingredients, nextIds("product_ingredients_seq", ingredients.size()));
+
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, products);
+        if (!compositions.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_COMPOSITION, compositions);
+        }
+        if (!ingredients.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_INGREDIENT, ingredients);
+        }
+        jdbcTemplate.update(REFRESH_SEARCH_DOCUMENTS, (Object) productIds.toArray(new Long[0]));
+        // Imports publish no per-product events, so the revision writer never sees these products
+        productRevisionService.recordBaselines(productIds);
+    }
+
+    // Same pooled-lo scheme as the entity mappings: every nextval reserves the block [value, value + 50)
+    private List<Long> nextIds(String sequence, int count) {
+        if (count == 0) {
+            return List.of();
+        }
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> starts = jdbcTemplate.queryForList(
+                "SELECT nextval(?::regclass) FROM generate_series(1, ?)", Long.class, sequence, blocks);
+        List<Long> ids = new ArrayList<>(count);
+        for (Long start : starts) {
+            for (int i = 0; i < ID_BLOCK_SIZE && ids.size() < count; i++) {
+                ids.add(start + i);
+            }
+        }
+        return ids;
+    }
+
+    private static void assignIds(List<Object[]> rows, List<Long> ids) {
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i)[0] = ids.get(i);
+        }
+    }
+
+    // One parsed product: either a request or the reason it could not be read
+    private static final class ImportRow {
+        private final long line;
+        private final CreateProductRequest request;
+        private final String error;
+        private String name;
+
+        private ImportRow(long line, CreateProductRequest request, String error) {
+            this.line = line;
+            this.request = request;
+            this.error = error;
+        }
+
+        private String rawName() {
+            return request != null ? request.getName() : name;
+        }
+
+        // Same sanitization createProduct applies before saving
+        private void sanitize(InputSanitizer sanitizer) {
+            request.setName(sanitizer.sanitize(request.getName()));
+            request.setDescription(sanitizer.sanitizeDescription(request.getDescription()));
+            if (request.getCompositions() != null) {
+                for (ProductCompositionDto composition : request.getCompositions()) {
+                    composition.setComponentName(sanitizer.sanitize(composition.getComponentName()));
+                    composition.setNotes(sanitizer.sanitizeDescription(composition.getNotes()));
+                }
+            }
+            if (request.getAdditionalIngredients() != null) {
+                for (ProductIngredientDto ingredient : request.getAdditionalIngredients()) {
+                    ingredient.setIngredientName(sanitizer.sanitize(ingredient.getIngredientName()));
+                    ingredient.setUnit(sanitizer.sanitize(ingredient.getUnit()));
+                    ingredient.setNotes(sanitizer.sanitizeDescription(ingredient.getNotes()));
+                }
+            }
+            name = request.getName();
+        }
+
+        private String nameKey() {
+            return name.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private interface RowSource {
+        ImportRow next() throws IOException;
+
+        // Line the source stopped on, for errors that end the input
+        long line();
+    }
+
+    // Every input row counts, including those grouped into one product or rejected later
+    private void checkRowCount(long rows) {
+        if (rows > maxRows) {
+            throw new ValidationException("Import is limited to " + maxRows + " rows");
+        }
+    }
+
+    private final class NdjsonRowSource implements RowSource {
+        private final BufferedReader reader;
+        private long line;
+        private long rows;
+
+        private NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String text;
+            while ((text = readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                checkRowCount(++rows);
+                try {
+                    CreateProductRequest request = objectMapper.readValue(text, CreateProductRequest.class);
+                    if (request == null) {
+                        return new ImportRow(line, null, "Expected a JSON object");
+                    }
+                    return new ImportRow(line, request, null);
+                } catch (JsonProcessingException e) {
+                    return new ImportRow(line, null, "Invalid JSON: " + e.getOriginalMessage());
+                } catch (RuntimeException e) {
+                    return new ImportRow(line, null, "Invalid product: " + e.getMessage());
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public long line() {
+            return line;
+        }
+
+        // Like BufferedReader.readLine, but never holds more than maxRowLength characters
+        private String readLine() throws IOException {
+            StringBuilder text = new StringBuilder();
+            int ch;
+            while ((ch = reader.read()) != -1 && ch != '\n') {
+                if (text.length() == maxRowLength) {
+                    throw new ValidationException("NDJSON line " + (line + 1) + " is longer than "
+                            + maxRowLength + " characters");
+                }
+                text.append((char) ch);
+            }
+            if (ch == -1 && text.isEmpty()) {
+                return null;
+            }
+            int end = text.length();
+            return end > 0 && text.charAt(end - 1) == '\r' ? text.substring(0, end - 1) : text.toString();
+        }
+    }
+
+    // Groups consecutive CSV rows with the same product name into one request
+    private final class CsvRowSource implements RowSource {
+        private final CsvReader csv;
+        private Map<String, Integer> columns;
+        private List<String> pending;
+        private long pendingLine;
+        private long rows;
+
+        private CsvRowSource(BufferedReader reader) {
+            this.csv = new CsvReader(reader, maxRowLength);
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            if (columns == null) {
+                readHeader();
+            }
+            List<String> first = pending != null ? pending : nextRecord();
+            long line = pending != null ? pendingLine : csv.getRecordLine();
+            pending = null;
+            if (first == null) {
+                return null;
+            }
+
+            String name = value(first, "name");
+            List<List<String>> records = new ArrayList<>();
+            records.add(first);
+            List<String> record;
+            while ((record = nextRecord()) != null) {
+                if (!sameProduct(name, value(record, "name"))) {
+                    pending = record;
+                    pendingLine = csv.getRecordLine();
+                    break;
+                }
+                records.add(record);
+            }
+
+            try {
+                return new ImportRow(line, toRequest(records), null);
+            } catch (RuntimeException e) {
+                ImportRow failed = new ImportRow(line, null, e.getMessage());
+                failed.name = name;
+                return failed;
+            }
+        }
+
+        @Override
+        public long line() {
+            return csv.getRecordLine();
+        }
+
+        private void readHeader() throws IOException {
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                throw new ValidationException("CSV input is empty");
+            }
+            columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim(), i);
+            }
+            for (String column : List.of("name", "productType")) {
+                if (!columns.containsKey(column)) {
+                    throw new ValidationException("CSV header must include the columns " + CSV_COLUMNS);
+                }
+            }
+        }
+
+        // Skips empty lines
+        private List<String> nextRecord() throws IOException {
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                if (!(record.size() == 1 && record.get(0).isBlank())) {
+                    checkRowCount(++rows);
+                    return record;
+                }
+            }
+            return null;
+        }
+
+        private static boolean sameProduct(String name, String other) {
+            return name != null && other != null && name.trim().equalsIgnoreCase(other.trim());
+        }
+
+        private CreateProductRequest toRequest(List<List<String>> records) {
+            List<String> first = records.get(0);
+            CreateProductRequest request = new CreateProductRequest(
+                    value(first, "name"), value(first, "description"), productType(value(first, "productType")));
+            List<ProductCompositionDto> compositions = new ArrayList<>();
+            List<ProductIngredientDto> ingredients = new ArrayList<>();
+            for (List<String> record : records) {
+                String itemType = value(record, "itemType");
+                if (itemType == null) {
+                    continue;
+                }
+                switch (itemType.toUpperCase(Locale.ROOT)) {
+                    case "COMPONENT" -> {
+                        compositions.add(new ProductCompositionDto(
+                                value(record, "itemName"), number(record, "percentage"), value(record, "notes")));
+                    }
+                    case "INGREDIENT" -> {
+                        ingredients.add(new ProductIngredientDto(value(record, "itemName"),
+                                number(record, "quantity"), value(record, "unit"), value(record, "notes")));
+                    }
+                    default -> throw new IllegalArgumentException("Unknown itemType '" + itemType + "'");
+                }
+            }
+            request.setCompositions(compositions);
+            request.setAdditionalIngredients(ingredients);
+            return request;
+        }
+
+        private String value(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size()) {
+                return null;
+            }
+            String value = record.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private Double number(List<String> record, String column) {
+            String value = value(record, column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Double.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number in column " + column + ": '" + value + "'");
+            }
+        }
+
+        private static ProductType productType(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return ProductType.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown productType '" + value + "'");
+            }
+        }
+    }
+}
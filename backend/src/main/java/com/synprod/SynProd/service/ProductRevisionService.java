@@ -0,0 +1,322 @@
+package com.synprod.SynProd.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.dto.ProductRevisionDto;
+import com.synprod.SynProd.event.ProductChangedEvent;
+import com.synprod.SynProd.exception.ProductNotFoundException;
+import com.synprod.SynProd.exception.ValidationException;
+import com.synprod.SynProd.util.RecipeDelta;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revision history of recipes in product_revisions, and the time-travel reads
+ * built on it.
+ *
+ * Every committed save is recorded after the commit on a single writer thread,
+ * so request threads never wait for it. A revision is either a full snapshot of
+ * the recipe or a {@link RecipeDelta} against the previous revision; a snapshot
+ * is written at least every {@code snapshotInterval} revisions, so rebuilding any
+ * revision reads the nearest snapshot and at most that many deltas, however long
+ * the history is.
+ */
+@Service
+public class ProductRevisionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductRevisionService.class);
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
+    // Serialises revision numbering per product across application instances
+    private static final int REVISION_LOCK_SPACE = "product_revisions".hashCode();
+
+    private static final String INSERT_REVISION = "INSERT INTO product_revisions " +
+            "(product_id, revision_no, product_version, change_type, snapshot, payload, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, CAST(? AS jsonb), ?)";
+    private static final String LATEST_REVISION = "SELECT revision_no, product_version, change_type, created_at " +
+            "FROM product_revisions WHERE product_id = ? ORDER BY revision_no DESC LIMIT 1";
+    private static final String REVISION_AS_OF = "SELECT revision_no, product_version, change_type, created_at " +
+            "FROM product_revisions WHERE product_id = ? AND created_at <= ? " +
+            "ORDER BY created_at DESC, revision_no DESC LIMIT 1";
+    // The nearest snapshot at or before the target and the deltas up to it
+    private static final String REPLAY_CHAIN = "SELECT revision_no, product_version, change_type, snapshot, " +
+            "CAST(payload AS text) AS payload, created_at FROM product_revisions " +
+            "WHERE product_id = ? AND revision_no <= ? AND revision_no >= (SELECT max(revision_no) " +
+            "FROM product_revisions WHERE product_id = ? AND snapshot AND revision_no <= ?) " +
+            "ORDER BY revision_no";
+    private static final String LIST_REVISIONS = "SELECT revision_no, product_version, change_type, created_at " +
+            "FROM product_revisions WHERE product_id = ? AND revision_no < ? ORDER BY revision_no DESC LIMIT ?";
+
+    // Same snapshot as migration 20261016_150000 writes for the products that existed before history started
+    private static final String INSERT_BASELINES = "INSERT INTO product_revisions " +
+            "(product_id, revision_no, product_version, change_type, snapshot, payload, created_at) " +
+            "SELECT p.id, 1, p.version, 'BASELINE', TRUE, jsonb_build_object(" +
+            "'id', p.id, 'name', p.name, 'description', p.description, " +
+            "'productType', p.product_type, 'createdAt', p.created_at, 'updatedAt', p.updated_at, " +
+            "'version', p.version, " +
+            "'createdByName', CASE WHEN u.id IS NULL THEN NULL " +
+            "WHEN COALESCE(btrim(u.first_name), '') = '' OR COALESCE(btrim(u.last_name), '') = '' THEN u.email " +
+            "ELSE u.first_name || ' ' || u.last_name END, " +
+            "'compositions', COALESCE(c.items, '[]'::jsonb), " +
+            "'additionalIngredients', COALESCE(i.items, '[]'::jsonb)), " +
+            "COALESCE(p.updated_at, p.created_at) " +
+            "FROM products p " +
+            "LEFT JOIN users u ON u.id = p.created_by " +
+            "LEFT JOIN LATERAL (SELECT jsonb_agg(jsonb_build_object(" +
+            "'id', pc.id, 'componentName', pc.component_name, 'percentage', pc.percentage, " +
+            "'notes', pc.notes, 'sortOrder', pc.sort_order, 'version', pc.version) " +
+            "ORDER BY pc.sort_order, pc.id) AS items " +
+            "FROM product_compositions pc WHERE pc.product_id = p.id) c ON TRUE " +
+            "LEFT JOIN LATERAL (SELECT jsonb_agg(jsonb_build_object(" +
+            "'id', pi.id, 'ingredientName', pi.ingredient_name, 'quantity', pi.quantity, " +
+            "'unit', pi.unit, 'notes', pi.notes, 'sortOrder', pi.sort_order, 'version', pi.version) " +
+            "ORDER BY pi.sort_order, pi.id) AS items " +
+            "FROM product_ingredients pi WHERE pi.product_id = p.id) i ON TRUE " +
+            "WHERE p.id = ANY(?) AND p.deleted_at IS NULL " +
+            "ON CONFLICT (product_id, revision_no) DO NOTHING";
+
+    private static final RowMapper<ProductRevisionDto> REVISION_ROW = (rs, rowNum) -> new ProductRevisionDto(
+            rs.getInt("revision_no"), (Long) rs.getObject("product_version"), rs.getString("change_type"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductService productService;
+    private final TransactionTemplate writeTransaction;
+    private final int snapshotInterval;
+
+    // Rebuilt revisions never change; the writer also reads the latest one back for every delta.
+    // Cached recipes are shared, so they are never modified.
+    private final Cache<RevisionKey, Replay> rebuilt;
+
+    private final ThreadPoolExecutor writer;
+
+    public ProductRevisionService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, ProductService productService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.revisions.snapshot-interval:20}") int snapshotInterval,
+            @Value("${app.revisions.cache-size:1000}") long cacheSize,
+            @Value("${app.revisions.queue-size:10000}") int queueSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.productService = productService;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        // When the committing thread writes (queue full) it is still inside the
+        // completed transaction's synchronization and must not join it
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotInterval = Math.max(1, snapshotInterval);
+        this.rebuilt = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        // One thread keeps each product's revisions in commit order; a full queue
+        // makes the committing thread write its own revision
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "product-revision-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductDto recipe = event.getSnapshot();
+        boolean deleted = event.getChangeType() == ProductChangedEvent.ChangeType.DELETED;
+        if (recipe == null && !deleted) {
+            return;
+        }
+        LocalDateTime savedAt = recipe != null && recipe.getUpdatedAt() != null ? recipe.getUpdatedAt()
+                : LocalDateTime.now();
+        writer.execute(() -> {
+            try {
+                record(event.getProductId(), event.getVersion(), event.getChangeType().name(), recipe, savedAt);
+            } catch (RuntimeException e) {
+                log.warn("Could not record revision of product {} version {}: {}", event.getProductId(),
+                        event.getVersion(), e.getMessage());
+            }
+        });
+    }
+
+    private void record(Long productId, Long version, String changeType, ProductDto recipe, LocalDateTime savedAt) {
+        writeTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, ?)", REVISION_LOCK_SPACE,
+                    Long.hashCode(productId));
+            List<Revision> latest = jdbcTemplate.query(LATEST_REVISION, Revision.ROW, productId);
+            Revision previous = latest.isEmpty() ? null : latest.get(0);
+
+            // Already recorded, or overtaken by a later save that another instance recorded first
+            if (previous != null && previous.version() != null && version != null && previous.version() >= version) {
+                return;
+            }
+            int revisionNo = previous == null ? 1 : previous.revisionNo() + 1;
+            Timestamp createdAt = Timestamp.valueOf(previous != null && savedAt.isBefore(previous.createdAt())
+                    ? previous.createdAt() : savedAt);
+
+            if (recipe == null) {
+                // Deleted: a marker so ?asOf= after this point answers 404
+                jdbcTemplate.update(INSERT_REVISION, productId, revisionNo, version, changeType, false, "{}",
+                        createdAt);
+                return;
+            }
+
+            Replay base = previous == null ? null : replay(productId, previous.revisionNo());
+            boolean snapshot = base == null || base.product() == null
+                    || changeType.equals(ProductChangedEvent.ChangeType.CREATED.name())
+                    || base.deltas() + 1 >= snapshotInterval;
+            Object payload = snapshot ? recipe : RecipeDelta.between(base.product(), recipe);
+            jdbcTemplate.update(INSERT_REVISION, productId, revisionNo, version, changeType, snapshot,
+                    toJson(payload), createdAt);
+            rebuilt.put(new RevisionKey(productId, revisionNo),
+                    new Replay(recipe, snapshot ? 0 : base.deltas() + 1));
+        });
+    }
+
+    /**
+     * Writes the first snapshot of products created outside the save path (bulk
+     * import), in the caller's transaction, so they have history from the moment
+     * they are committed.
+     */
+    public void recordBaselines(List<Long> productIds) {
+        if (!productIds.isEmpty()) {
+            jdbcTemplate.update(INSERT_BASELINES, (Object) productIds.toArray(new Long[0]));
+        }
+    }
+
+    /**
+     * The recipe as it was at the given time, rebuilt from the revision history.
+     * Products that have never been saved since history started are served
+     * from their current state.
+     */
+    @Transactional(readOnly = true)
+    public ProductDto getProductAsOf(Long id, LocalDateTime asOf) {
+        List<Revision> found = jdbcTemplate.query(REVISION_AS_OF, Revision.ROW, id, Timestamp.valueOf(asOf));
+        if (found.isEmpty()) {
+            if (jdbcTemplate.query(LATEST_REVISION, Revision.ROW, id).isEmpty()) {
+                ProductDto current = productService.getProductById(id);
+                LocalDateTime since = current.getUpdatedAt() != null ? current.getUpdatedAt() : current.getCreatedAt();
+                if (since != null && !since.isAfter(asOf)) {
+                    return current;
+                }
+            }
+            throw new ProductNotFoundException("Product " + id + " has no revision at " + asOf);
+        }
+        Replay replay = replay(id, found.get(0).revisionNo());
+        if (replay == null || replay.product() == null) {
+            throw new ProductNotFoundException(id);
+        }
+        return replay.product();
+    }
+
+    // Get a page of a product's revisions, newest first; continue with before = last revisionNo
+    @Transactional(readOnly = true)
+    public List<ProductRevisionDto> getRevisions(Long id, Integer before, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return jdbcTemplate.query(LIST_REVISIONS, REVISION_ROW, id, before == null ? Integer.MAX_VALUE : before,
+                pageSize);
+    }
+
+    /**
+     * Rebuilds one revision: the nearest snapshot at or before it plus the deltas
+     * after that snapshot. The product is null when the revision is a delete.
+     */
+    private Replay replay(Long productId, int revisionNo) {
+        Replay cached = rebuilt.getIfPresent(new RevisionKey(productId, revisionNo));
+        if (cached != null) {
+            return cached;
+        }
+        List<ChainRow> chain = jdbcTemplate.query(REPLAY_CHAIN, ChainRow.ROW, productId, revisionNo, productId,
+                revisionNo);
+        if (chain.isEmpty()) {
+            return null;
+        }
+        ProductDto product = null;
+        for (ChainRow row : chain) {
+            if (row.changeType().equals(ProductChangedEvent.ChangeType.DELETED.name())) {
+                product = null;
+            } else if (row.snapshot()) {
+                product = fromJson(row.payload(), ProductDto.class);
+            } else if (product != null) {
+                fromJson(row.payload(), RecipeDelta.class).applyTo(product);
+            }
+            if (product != null) {
+                product.setId(productId);
+                product.setVersion(row.version());
+                product.setUpdatedAt(row.createdAt());
+            }
+        }
+        Replay replay = new Replay(product, chain.size() - 1);
+        if (product != null) {
+            rebuilt.put(new RevisionKey(productId, revisionNo), replay);
+        }
+        return replay;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize revision", e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read revision", e);
+        }
+    }
+
+    // Give queued revisions a moment to be written before the connection pool closes
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Shutting down with {} product revisions not written", writer.getQueue().size());
+            writer.shutdownNow();
+        }
+    }
+
+    private record RevisionKey(Long productId, int revisionNo) {
+    }
+
+    // A rebuilt recipe and the number of deltas applied on top of its snapshot
+    private record Replay(ProductDto product, int deltas) {
+    }
+
+    private record Revision(int revisionNo, Long version, String changeType, LocalDateTime createdAt) {
+        static final RowMapper<Revision> ROW = (rs, rowNum) -> new Revision(rs.getInt("revision_no"),
+                (Long) rs.getObject("product_version"), rs.getString("change_type"),
+                rs.getTimestamp("created_at").toLocalDateTime());
+    }
+
+    private record ChainRow(int revisionNo, Long version, String changeType, boolean snapshot, String payload,
+            LocalDateTime createdAt) {
+        static final RowMapper<ChainRow> ROW = (rs, rowNum) -> new ChainRow(rs.getInt("revision_no"),
+                (Long) rs.getObject("product_version"), rs.getString("change_type"), rs.getBoolean("snapshot"),
+                rs.getString("payload"), rs.getTimestamp("created_at").toLocalDateTime());
+    }
+}
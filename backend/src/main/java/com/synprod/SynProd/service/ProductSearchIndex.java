@@ -0,0 +1,300 @@
+package com.synprod.SynProd.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.synprod.SynProd.dto.CursorPage;
+import com.synprod.SynProd.event.ProductChangedEvent;
+import com.synprod.SynProd.event.ProductsImportedEvent;
+import com.synprod.SynProd.repository.ProductNameRow;
+import com.synprod.SynProd.repository.ProductRepository;
+import com.synprod.SynProd.util.PageCursor;
+import com.synprod.SynProd.util.TrigramIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-process trigram indexes over product names, component names and ingredient
+ * names of live products. Built once the application is ready and updated
+ * incrementally after every committed product write, both on a background
+ * thread, so substring searches are answered from memory and only the final
+ * page is hydrated from the database.
+ *
+ * Matches are ordered by (name, id) with String.compareTo, which is not the
+ * database collation, so pages carry their own cursor sort field
+ * ({@link PageCursor#SORT_BY_INDEXED_NAME}). The sorted match list of a term is
+ * kept until the next index write, so later pages binary-search their cursor
+ * instead of re-sorting every match.
+ *
+ * Until the first build completes the search methods return empty Optionals and
+ * callers fall back to the database queries.
+ */
+@Service
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final int TERM_CACHE_SIZE = 512;
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TrigramIndex nameIndex = new TrigramIndex();
+    private final TrigramIndex componentIndex = new TrigramIndex();
+    private final TrigramIndex ingredientIndex = new TrigramIndex();
+    private final Map<Integer, String> productNames = new HashMap<>();
+
+    // Bumped under the write lock on every change; sorted results are cached per generation
+    private long generation;
+    private final Cache<TermKey, SortedMatches> sortedMatches = Caffeine.newBuilder()
+            .maximumSize(TERM_CACHE_SIZE)
+            .build();
+
+    private volatile boolean ready;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    // Full builds and per-product refreshes, in submission order
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-index-update");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    // Bulk imports do not publish per-product events; reload everything
+    @EventListener
+    public void onProductsImported(ProductsImportedEvent event) {
+        scheduleRebuild();
+    }
+
+    /**
+     * Runs on the updater thread, so the committing thread neither waits for the
+     * queries nor needs a second connection while it still holds its own.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long id = event.getProductId();
+        updater.execute(() -> {
+            if (!ready) {
+                // The first build, queued before this, failed; it reads everything anyway
+                return;
+            }
+            try {
+                refresh(id);
+            } catch (Exception e) {
+                log.warn("Could not update search index of product {}, rebuilding: {}", id, e.getMessage());
+                scheduleRebuild();
+            }
+        });
+    }
+
+    // Queues a full build unless one is already waiting; refreshes queued after it are still applied
+    private void scheduleRebuild() {
+        if (!rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        updater.execute(() -> {
+            rebuildScheduled.set(false);
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.warn("Product search index build failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Long, List<String>> names = group(productRepository.findLiveProductNames());
+        Map<Long, List<String>> components = group(productRepository.findLiveComponentNames());
+        Map<Long, List<String>> ingredients = group(productRepository.findLiveIngredientNames());
+
+        lock.writeLock().lock();
+        try {
+            nameIndex.clear();
+            componentIndex.clear();
+            ingredientIndex.clear();
+            productNames.clear();
+            names.forEach((id, values) -> index(id, values, components.getOrDefault(id, List.of()),
+                    ingredients.getOrDefault(id, List.of())));
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+
+        log.info("Product search index built: {} products in {} ms", names.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Re-reads one product's names; a deleted product simply has no rows. The
+     * rows are read without the lock. Refreshes run in order on the updater
+     * thread, so the last one applied read the latest committed state.
+     */
+    private void refresh(Long productId) {
+        List<String> names = values(productRepository.findLiveProductNames(productId));
+        List<String> components = values(productRepository.findLiveComponentNames(productId));
+        List<String> ingredients = values(productRepository.findLiveIngredientNames(productId));
+
+        lock.writeLock().lock();
+        try {
+            int doc = Math.toIntExact(productId);
+            nameIndex.remove(doc);
+            componentIndex.remove(doc);
+            ingredientIndex.remove(doc);
+            productNames.remove(doc);
+            if (!names.isEmpty()) {
+                index(productId, names, components, ingredients);
+            }
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(Long productId, List<String> names, List<String> components, List<String> ingredients) {
+        int doc = Math.toIntExact(productId);
+        productNames.put(doc, names.get(0));
+        nameIndex.put(doc, names);
+        componentIndex.put(doc, components);
+        ingredientIndex.put(doc, ingredients);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Optional<CursorPage<Long>> searchNames(String term, PageCursor after, int pageSize) {
+        return search(Field.NAME, nameIndex, term, after, pageSize);
+    }
+
+    public Optional<CursorPage<Long>> searchComponents(String term, PageCursor after, int pageSize) {
+        return search(Field.COMPONENT, componentIndex, term, after, pageSize);
+    }
+
+    public Optional<CursorPage<Long>> searchIngredients(String term, PageCursor after, int pageSize) {
+        return search(Field.INGREDIENT, ingredientIndex, term, after, pageSize);
+    }
+
+    /**
+     * Finds matching product ids and returns one page of them ordered by
+     * (name, id), continuing after a {@link PageCursor#SORT_BY_INDEXED_NAME} cursor.
+     */
+    private Optional<CursorPage<Long>> search(Field field, TrigramIndex index, String term, PageCursor after,
+            int pageSize) {
+        if (!ready) {
+            return Optional.empty();
+        }
+
+        SortedMatches matches;
+        lock.readLock().lock();
+        try {
+            TermKey key = new TermKey(field, TrigramIndex.normalize(term), generation);
+            matches = sortedMatches.getIfPresent(key);
+            if (matches == null) {
+                matches = sort(index.search(term));
+                sortedMatches.put(key, matches);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int total = matches.docs().length;
+        int start = after == null ? 0 : matches.firstAfter(after.getSortKey(), after.getId());
+        int end = Math.min(start + pageSize, total);
+
+        List<Long> ids = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            ids.add((long) matches.docs()[i]);
+        }
+        String nextCursor = end < total
+                ? PageCursor.of(PageCursor.SORT_BY_INDEXED_NAME, matches.names()[end - 1],
+                        (long) matches.docs()[end - 1]).encode()
+                : null;
+        return Optional.of(new CursorPage<>(ids, nextCursor, total));
+    }
+
+    // Caller holds the read lock
+    private SortedMatches sort(int[] docs) {
+        Integer[] order = new Integer[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            order[i] = docs[i];
+        }
+        Arrays.sort(order, Comparator.comparing((Integer doc) -> productNames.get(doc))
+                .thenComparing(Comparator.naturalOrder()));
+        int[] sortedDocs = new int[docs.length];
+        String[] names = new String[docs.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedDocs[i] = order[i];
+            names[i] = productNames.get(order[i]);
+        }
+        return new SortedMatches(sortedDocs, names);
+    }
+
+    private static Map<Long, List<String>> group(List<ProductNameRow> rows) {
+        return rows.stream().collect(Collectors.groupingBy(ProductNameRow::getProductId,
+                Collectors.mapping(ProductNameRow::getName, Collectors.toList())));
+    }
+
+    private static List<String> values(List<ProductNameRow> rows) {
+        return rows.stream().map(ProductNameRow::getName).collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updater.shutdownNow();
+    }
+
+    private enum Field {
+        NAME, COMPONENT, INGREDIENT
+    }
+
+    private record TermKey(Field field, String term, long generation) {
+    }
+
+    // Matches of one term ordered by (name, doc); names[i] belongs to docs[i]
+    private record SortedMatches(int[] docs, String[] names) {
+
+        // Index of the first match ordered after (name, doc)
+        int firstAfter(String name, long doc) {
+            int low = 0;
+            int high = docs.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = names[mid].compareTo(name);
+                if (cmp < 0 || (cmp == 0 && docs[mid] <= doc)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -1,34 +1,65 @@
 package com.synprod.SynProd.service;
 
 import com.synprod.SynProd.dto.CreateProductRequest;
+import com.synprod.SynProd.dto.CursorPage;
+import com.synprod.SynProd.dto.FacetCountDto;
+import com.synprod.SynProd.dto.FilterFacetsDto;
+import com.synprod.SynProd.dto.PatchProductRequest;
+import com.synprod.SynProd.dto.ProductChangesDto;
 import com.synprod.SynProd.dto.ProductDto;
 import com.synprod.SynProd.dto.ProductCompositionDto;
 import com.synprod.SynProd.dto.ProductIngredientDto;
+import com.synprod.SynProd.dto.ProductSummaryDto;
+import com.synprod.SynProd.dto.SuggestionDto;
 import com.synprod.SynProd.entity.Product;
 import com.synprod.SynProd.entity.ProductComposition;
 import com.synprod.SynProd.entity.ProductIngredient;
 import com.synprod.SynProd.entity.ProductType;
 import com.synprod.SynProd.entity.Role;
 import com.synprod.SynProd.entity.User;
+import com.synprod.SynProd.event.ProductChangedEvent;
+import com.synprod.SynProd.exception.PreconditionFailedException;
 import com.synprod.SynProd.exception.ProductNotFoundException;
 import com.synprod.SynProd.exception.UnauthorizedException;
 import com.synprod.SynProd.exception.UserNotFoundException;
 import com.synprod.SynProd.exception.ValidationException;
 import com.synprod.SynProd.exception.DuplicateResourceException;
+import com.synprod.SynProd.repository.ProductChangeRow;
+import com.synprod.SynProd.repository.ProductNameRow;
 import com.synprod.SynProd.repository.ProductRepository;
+import com.synprod.SynProd.repository.RankedProductId;
 import com.synprod.SynProd.repository.UserRepository;
 import com.synprod.SynProd.util.InputSanitizer;
+import com.synprod.SynProd.util.PageCursor;
+import com.synprod.SynProd.util.SuggestionTrie;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,16 +71,48 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final InputSanitizer inputSanitizer;
+    private final ProductCountCache productCountCache;
+    private final ProductDetailCache productDetailCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestionIndex productSuggestionIndex;
+    private final ProductFacetService productFacetService;
+    private final ApplicationEventPublisher eventPublisher;
+    // Cache misses of the recipe reads; hits are served without a transaction
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Page size bounds for keyset-paginated listings
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 500;
+
+    private static final String PRODUCT_TYPES_JSON = productTypesJson();
+
+    // Upper bound for one batch-get request
+    static final int MAX_BATCH_GET = 500;
+
+    // Result bounds for typeahead suggestions
+    static final int DEFAULT_SUGGESTIONS = 10;
+    static final int MAX_SUGGESTIONS = 50;
 
     public ProductService(ProductRepository productRepository, UserRepository userRepository,
-            InputSanitizer inputSanitizer) {
+            InputSanitizer inputSanitizer, ProductCountCache productCountCache,
+            ProductDetailCache productDetailCache, ProductSearchIndex productSearchIndex,
+            ProductSuggestionIndex productSuggestionIndex, ProductFacetService productFacetService,
+            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
         this.productRepository = productRepository;
         this.userRepository = userRepository;
         this.inputSanitizer = inputSanitizer;
+        this.productCountCache = productCountCache;
+        this.productDetailCache = productDetailCache;
+        this.productSearchIndex = productSearchIndex;
+        this.productSuggestionIndex = productSuggestionIndex;
+        this.productFacetService = productFacetService;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     // Helper method to round percentage to 2 decimal places
-    private Double roundPercentage(Double percentage) {
+    static Double roundPercentage(Double percentage) {
         if (percentage == null) {
             return null;
         }
@@ -58,17 +121,140 @@ public class ProductService {
                 .doubleValue();
     }
 
-    // Get all products with basic info (for product list)
-    public List<ProductDto> getAllProducts() {
-        // Use query that fetches user to prevent N+1 queries
-        List<Product> products = productRepository.findAllOrderByNameWithUser();
-        return products.stream()
-                .map(ProductDto::fromEntity)
-                .collect(Collectors.toList());
+    // Resolve the requested page size, clamped to the allowed maximum
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new ValidationException("Page size must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    // Build a page from a keyset query that fetched one row more than the page
+    // size; the extra row only signals that another page exists
+    private CursorPage<ProductSummaryDto> toPage(List<ProductSummaryDto> rows, int pageSize, String sortField,
+            long totalCount) {
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductSummaryDto> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ProductSummaryDto last = pageRows.get(pageRows.size() - 1);
+            String sortKey = PageCursor.SORT_BY_CREATED_AT.equals(sortField)
+                    ? last.getCreatedAt().toString()
+                    : last.getName();
+            nextCursor = PageCursor.of(sortField, sortKey, last.getId()).encode();
+        }
+
+        return new CursorPage<>(new ArrayList<>(pageRows), nextCursor, totalCount);
+    }
+
+    // Get a page of products with basic info (for product list)
+    public CursorPage<ProductSummaryDto> getAllProducts(String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        PageCursor after = PageCursor.decode(cursor, PageCursor.SORT_BY_NAME);
+
+        // Summary projection: one statement per page, no lazy collection loads
+        List<ProductSummaryDto> products = after == null
+                ? productRepository.findSummaryPageOrderByName(Limit.of(pageSize + 1))
+                : productRepository.findSummaryPageOrderByNameAfter(after.getSortKey(), after.getId(),
+                        Limit.of(pageSize + 1));
+        long total = productCountCache.get("all", productRepository::countActive);
+        return toPage(products, pageSize, PageCursor.SORT_BY_NAME, total);
+    }
+
+    /**
+     * Catalog changes after a change token, oldest first: summaries of created
+     * or updated products and ids of soft-deleted ones. Without a token the
+     * feed starts with every live product (an initial sync). The returned
+     * token is the change position (writing transaction id and change sequence
+     * number) of the last row in the batch. A token older than the last archive
+     * purge, or one issued before change positions carried the transaction id,
+     * gets a resync-required answer instead.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ProductChangesDto getChangesSince(String token, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        ChangePosition since = ChangePosition.parse(token);
+
+        // Deletions up to the purge watermark are gone from products; an older token may have missed one
+        if (since == null || (since.isAfterStart() && productRepository.isPurgedAfter(since.xid(), since.seq()))) {
+            return ProductChangesDto.resyncRequired();
+        }
+
+        List<ProductChangeRow> rows = productRepository.findChangesSince(since.xid(), since.seq(),
+                since.isAfterStart(), pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        List<Long> updatedIds = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        ChangePosition last = since;
+        for (ProductChangeRow row : rows) {
+            (Boolean.TRUE.equals(row.getDeleted()) ? deletedIds : updatedIds).add(row.getProductId());
+            last = new ChangePosition(row.getChangeXid(), row.getChangeSeq());
+        }
+        // Same snapshot as the change rows, so summaries match the token
+        return new ProductChangesDto(hydrateInOrder(updatedIds), deletedIds, last.toToken(), hasMore);
     }
 
-    // Get product by ID with full recipe data
+    // Position in the change feed, ordered by writing transaction id, then change sequence number
+    record ChangePosition(long xid, long seq) {
+
+        private static final ChangePosition START = new ChangePosition(0, 0);
+
+        // Null for a token issued before positions carried the transaction id
+        static ChangePosition parse(String token) {
+            if (token == null || token.isBlank()) {
+                return START;
+            }
+            String[] parts = token.trim().split("-", -1);
+            try {
+                if (parts.length == 1) {
+                    Long.parseLong(parts[0]);
+                    return null;
+                }
+                if (parts.length == 2) {
+                    long xid = Long.parseLong(parts[0]);
+                    long seq = Long.parseLong(parts[1]);
+                    if (xid >= 0 && seq >= 0) {
+                        return new ChangePosition(xid, seq);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                throw new ValidationException("Invalid change token");
+            }
+            throw new ValidationException("Invalid change token");
+        }
+
+        boolean isAfterStart() {
+            return !equals(START);
+        }
+
+        String toToken() {
+            return xid + "-" + seq;
+        }
+    }
+
+    // Get product by ID with full recipe data (served from the detail cache when possible).
+    // SUPPORTS keeps the class-level transaction off, so a cache hit never takes a
+    // pooled connection; only a miss loads in a read-only transaction.
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ProductDto getProductById(Long id) {
+        Optional<ProductDto> cached = productDetailCache.get(id);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        ProductDto dto = readOnlyTransaction.execute(status -> loadProduct(id));
+        productDetailCache.put(dto);
+        return dto;
+    }
+
+    private ProductDto loadProduct(Long id) {
         // First, get the product with basic info and user
         Product product = productRepository.findByIdWithRecipeData(id)
                 .orElseThrow(() -> new ProductNotFoundException(id));
@@ -88,20 +274,179 @@ public class ProductService {
         return ProductDto.fromEntity(product);
     }
 
-    // Search products by name
-    public List<ProductDto> searchProductsByName(String name) {
+    // Alternative read path for a full recipe: the database assembles the JSON
+    // document in one round trip and it is passed through as-is, without
+    // loading entities or building DTOs. Same shape as ProductDto.
+    public String getProductJsonById(Long id) {
+        return productRepository.findRecipeJsonById(id, PRODUCT_TYPES_JSON)
+                .orElseThrow(() -> new ProductNotFoundException(id));
+    }
+
+    // Base weight fields per product type, merged into the JSON documents above
+    private static String productTypesJson() {
+        return Arrays.stream(ProductType.values())
+                .map(type -> String.format(Locale.ROOT,
+                        "\"%s\":{\"baseWeight\":%s,\"baseWeightUnit\":\"%s\",\"baseWeightDisplay\":\"%s\"}",
+                        type.name(), type.getBaseWeight(), type.getBaseWeightUnit(), type.getBaseWeightDisplay()))
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    // Get several products with full recipe data, in the order requested. Cached
+    // recipes are reused; the rest are loaded with three IN queries in total.
+    // Unknown and deleted ids are left out of the result. Like getProductById, only
+    // misses run in a transaction.
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ProductDto> getProductsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (ids.size() > MAX_BATCH_GET) {
+            throw new ValidationException("At most " + MAX_BATCH_GET + " product ids can be requested at once");
+        }
+
+        Map<Long, ProductDto> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Optional<ProductDto> cached = productDetailCache.get(id);
+            if (cached.isPresent()) {
+                found.put(id, cached.get());
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (ProductDto dto : readOnlyTransaction.execute(status -> loadProducts(missing))) {
+                productDetailCache.put(dto);
+                found.put(dto.getId(), dto);
+            }
+        }
+
+        List<ProductDto> result = new ArrayList<>(found.size());
+        for (Long id : new LinkedHashSet<>(ids)) {
+            ProductDto dto = found.get(id);
+            if (dto != null) {
+                result.add(dto);
+            }
+        }
+        return result;
+    }
+
+    private List<ProductDto> loadProducts(List<Long> ids) {
+        // All three queries return the same managed instances, so the
+        // collections fetched by the second and third land on the first result
+        List<Product> products = productRepository.findAllByIdWithRecipeData(ids);
+        if (!products.isEmpty()) {
+            List<Long> liveIds = products.stream().map(Product::getId).toList();
+            productRepository.findAllByIdWithCompositions(liveIds);
+            productRepository.findAllByIdWithIngredients(liveIds);
+        }
+        return products.stream().map(ProductDto::fromEntity).collect(Collectors.toList());
+    }
+
+    // Search products by name: relevance-ranked full-text search over the product
+    // search document (name, components, ingredients, description)
+    public CursorPage<ProductSummaryDto> searchProductsByName(String name, String cursor, Integer limit) {
         if (name == null || name.isBlank()) {
-            return getAllProducts();
+            return getAllProducts(cursor, limit);
         }
 
         // Sanitize input: remove wildcards, limit length to prevent DoS
         String sanitized = sanitizeSearchInput(name);
         String pattern = "%" + sanitized + "%";
 
-        List<Product> products = productRepository.findByNameContainingIgnoreCase(pattern);
-        return products.stream()
-                .map(ProductDto::fromEntity)
-                .collect(Collectors.toList());
+        String tsQuery = toPrefixTsQuery(sanitized);
+        if (!tsQuery.isEmpty()) {
+            return searchRanked(sanitized, tsQuery, pattern, cursor, limit);
+        }
+
+        // No word characters to match on: plain name substring search
+        int pageSize = resolvePageSize(limit);
+        PageCursor after = PageCursor.decode(cursor, PageCursor.SORT_BY_NAME);
+
+        List<ProductSummaryDto> products = after == null
+                ? productRepository.findSummaryPageByNameContainingIgnoreCase(pattern, Limit.of(pageSize + 1))
+                : productRepository.findSummaryPageByNameContainingIgnoreCaseAfter(pattern, after.getSortKey(),
+                        after.getId(), Limit.of(pageSize + 1));
+        long total = productCountCache.get("name:" + pattern.toLowerCase(),
+                () -> productRepository.countByNameContainingIgnoreCase(pattern));
+        return toPage(products, pageSize, PageCursor.SORT_BY_NAME, total);
+    }
+
+    private CursorPage<ProductSummaryDto> searchRanked(String term, String tsQuery, String pattern,
+            String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        PageCursor after = PageCursor.decode(cursor, PageCursor.SORT_BY_RANK);
+
+        float afterRank = Float.POSITIVE_INFINITY;
+        long afterId = 0L;
+        if (after != null) {
+            try {
+                afterRank = Float.parseFloat(after.getSortKey());
+            } catch (NumberFormatException e) {
+                throw new ValidationException("Invalid page cursor");
+            }
+            afterId = after.getId();
+        }
+
+        List<RankedProductId> ranked = productRepository.searchRankedIds(
+                tsQuery, term, pattern, afterRank, afterId, pageSize + 1);
+        boolean hasMore = ranked.size() > pageSize;
+        List<RankedProductId> pageRows = hasMore ? ranked.subList(0, pageSize) : ranked;
+
+        String nextCursor = null;
+        if (hasMore) {
+            RankedProductId last = pageRows.get(pageRows.size() - 1);
+            nextCursor = PageCursor.of(PageCursor.SORT_BY_RANK, Float.toString(last.getRank()), last.getId()).encode();
+        }
+
+        // Hydrate the page in one query and restore the relevance order
+        List<ProductSummaryDto> items = hydrateInOrder(pageRows.stream().map(RankedProductId::getId).toList());
+
+        long total = productCountCache.get("ranked:" + tsQuery + "|" + pattern.toLowerCase(),
+                () -> productRepository.countRanked(tsQuery, pattern));
+        return new CursorPage<>(items, nextCursor, total);
+    }
+
+    // Load summaries for a page of ids in one query, keeping the order of the ids
+    private List<ProductSummaryDto> hydrateInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ProductSummaryDto> byId = new HashMap<>();
+        for (ProductSummaryDto summary : productRepository.findSummariesByIds(ids)) {
+            byId.put(summary.getId(), summary);
+        }
+        List<ProductSummaryDto> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductSummaryDto summary = byId.get(id);
+            if (summary != null) {
+                items.add(summary);
+            }
+        }
+        return items;
+    }
+
+    // Turn a page of ids from the in-memory search index into summaries
+    // The index and the database order names differently, so a cursor is only
+    // resumed by the path that issued it; a database cursor stays on the database
+    private boolean useSearchIndex(String term, String cursor) {
+        return !term.isEmpty() && productSearchIndex.isReady()
+                && !PageCursor.isSortedBy(cursor, PageCursor.SORT_BY_NAME);
+    }
+
+    private CursorPage<ProductSummaryDto> hydratePage(CursorPage<Long> page) {
+        return new CursorPage<>(hydrateInOrder(page.getItems()), page.getNextCursor(), page.getTotalCount());
+    }
+
+    // Build a prefix-matching tsquery ("word1:* & word2:*") from letters and digits
+    // only, so user input can never inject tsquery operators
+    private static String toPrefixTsQuery(String input) {
+        return Arrays.stream(input.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .limit(10)
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
     }
 
     // Helper method to sanitize search input
@@ -125,12 +470,17 @@ public class ProductService {
     }
 
     // Advanced search with multiple filters
-    public List<ProductDto> searchProductsWithFilters(
+    public CursorPage<ProductSummaryDto> searchProductsWithFilters(
             String name,
             String description,
             String componentName,
             String ingredientName,
-            ProductType productType) {
+            ProductType productType,
+            String cursor,
+            Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        PageCursor after = PageCursor.decode(cursor, PageCursor.SORT_BY_NAME);
+
         // Sanitize all search inputs
         String namePattern = name == null || name.isBlank() ? null : "%" + sanitizeSearchInput(name) + "%";
         String descriptionPattern = description == null || description.isBlank() ? null
@@ -140,78 +490,146 @@ public class ProductService {
         String ingredientPattern = ingredientName == null || ingredientName.isBlank() ? null
                 : "%" + sanitizeSearchInput(ingredientName) + "%";
 
-        List<Product> products = productRepository.findWithFilters(
-                namePattern, descriptionPattern, componentPattern, ingredientPattern, productType);
-        return products.stream()
-                .map(ProductDto::fromEntity)
-                .collect(Collectors.toList());
+        List<ProductSummaryDto> products = after == null
+                ? productRepository.findSummaryPageWithFilters(namePattern, descriptionPattern, componentPattern,
+                        ingredientPattern, productType, Limit.of(pageSize + 1))
+                : productRepository.findSummaryPageWithFiltersAfter(namePattern, descriptionPattern,
+                        componentPattern, ingredientPattern, productType, after.getSortKey(), after.getId(),
+                        Limit.of(pageSize + 1));
+        String countKey = String.join("|", "filters", String.valueOf(namePattern), String.valueOf(descriptionPattern),
+                String.valueOf(componentPattern), String.valueOf(ingredientPattern), String.valueOf(productType))
+                .toLowerCase();
+        long total = productCountCache.get(countKey, () -> productRepository.countWithFilters(
+                namePattern, descriptionPattern, componentPattern, ingredientPattern, productType));
+        return toPage(products, pageSize, PageCursor.SORT_BY_NAME, total);
     }
 
     // Search by component name
-    public List<ProductDto> searchProductsByComponent(String componentName) {
+    public CursorPage<ProductSummaryDto> searchProductsByComponent(String componentName, String cursor, Integer limit) {
         if (componentName == null || componentName.isBlank()) {
-            return getAllProducts();
+            return getAllProducts(cursor, limit);
         }
 
-        String pattern = "%" + sanitizeSearchInput(componentName) + "%";
-        List<Product> products = productRepository.findByComponentName(pattern);
-        return products.stream()
-                .map(ProductDto::fromEntity)
-                .collect(Collectors.toList());
+        int pageSize = resolvePageSize(limit);
+
+        // Answer from the in-memory trigram index; only the page itself hits the database
+        String term = sanitizeSearchInput(componentName);
+        if (useSearchIndex(term, cursor)) {
+            PageCursor indexAfter = PageCursor.decode(cursor, PageCursor.SORT_BY_INDEXED_NAME);
+            Optional<CursorPage<Long>> indexed = productSearchIndex.searchComponents(term, indexAfter, pageSize);
+            if (indexed.isPresent()) {
+                return hydratePage(indexed.get());
+            }
+        }
+        PageCursor after = PageCursor.decode(cursor, PageCursor.SORT_BY_NAME);
+
+        String pattern = "%" + term + "%";
+        List<ProductSummaryDto> products = after == null
+                ? productRepository.findSummaryPageByComponentName(pattern, Limit.of(pageSize + 1))
+                : productRepository.findSummaryPageByComponentNameAfter(pattern, after.getSortKey(), after.getId(),
+                        Limit.of(pageSize + 1));
+        long total = productCountCache.get("component:" + pattern.toLowerCase(),
+                () -> productRepository.countByComponentName(pattern));
+        return toPage(products, pageSize, PageCursor.SORT_BY_NAME, total);
     }
 
     // Search by ingredient name
-    public List<ProductDto> searchProductsByIngredient(String ingredientName) {
+    public CursorPage<ProductSummaryDto> searchProductsByIngredient(String ingredientName, String cursor, Integer limit) {
         if (ingredientName == null || ingredientName.isBlank()) {
-            return getAllProducts();
+            return getAllProducts(cursor, limit);
         }
 
-        String pattern = "%" + sanitizeSearchInput(ingredientName) + "%";
-        List<Product> products = productRepository.findByIngredientName(pattern);
-        return products.stream()
-                .map(ProductDto::fromEntity)
-                .collect(Collectors.toList());
+        int pageSize = resolvePageSize(limit);
+
+        // Answer from the in-memory trigram index; only the page itself hits the database
+        String term = sanitizeSearchInput(ingredientName);
+        if (useSearchIndex(term, cursor)) {
+            PageCursor indexAfter = PageCursor.decode(cursor, PageCursor.SORT_BY_INDEXED_NAME);
+            Optional<CursorPage<Long>> indexed = productSearchIndex.searchIngredients(term, indexAfter, pageSize);
+            if (indexed.isPresent()) {
+                return hydratePage(indexed.get());
+            }
+        }
+        PageCursor after = PageCursor.decode(cursor, PageCursor.SORT_BY_NAME);
+
+        String pattern = "%" + term + "%";
+        List<ProductSummaryDto> products = after == null
+                ? productRepository.findSummaryPageByIngredientName(pattern, Limit.of(pageSize + 1))
+                : productRepository.findSummaryPageByIngredientNameAfter(pattern, after.getSortKey(), after.getId(),
+                        Limit.of(pageSize + 1));
+        long total = productCountCache.get("ingredient:" + pattern.toLowerCase(),
+                () -> productRepository.countByIngredientName(pattern));
+        return toPage(products, pageSize, PageCursor.SORT_BY_NAME, total);
     }
 
     // Search by product type
-    public List<ProductDto> searchProductsByType(ProductType productType) {
-        List<Product> products = productRepository.findByProductType(productType);
-        return products.stream()
-                .map(ProductDto::fromEntity)
-                .collect(Collectors.toList());
+    public CursorPage<ProductSummaryDto> searchProductsByType(ProductType productType, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        PageCursor after = PageCursor.decode(cursor, PageCursor.SORT_BY_NAME);
+
+        List<ProductSummaryDto> products = after == null
+                ? productRepository.findSummaryPageByProductType(productType, Limit.of(pageSize + 1))
+                : productRepository.findSummaryPageByProductTypeAfter(productType, after.getSortKey(), after.getId(),
+                        Limit.of(pageSize + 1));
+        long total = productCountCache.get("type:" + productType,
+                () -> productRepository.countByProductType(productType));
+        return toPage(products, pageSize, PageCursor.SORT_BY_NAME, total);
     }
 
-    // Get filter options
-    public List<ProductType> getAvailableProductTypes() {
-        return productRepository.findDistinctProductTypes();
+    // Get filter options: served from the in-memory facet counts of live products,
+    // so no transaction is started
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public FilterFacetsDto getFilterFacets() {
+        return productFacetService.getFacets();
     }
 
-    public List<String> getAvailableComponents() {
-        return productRepository.findDistinctComponentNames();
+    // Option lists are taken from one facet snapshot so they agree with its counts
+    public static List<ProductType> getAvailableProductTypes(FilterFacetsDto facets) {
+        return facets.getProductTypes().stream()
+                .map(facet -> ProductType.valueOf(facet.getValue()))
+                .collect(Collectors.toList());
     }
 
-    public List<String> getAvailableIngredients() {
-        return productRepository.findDistinctIngredientNames();
+    public static List<String> getAvailableComponents(FilterFacetsDto facets) {
+        return facets.getComponents().stream().map(FacetCountDto::getValue).collect(Collectors.toList());
     }
 
-    // Create new product
-    public ProductDto createProduct(CreateProductRequest request) {
-        // Validate that composition percentages add up to 100% (if any compositions are
-        // provided)
-        if (request.getCompositions() != null && !request.getCompositions().isEmpty()) {
-            double totalPercentage = request.getCompositions().stream()
-                    .mapToDouble(ProductCompositionDto::getPercentage)
-                    .sum();
+    public static List<String> getAvailableIngredients(FilterFacetsDto facets) {
+        return facets.getIngredients().stream().map(FacetCountDto::getValue).collect(Collectors.toList());
+    }
 
-            if (Math.abs(totalPercentage - 100.0) > 0.01) { // Allow small floating point differences
-                throw new RuntimeException(
-                        "Total composition percentage must equal 100%. Current total: " + totalPercentage + "%");
-            }
+    // Typeahead suggestions for one field, ranked by how many products use each name
+    public List<SuggestionDto> suggest(String field, String query, Integer limit) {
+        ProductSuggestionIndex.Field suggestField = ProductSuggestionIndex.Field.fromParameter(field);
+        if (limit != null && limit < 1) {
+            throw new ValidationException("Suggestion limit must be at least 1");
         }
+        int max = limit == null ? DEFAULT_SUGGESTIONS : Math.min(limit, MAX_SUGGESTIONS);
+        String term = sanitizeSearchInput(query);
 
-        // Validate input before sanitization to prevent empty strings after
-        // sanitization
-        validateProductInput(request);
+        Optional<List<SuggestionTrie.Match>> matches = productSuggestionIndex.suggest(suggestField, term, max);
+        if (matches.isPresent()) {
+            return matches.get().stream().map(SuggestionDto::fromMatch).collect(Collectors.toList());
+        }
+
+        // Index still loading: plain prefix filter over the distinct names
+        List<String> names = switch (suggestField) {
+            case NAME -> productRepository.findLiveProductNames().stream().map(ProductNameRow::getName).toList();
+            case COMPONENT -> getAvailableComponents(productFacetService.getFacets());
+            case INGREDIENT -> getAvailableIngredients(productFacetService.getFacets());
+        };
+        String prefix = term.toLowerCase();
+        return names.stream()
+                .filter(name -> name.toLowerCase().startsWith(prefix))
+                .distinct()
+                .limit(max)
+                .map(name -> new SuggestionDto(name, 0, false))
+                .collect(Collectors.toList());
+    }
+
+    // Create new product
+    public ProductDto createProduct(CreateProductRequest request) {
+        validateRecipe(request);
 
         // Check if product name already exists
         if (productRepository.existsByNameIgnoreCaseAndIdNot(request.getName(), null)) {
@@ -257,31 +675,49 @@ public class ProductService {
 
         // Save product
         Product savedProduct = productRepository.save(product);
+        productRepository.refreshSearchDocument(savedProduct.getId());
+        ProductDto dto = ProductDto.fromEntity(savedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                savedProduct.getId(), savedProduct.getVersion(), ProductChangedEvent.ChangeType.CREATED, dto));
 
         // Return full product data
-        return ProductDto.fromEntity(savedProduct);
+        return dto;
+    }
+
+    /**
+     * Update existing product. Runs at READ COMMITTED: the product row is written
+     * with "WHERE version = ?" (the @Version column), so a concurrent save in
+     * between makes this one fail instead of being overwritten.
+     *
+     * @param expectedVersion The version the client edited (If-Match), or null
+     *                        for an unconditional update
+     * @throws PreconditionFailedException if the product is no longer at
+     *                                     expectedVersion
+     */
+    public ProductDto updateProduct(Long id, CreateProductRequest request, Long expectedVersion) {
+        validateRecipe(request);
+        Product product = loadForUpdate(id, expectedVersion);
+        return applyUpdate(product, request);
     }
 
-    // Update existing product
-    @Transactional(isolation = Isolation.REPEATABLE_READ)
     public ProductDto updateProduct(Long id, CreateProductRequest request) {
-        // Validate that composition percentages add up to 100% (if any compositions are
-        // provided)
-        if (request.getCompositions() != null && !request.getCompositions().isEmpty()) {
-            double totalPercentage = request.getCompositions().stream()
-                    .mapToDouble(ProductCompositionDto::getPercentage)
-                    .sum();
+        return updateProduct(id, request, null);
+    }
 
-            if (Math.abs(totalPercentage - 100.0) > 0.01) { // Allow small floating point differences
-                throw new ValidationException(
-                        "Total composition percentage must equal 100%. Current total: " + totalPercentage + "%");
-            }
-        }
+    // Partial update: fields left out of the request keep their stored values
+    public ProductDto patchProduct(Long id, PatchProductRequest patch, Long expectedVersion) {
+        Product product = loadForUpdate(id, expectedVersion);
+        CreateProductRequest request = mergePatch(product, patch);
+        validateRecipe(request);
+        return applyUpdate(product, request);
+    }
 
-        // Validate input before sanitization to prevent empty strings after
-        // sanitization
-        validateProductInput(request);
+    public ProductDto patchProduct(Long id, PatchProductRequest patch) {
+        return patchProduct(id, patch, null);
+    }
 
+    // Loads a live product with its recipe rows and checks the caller may change it
+    private Product loadForUpdate(Long id, Long expectedVersion) {
         // Check if product exists and load with full recipe data
         Product product = productRepository.findByIdWithRecipeData(id)
                 .orElseThrow(() -> new ProductNotFoundException(id));
@@ -290,6 +726,12 @@ public class ProductService {
         if (product.isDeleted()) {
             throw new ProductNotFoundException(id);
         }
+
+        // A stale If-Match fails here, before the recipe rows are read
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw new PreconditionFailedException("Product " + id + " is at version " + product.getVersion()
+                    + ", not " + expectedVersion);
+        }
         
         // IDOR Protection: Verify ownership (only creator or ADMIN can update)
         User currentUser = getCurrentUser();
@@ -305,6 +747,24 @@ public class ProductService {
 
         productRepository.findByIdWithIngredients(id)
                 .ifPresent(p -> product.setAdditionalIngredients(p.getAdditionalIngredients()));
+        return product;
+    }
+
+    private static CreateProductRequest mergePatch(Product product, PatchProductRequest patch) {
+        CreateProductRequest request = new CreateProductRequest(
+                patch.getName() != null ? patch.getName() : product.getName(),
+                patch.getDescription() != null ? patch.getDescription() : product.getDescription(),
+                patch.getProductType() != null ? patch.getProductType() : product.getProductType());
+        request.setCompositions(patch.getCompositions() != null ? patch.getCompositions()
+                : product.getCompositions().stream().map(ProductCompositionDto::fromEntity).collect(Collectors.toList()));
+        request.setAdditionalIngredients(patch.getAdditionalIngredients() != null ? patch.getAdditionalIngredients()
+                : product.getAdditionalIngredients().stream().map(ProductIngredientDto::fromEntity)
+                        .collect(Collectors.toList()));
+        return request;
+    }
+
+    private ProductDto applyUpdate(Product product, CreateProductRequest request) {
+        Long id = product.getId();
 
         // Check if new name conflicts with existing products (excluding current
         // product)
@@ -317,42 +777,99 @@ public class ProductService {
         product.setDescription(inputSanitizer.sanitizeDescription(request.getDescription()));
         product.setProductType(request.getProductType());
 
-        // Clear existing compositions and ingredients
-        product.getCompositions().clear();
-        product.getAdditionalIngredients().clear();
+        // Touch the product row so its version is bumped even when only recipe rows
+        // change; caches and clients key on Product.version
+        product.setUpdatedAt(LocalDateTime.now());
 
-        // Add new compositions
-        if (request.getCompositions() != null) {
-            for (int i = 0; i < request.getCompositions().size(); i++) {
-                ProductCompositionDto compDto = request.getCompositions().get(i);
-                ProductComposition composition = new ProductComposition();
-                composition.setComponentName(inputSanitizer.sanitize(compDto.getComponentName()));
-                composition.setPercentage(roundPercentage(compDto.getPercentage()));
-                composition.setNotes(inputSanitizer.sanitizeDescription(compDto.getNotes()));
-                composition.setSortOrder(i);
+        // Reconcile recipe rows in place; unchanged rows are not written at all
+        mergeCompositions(product, request.getCompositions());
+        mergeIngredients(product, request.getAdditionalIngredients());
+
+        // Save updated product and flush so the returned DTO carries the new version
+        Product savedProduct = productRepository.saveAndFlush(product);
+        productRepository.refreshSearchDocument(savedProduct.getId());
+        ProductDto dto = ProductDto.fromEntity(savedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                savedProduct.getId(), savedProduct.getVersion(), ProductChangedEvent.ChangeType.UPDATED, dto));
+
+        // Return updated product data
+        return dto;
+    }
+
+    /**
+     * Matches requested compositions to stored rows by id, then leftover rows by
+     * position. Matched rows are updated in place (Hibernate only writes the ones
+     * whose values differ), missing rows are inserted and unmatched stored rows
+     * are removed.
+     */
+    void mergeCompositions(Product product, List<ProductCompositionDto> requested) {
+        List<ProductCompositionDto> dtos = requested != null ? requested : List.of();
+        Map<Long, ProductComposition> unmatched = new LinkedHashMap<>();
+        product.getCompositions().forEach(composition -> unmatched.put(composition.getId(), composition));
+
+        ProductComposition[] targets = new ProductComposition[dtos.size()];
+        for (int i = 0; i < dtos.size(); i++) {
+            if (dtos.get(i).getId() != null) {
+                targets[i] = unmatched.remove(dtos.get(i).getId());
+            }
+        }
+        Iterator<ProductComposition> spare = new ArrayList<>(unmatched.values()).iterator();
+        for (int i = 0; i < targets.length && spare.hasNext(); i++) {
+            if (targets[i] == null) {
+                targets[i] = spare.next();
+                unmatched.remove(targets[i].getId());
+            }
+        }
+        product.getCompositions().removeAll(unmatched.values());
+
+        for (int i = 0; i < dtos.size(); i++) {
+            ProductCompositionDto compDto = dtos.get(i);
+            ProductComposition composition = targets[i] != null ? targets[i] : new ProductComposition();
+            composition.setComponentName(inputSanitizer.sanitize(compDto.getComponentName()));
+            composition.setPercentage(roundPercentage(compDto.getPercentage()));
+            composition.setNotes(inputSanitizer.sanitizeDescription(compDto.getNotes()));
+            composition.setSortOrder(i);
+            if (targets[i] == null) {
                 product.addComposition(composition);
             }
         }
+        product.getCompositions().sort(Comparator.comparing(ProductComposition::getSortOrder));
+    }
 
-        // Add new additional ingredients
-        if (request.getAdditionalIngredients() != null) {
-            for (int i = 0; i < request.getAdditionalIngredients().size(); i++) {
-                ProductIngredientDto ingDto = request.getAdditionalIngredients().get(i);
-                ProductIngredient ingredient = new ProductIngredient();
-                ingredient.setIngredientName(inputSanitizer.sanitize(ingDto.getIngredientName()));
-                ingredient.setQuantity(ingDto.getQuantity());
-                ingredient.setUnit(inputSanitizer.sanitize(ingDto.getUnit()));
-                ingredient.setNotes(inputSanitizer.sanitizeDescription(ingDto.getNotes()));
-                ingredient.setSortOrder(i);
+    // Same reconciliation as mergeCompositions for the additional ingredients
+    void mergeIngredients(Product product, List<ProductIngredientDto> requested) {
+        List<ProductIngredientDto> dtos = requested != null ? requested : List.of();
+        Map<Long, ProductIngredient> unmatched = new LinkedHashMap<>();
+        product.getAdditionalIngredients().forEach(ingredient -> unmatched.put(ingredient.getId(), ingredient));
+
+        ProductIngredient[] targets = new ProductIngredient[dtos.size()];
+        for (int i = 0; i < dtos.size(); i++) {
+            if (dtos.get(i).getId() != null) {
+                targets[i] = unmatched.remove(dtos.get(i).getId());
+            }
+        }
+        Iterator<ProductIngredient> spare = new ArrayList<>(unmatched.values()).iterator();
+        for (int i = 0; i < targets.length && spare.hasNext(); i++) {
+            if (targets[i] == null) {
+                targets[i] = spare.next();
+                unmatched.remove(targets[i].getId());
+            }
+        }
+        product.getAdditionalIngredients().removeAll(unmatched.values());
+
+        for (int i = 0; i < dtos.size(); i++) {
+            ProductIngredientDto ingDto = dtos.get(i);
+            ProductIngredient ingredient = targets[i] != null ? targets[i] : new ProductIngredient();
+            ingredient.setIngredientName(inputSanitizer.sanitize(ingDto.getIngredientName()));
+            ingredient.setQuantity(ingDto.getQuantity());
+            ingredient.setUnit(inputSanitizer.sanitize(ingDto.getUnit()));
+            ingredient.setNotes(inputSanitizer.sanitizeDescription(ingDto.getNotes()));
+            ingredient.setSortOrder(i);
+            if (targets[i] == null) {
                 product.addIngredient(ingredient);
             }
         }
-
-        // Save updated product
-        Product savedProduct = productRepository.save(product);
-
-        // Return updated product data
-        return ProductDto.fromEntity(savedProduct);
+        product.getAdditionalIngredients().sort(Comparator.comparing(ProductIngredient::getSortOrder));
     }
 
     // Soft delete product
@@ -375,23 +892,41 @@ public class ProductService {
         }
 
         // Soft delete: Set deletedAt timestamp instead of hard delete
-        product.setDeletedAt(java.time.LocalDateTime.now());
-        productRepository.save(product);
+        product.setDeletedAt(LocalDateTime.now());
+        Product deletedProduct = productRepository.saveAndFlush(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                id, deletedProduct.getVersion(), ProductChangedEvent.ChangeType.DELETED));
         
         log.info("Product {} soft deleted by user {}", id, currentUser.getId());
     }
 
     // Get products created by current user
-    public List<ProductDto> getProductsByCurrentUser() {
+    public CursorPage<ProductSummaryDto> getProductsByCurrentUser(String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        PageCursor before = PageCursor.decode(cursor, PageCursor.SORT_BY_CREATED_AT);
+
+        LocalDateTime beforeCreatedAt = null;
+        if (before != null) {
+            try {
+                beforeCreatedAt = LocalDateTime.parse(before.getSortKey());
+            } catch (DateTimeParseException e) {
+                throw new ValidationException("Invalid page cursor");
+            }
+        }
+
         User currentUser = getCurrentUser();
-        List<Product> products = productRepository.findByCreatedByIdOrderByCreatedAtDesc(currentUser.getId());
-        return products.stream()
-                .map(ProductDto::fromEntity)
-                .collect(Collectors.toList());
+        List<ProductSummaryDto> products = before == null
+                ? productRepository.findSummaryPageByCreatedByIdOrderByCreatedAtDesc(currentUser.getId(),
+                        Limit.of(pageSize + 1))
+                : productRepository.findSummaryPageByCreatedByIdOrderByCreatedAtDescBefore(currentUser.getId(),
+                        beforeCreatedAt, before.getId(), Limit.of(pageSize + 1));
+        long total = productCountCache.get("user:" + currentUser.getId(),
+                () -> productRepository.countByCreatedById(currentUser.getId()));
+        return toPage(products, pageSize, PageCursor.SORT_BY_CREATED_AT, total);
     }
 
     // Helper method to get current authenticated user
-    private User getCurrentUser() {
+    User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
 
@@ -399,6 +934,46 @@ public class ProductService {
                 .orElseThrow(() -> new UserNotFoundException("Current user not found"));
     }
 
+    // Content rules for a recipe, shared by create, PUT, PATCH (after merging) and the bulk import
+    void validateRecipe(CreateProductRequest request) {
+        // The DTOs carry no constraints of their own; the columns are NOT NULL
+        requireAmounts(request);
+
+        // Validate that composition percentages add up to 100% (if any compositions are
+        // provided)
+        if (request.getCompositions() != null && !request.getCompositions().isEmpty()) {
+            double totalPercentage = request.getCompositions().stream()
+                    .mapToDouble(ProductCompositionDto::getPercentage)
+                    .sum();
+
+            if (Math.abs(totalPercentage - 100.0) > 0.01) { // Allow small floating point differences
+                throw new ValidationException(
+                        "Total composition percentage must equal 100%. Current total: " + totalPercentage + "%");
+            }
+        }
+
+        // Validate input before sanitization to prevent empty strings after
+        // sanitization
+        validateProductInput(request);
+    }
+
+    private static void requireAmounts(CreateProductRequest request) {
+        if (request.getCompositions() != null) {
+            for (int i = 0; i < request.getCompositions().size(); i++) {
+                if (request.getCompositions().get(i).getPercentage() == null) {
+                    throw new ValidationException("Percentage is required for component at position " + (i + 1));
+                }
+            }
+        }
+        if (request.getAdditionalIngredients() != null) {
+            for (int i = 0; i < request.getAdditionalIngredients().size(); i++) {
+                if (request.getAdditionalIngredients().get(i).getQuantity() == null) {
+                    throw new ValidationException("Quantity is required for ingredient at position " + (i + 1));
+                }
+            }
+        }
+    }
+
     /**
      * Validates product input to ensure that after sanitization, required fields
      * won't be empty.
@@ -0,0 +1,216 @@
+package com.synprod.SynProd.service;
+
+import com.synprod.SynProd.event.ProductChangedEvent;
+import com.synprod.SynProd.event.ProductsImportedEvent;
+import com.synprod.SynProd.exception.ValidationException;
+import com.synprod.SynProd.repository.ProductNameRow;
+import com.synprod.SynProd.repository.ProductRepository;
+import com.synprod.SynProd.util.SuggestionTrie;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Typeahead dictionaries for product, component and ingredient names, weighted
+ * by how many live products use each name. Lookups read an immutable
+ * {@link SuggestionTrie} snapshot without locking.
+ *
+ * All index state is owned by one background thread. Committed writes only
+ * queue the product id; the thread reloads the names of the queued products,
+ * adjusts the per-name counts of the names that changed and, once per batch,
+ * swaps in a trie rebuilt from those counts for each affected field.
+ */
+@Service
+public class ProductSuggestionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggestionIndex.class);
+
+    public enum Field {
+        NAME, COMPONENT, INGREDIENT;
+
+        public static Field fromParameter(String value) {
+            if (value != null) {
+                for (Field field : values()) {
+                    if (field.name().equalsIgnoreCase(value.trim())) {
+                        return field;
+                    }
+                }
+            }
+            throw new ValidationException("Unknown suggestion field: " + value);
+        }
+    }
+
+    private final ProductRepository productRepository;
+
+    // Only touched by the updater thread: distinct names per product and products per name
+    private final Map<Field, Map<Long, List<String>>> namesByProduct = new EnumMap<>(Field.class);
+    private final Map<Field, Map<String, Integer>> usage = new EnumMap<>(Field.class);
+    private final Set<Field> changedFields = EnumSet.noneOf(Field.class);
+
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    private final Map<Field, SuggestionTrie> tries = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    private final ScheduledExecutorService updater = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-suggestions");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductSuggestionIndex(ProductRepository productRepository,
+            @Value("${app.suggest.publish-millis:500}") long publishMillis) {
+        this.productRepository = productRepository;
+        for (Field field : Field.values()) {
+            namesByProduct.put(field, new HashMap<>());
+            usage.put(field, new HashMap<>());
+            tries.put(field, SuggestionTrie.builder().build());
+        }
+        updater.scheduleWithFixedDelay(() -> guarded(this::applyPending), publishMillis, publishMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    // Runs on the updater thread, so writes queued during the load are applied after it
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleRebuild() {
+        updater.execute(() -> guarded(this::rebuild));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        pendingIds.add(event.getProductId());
+    }
+
+    // Bulk imports do not publish per-product events; reload everything
+    @EventListener
+    public void onProductsImported(ProductsImportedEvent event) {
+        scheduleRebuild();
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        load(Field.NAME, productRepository.findLiveProductNames());
+        load(Field.COMPONENT, productRepository.findLiveComponentNames());
+        load(Field.INGREDIENT, productRepository.findLiveIngredientNames());
+        for (Field field : Field.values()) {
+            publish(field);
+        }
+        changedFields.clear();
+        ready = true;
+        log.info("Suggestion index built in {} ms", System.currentTimeMillis() - start);
+    }
+
+    private void load(Field field, List<ProductNameRow> rows) {
+        Map<Long, List<String>> byProduct = rows.stream().collect(Collectors.groupingBy(ProductNameRow::getProductId,
+                HashMap::new, Collectors.mapping(ProductNameRow::getName,
+                        Collectors.collectingAndThen(Collectors.toList(), ProductSuggestionIndex::distinct))));
+        Map<String, Integer> counts = new HashMap<>();
+        byProduct.values().forEach(names -> names.forEach(name -> counts.merge(name, 1, Integer::sum)));
+        namesByProduct.put(field, byProduct);
+        usage.put(field, counts);
+    }
+
+    // One batch: reload the queued products, then publish each changed field once
+    private void applyPending() {
+        if (!ready || pendingIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pendingIds);
+        pendingIds.removeAll(ids);
+        try {
+            for (Long id : ids) {
+                update(Field.NAME, id, productRepository.findLiveProductNames(id));
+                update(Field.COMPONENT, id, productRepository.findLiveComponentNames(id));
+                update(Field.INGREDIENT, id, productRepository.findLiveIngredientNames(id));
+            }
+        } catch (RuntimeException e) {
+            // Updates are idempotent; retry the whole batch on the next run
+            pendingIds.addAll(ids);
+            throw e;
+        }
+        for (Field field : changedFields) {
+            publish(field);
+        }
+        changedFields.clear();
+    }
+
+    // Adjusts the counts of the names the product gained or lost
+    private void update(Field field, Long productId, List<ProductNameRow> rows) {
+        List<String> names = distinct(rows.stream().map(ProductNameRow::getName).collect(Collectors.toList()));
+        Map<Long, List<String>> byProduct = namesByProduct.get(field);
+        List<String> previous = names.isEmpty() ? byProduct.remove(productId) : byProduct.put(productId, names);
+        if (previous == null) {
+            previous = List.of();
+        }
+        if (names.equals(previous)) {
+            return;
+        }
+        Map<String, Integer> counts = usage.get(field);
+        for (String name : previous) {
+            if (!names.contains(name)) {
+                counts.computeIfPresent(name, (key, count) -> count > 1 ? count - 1 : null);
+                changedFields.add(field);
+            }
+        }
+        for (String name : names) {
+            if (!previous.contains(name)) {
+                counts.merge(name, 1, Integer::sum);
+                changedFields.add(field);
+            }
+        }
+    }
+
+    // Swap in a trie built from the maintained counts
+    private void publish(Field field) {
+        SuggestionTrie.Builder builder = SuggestionTrie.builder();
+        usage.get(field).forEach(builder::add);
+        tries.put(field, builder.build());
+    }
+
+    /**
+     * Top suggestions for a query, or empty until the index has been built.
+     */
+    public Optional<List<SuggestionTrie.Match>> suggest(Field field, String query, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.of(tries.get(field).suggest(query, limit));
+    }
+
+    private static List<String> distinct(List<String> names) {
+        return names.stream().distinct().collect(Collectors.toList());
+    }
+
+    // A failing run must not cancel the periodic task
+    private static void guarded(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.warn("Suggestion index update failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updater.shutdownNow();
+    }
+}
@@ -0,0 +1,451 @@
+package com.synprod.SynProd.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.dto.ScaleRequest;
+import com.synprod.SynProd.dto.ScaledRecipeDto;
+import com.synprod.SynProd.event.ProductChangedEvent;
+import com.synprod.SynProd.exception.ProductNotFoundException;
+import com.synprod.SynProd.exception.ValidationException;
+import com.synprod.SynProd.repository.ProductRepository;
+import com.synprod.SynProd.repository.ProductVersionRow;
+import com.synprod.SynProd.util.RecipePdfRenderer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Recipe sheets as PDF files. A rendered sheet is kept on disk under
+ * {id}-v{version}-{capacity}-{quantity}.pdf; the product version is part of
+ * the name, so a sheet is never served for an outdated recipe, and the files
+ * of a product are deleted once a write to it commits.
+ *
+ * The quantity is chosen by the client, so the directory is capped by file
+ * count and total size; past either limit the least recently used sheets are
+ * deleted. On startup leftover temporary files and sheets of versions that are
+ * no longer current are removed, and the remaining files are indexed.
+ *
+ * Bundles render on a bounded worker pool (a full queue makes the request
+ * thread render itself) and are streamed as a ZIP in request order.
+ */
+@Service
+public class RecipePdfService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipePdfService.class);
+
+    // {id}-v{version}-...; see fileName
+    private static final Pattern FILE_NAME = Pattern.compile("(\\d+)-v(\\d+)-.*\\.pdf");
+    private static final int SWEEP_CHUNK = 1000;
+
+    private final ProductService productService;
+    private final RecipeScalingService recipeScalingService;
+    private final ProductRepository productRepository;
+    private final Path cacheDir;
+    private final ThreadPoolExecutor renderExecutor;
+
+    // Sheets on disk by file name, for the size limits and LRU eviction
+    private final Map<String, CachedFile> cachedFiles = new ConcurrentHashMap<>();
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final int maxFiles;
+    private final long maxBytes;
+
+    // Latest committed version per recently changed product (Long.MAX_VALUE once deleted).
+    // A render that started before the change and finishes after its files were removed
+    // sees this and does not leave an outdated sheet behind.
+    private final Cache<Long, Long> changedVersions = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .maximumSize(100_000)
+            .build();
+
+    public RecipePdfService(ProductService productService, RecipeScalingService recipeScalingService,
+            ProductRepository productRepository,
+            @Value("${app.pdf.cache-dir:${java.io.tmpdir}/synprod-pdf}") String cacheDir,
+            @Value("${app.pdf.workers:2}") int workers,
+            @Value("${app.pdf.queue-size:64}") int queueSize,
+            @Value("${app.pdf.cache-max-files:2000}") int maxFiles,
+            @Value("${app.pdf.cache-max-mb:512}") long maxMegabytes) throws IOException {
+        this.productService = productService;
+        this.recipeScalingService = recipeScalingService;
+        this.productRepository = productRepository;
+        this.cacheDir = Files.createDirectories(Paths.get(cacheDir));
+        this.maxFiles = maxFiles;
+        this.maxBytes = maxMegabytes * 1024 * 1024;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.renderExecutor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "pdf-render-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Opens the sheet for one scaled order, rendering it first if it is not on
+     * disk yet. The channel stays readable even if the file is invalidated
+     * while it is being sent.
+     */
+    public FileChannel openPdf(Long productId, ScaleRequest request) throws IOException {
+        ProductDto product = productService.getProductById(productId);
+        return open(product, recipeScalingService.scale(product, request));
+    }
+
+    /**
+     * Scales every item up front, so unknown products and bad quantities fail
+     * before any response is written.
+     */
+    public List<PdfJob> prepareBundle(List<ScaleRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new ValidationException("At least one item is required");
+        }
+        if (requests.size() > RecipeScalingService.MAX_BATCH_SCALE) {
+            throw new ValidationException("At most " + RecipeScalingService.MAX_BATCH_SCALE + " items can be bundled at once");
+        }
+        LinkedHashSet<Long> ids = new LinkedHashSet<>();
+        for (ScaleRequest request : requests) {
+            if (request.getProductId() == null) {
+                throw new ValidationException("Product id is required for every item");
+            }
+            ids.add(request.getProductId());
+        }
+        Map<Long, ProductDto> products = new HashMap<>();
+        productService.getProductsByIds(new ArrayList<>(ids)).forEach(product -> products.put(product.getId(), product));
+
+        List<PdfJob> jobs = new ArrayList<>(requests.size());
+        for (ScaleRequest request : requests) {
+            ProductDto product = products.get(request.getProductId());
+            if (product == null) {
+                throw new ProductNotFoundException(request.getProductId());
+            }
+            jobs.add(new PdfJob(product, recipeScalingService.scale(product, request)));
+        }
+        return jobs;
+    }
+
+    /**
+     * Renders the sheets in parallel and writes them to {@code out} as a ZIP,
+     * one entry per item in request order. The stream is finished but not
+     * closed.
+     */
+    public void writeBundle(List<PdfJob> jobs, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        List<Future<FileChannel>> files = new ArrayList<>(jobs.size());
+        for (PdfJob job : jobs) {
+            files.add(renderExecutor.submit(() -> open(job.product(), job.scaled())));
+        }
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // PDF streams are already compressed; spend as little CPU as possible on them
+        zip.setLevel(Deflater.BEST_SPEED);
+        WritableByteChannel target = Channels.newChannel(zip);
+        int written = 0;
+        try {
+            for (; written < jobs.size(); written++) {
+                try (FileChannel source = await(files.get(written))) {
+                    zip.putNextEntry(new ZipEntry(entryName(written, jobs.get(written).product())));
+                    transfer(source, target);
+                }
+                zip.closeEntry();
+            }
+            zip.finish();
+            zip.flush();
+        } finally {
+            // After a failure, close the sheets that were opened but not written
+            for (int i = written + 1; i < files.size(); i++) {
+                closeQuietly(files.get(i));
+            }
+        }
+        log.debug("PDF bundle of {} sheets written in {} ms", jobs.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Copies the whole channel to {@code out} with FileChannel.transferTo.
+     */
+    public static void copy(FileChannel source, OutputStream out) throws IOException {
+        transfer(source, Channels.newChannel(out));
+        out.flush();
+    }
+
+    private static void transfer(FileChannel source, WritableByteChannel target) throws IOException {
+        long size = source.size();
+        long position = 0;
+        while (position < size) {
+            position += source.transferTo(position, size - position, target);
+        }
+    }
+
+    /**
+     * Opens the cached sheet, rendering it first when it is not on disk. The
+     * channel is opened before the file can be evicted or invalidated, so the
+     * caller can always read it to the end.
+     */
+    private FileChannel open(ProductDto product, ScaledRecipeDto scaled) throws IOException {
+        String name = fileName(scaled);
+        CachedFile cached = cachedFiles.get(name);
+        if (cached != null) {
+            try {
+                FileChannel channel = FileChannel.open(cacheDir.resolve(name), StandardOpenOption.READ);
+                cached.touch();
+                return channel;
+            } catch (NoSuchFileException e) {
+                // Evicted or invalidated since the lookup; render it again
+                forget(name);
+            }
+        }
+        return render(product, scaled, name);
+    }
+
+    // Renders into a temporary file and moves it into place, so readers never see a partial sheet
+    private FileChannel render(ProductDto product, ScaledRecipeDto scaled, String name) throws IOException {
+        Path file = cacheDir.resolve(name);
+        Path temp = Files.createTempFile(cacheDir, "render-", ".tmp");
+        FileChannel channel = null;
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                RecipePdfRenderer.render(product, scaled, out);
+            }
+            // The open channel follows the file through the rename
+            channel = FileChannel.open(temp, StandardOpenOption.READ);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            register(name, channel.size());
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            throw e;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        // The product changed while rendering and its files are already gone; do not keep this one
+        if (isOutdated(scaled)) {
+            forget(name);
+        }
+        return channel;
+    }
+
+    private boolean isOutdated(ScaledRecipeDto scaled) {
+        Long changed = changedVersions.getIfPresent(scaled.getProductId());
+        return changed != null && (scaled.getVersion() == null || scaled.getVersion() < changed);
+    }
+
+    private void register(String name, long size) {
+        CachedFile previous = cachedFiles.put(name, new CachedFile(size));
+        cachedBytes.addAndGet(previous == null ? size : size - previous.size);
+        if (cachedFiles.size() > maxFiles || cachedBytes.get() > maxBytes) {
+            evict();
+        }
+    }
+
+    private void forget(String name) {
+        CachedFile removed = cachedFiles.remove(name);
+        if (removed != null) {
+            cachedBytes.addAndGet(-removed.size);
+        }
+        try {
+            Files.deleteIfExists(cacheDir.resolve(name));
+        } catch (IOException e) {
+            log.warn("Could not remove cached PDF {}: {}", name, e.getMessage());
+        }
+    }
+
+    // Deletes least recently used sheets down to 90% of the limits, so eviction does not run on every render
+    private synchronized void evict() {
+        long fileTarget = maxFiles * 9L / 10;
+        long byteTarget = maxBytes / 10 * 9;
+        if (cachedFiles.size() <= maxFiles && cachedBytes.get() <= maxBytes) {
+            return;
+        }
+        List<Map.Entry<String, CachedFile>> entries = new ArrayList<>(cachedFiles.entrySet());
+        entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        int evicted = 0;
+        for (Map.Entry<String, CachedFile> entry : entries) {
+            if (cachedFiles.size() <= fileTarget && cachedBytes.get() <= byteTarget) {
+                break;
+            }
+            forget(entry.getKey());
+            evicted++;
+        }
+        log.debug("Evicted {} cached PDFs; {} files, {} bytes left", evicted, cachedFiles.size(), cachedBytes.get());
+    }
+
+    /**
+     * Startup sweep: deletes renders interrupted by a shutdown and sheets whose
+     * product was changed or deleted while the application was down, then
+     * indexes what is left and applies the limits.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void sweepCache() {
+        record Sheet(Path file, long version) {
+        }
+        Map<Long, List<Sheet>> byProduct = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                Matcher matcher = FILE_NAME.matcher(name);
+                if (matcher.matches()) {
+                    byProduct.computeIfAbsent(Long.valueOf(matcher.group(1)), id -> new ArrayList<>())
+                            .add(new Sheet(file, Long.parseLong(matcher.group(2))));
+                } else if (name.startsWith("render-") && name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException | UncheckedIOException | NumberFormatException e) {
+            log.warn("Could not sweep the PDF cache: {}", e.getMessage());
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(byProduct.keySet());
+        int kept = 0;
+        int removed = 0;
+        for (int from = 0; from < ids.size(); from += SWEEP_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + SWEEP_CHUNK, ids.size()));
+            Map<Long, Long> versions = new HashMap<>();
+            for (ProductVersionRow row : productRepository.findLiveVersionsByIds(chunk)) {
+                versions.put(row.getProductId(), row.getVersion());
+            }
+            for (Long id : chunk) {
+                Long current = versions.get(id);
+                for (Sheet sheet : byProduct.get(id)) {
+                    try {
+                        if (current != null && current == sheet.version()) {
+                            CachedFile cached = new CachedFile(Files.size(sheet.file()));
+                            cached.lastAccess = Files.getLastModifiedTime(sheet.file()).toMillis();
+                            if (cachedFiles.putIfAbsent(sheet.file().getFileName().toString(), cached) == null) {
+                                cachedBytes.addAndGet(cached.size);
+                            }
+                            kept++;
+                        } else {
+                            Files.deleteIfExists(sheet.file());
+                            removed++;
+                        }
+                    } catch (IOException e) {
+                        log.warn("Could not sweep cached PDF {}: {}", sheet.file().getFileName(), e.getMessage());
+                    }
+                }
+            }
+        }
+        evict();
+        log.info("PDF cache: kept {} sheets ({} bytes), removed {} outdated", kept, cachedBytes.get(), removed);
+    }
+
+    private static void closeQuietly(Future<FileChannel> file) {
+        if (!file.cancel(false) && file.isDone()) {
+            try {
+                file.get().close();
+            } catch (IOException | ExecutionException | RuntimeException e) {
+                // Rendering failed or the channel is gone; nothing to release
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static FileChannel await(Future<FileChannel> file) throws IOException {
+        try {
+            return file.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering PDF bundle", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Could not render PDF", e.getCause());
+        }
+    }
+
+    private static String fileName(ScaledRecipeDto scaled) {
+        String quantity = BigDecimal.valueOf(scaled.getQuantity()).stripTrailingZeros().toPlainString();
+        return scaled.getProductId() + "-v" + scaled.getVersion() + "-" + sanitize(scaled.getCapacity()) + "-"
+                + quantity + ".pdf";
+    }
+
+    private static String entryName(int index, ProductDto product) {
+        return String.format(Locale.ROOT, "%03d-%s-%d.pdf", index + 1, sanitize(product.getName()), product.getId());
+    }
+
+    private static String sanitize(String value) {
+        String cleaned = value == null ? "" : value.trim().replaceAll("[^A-Za-z0-9_-]+", "_");
+        return cleaned.isEmpty() ? "recipe" : cleaned;
+    }
+
+    // Sheets of older versions can no longer be requested; reclaim their space.
+    // The version is recorded before the files are listed, so a render finishing
+    // afterwards notices it (see render).
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        long version = event.getChangeType() == ProductChangedEvent.ChangeType.DELETED || event.getVersion() == null
+                ? Long.MAX_VALUE : event.getVersion();
+        changedVersions.asMap().merge(event.getProductId(), version, Math::max);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir, event.getProductId() + "-v*.pdf")) {
+            for (Path file : files) {
+                forget(file.getFileName().toString());
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not remove cached PDFs of product {}: {}", event.getProductId(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdownNow();
+    }
+
+    public record PdfJob(ProductDto product, ScaledRecipeDto scaled) {
+    }
+
+    private static final class CachedFile {
+        private final long size;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private CachedFile(long size) {
+            this.size = size;
+        }
+
+        private void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+    }
+}
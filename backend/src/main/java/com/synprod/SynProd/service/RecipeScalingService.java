@@ -0,0 +1,242 @@
+package com.synprod.SynProd.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.synprod.SynProd.dto.PackagingCapacityDto;
+import com.synprod.SynProd.dto.ProductCompositionDto;
+import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.dto.ProductIngredientDto;
+import com.synprod.SynProd.dto.ScaleRequest;
+import com.synprod.SynProd.dto.ScaledRecipeDto;
+import com.synprod.SynProd.entity.PackagingCapacity;
+import com.synprod.SynProd.entity.ProductType;
+import com.synprod.SynProd.event.ProductChangedEvent;
+import com.synprod.SynProd.exception.ProductNotFoundException;
+import com.synprod.SynProd.exception.ValidationException;
+import com.synprod.SynProd.repository.PackagingCapacityRepository;
+import com.synprod.SynProd.util.CompiledRecipe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Scales recipes to production orders: batch weight = base weight of the
+ * product type x order quantity x packaging multiplier (from the
+ * packaging_capacities table).
+ *
+ * Recipes are compiled once per product version into a {@link CompiledRecipe}
+ * and scaled into per-thread buffers, so a scale request only allocates its
+ * response. Recipe data comes from ProductService.getProductById, whose cache
+ * is versioned; a compiled recipe is reused while its version still matches.
+ */
+@Service
+public class RecipeScalingService {
+
+    static final int MAX_BATCH_SCALE = 500;
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private final ProductService productService;
+    private final PackagingCapacityRepository packagingCapacityRepository;
+    private final Cache<Long, CompiledRecipe> compiledRecipes;
+
+    private volatile Map<ProductType, List<PackagingCapacity>> capacities;
+
+    public RecipeScalingService(ProductService productService,
+            PackagingCapacityRepository packagingCapacityRepository,
+            @Value("${app.cache.product-detail.max-size:2000}") long maxSize) {
+        this.productService = productService;
+        this.packagingCapacityRepository = packagingCapacityRepository;
+        this.compiledRecipes = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    // The packaging table is reference data; it is read once and on demand afterwards
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCapacities() {
+        Map<ProductType, List<PackagingCapacity>> loaded = new EnumMap<>(ProductType.class);
+        for (PackagingCapacity capacity : packagingCapacityRepository.findAllByOrderByProductTypeAscSortOrderAscIdAsc()) {
+            loaded.computeIfAbsent(capacity.getProductType(), type -> new ArrayList<>()).add(capacity);
+        }
+        capacities = loaded;
+    }
+
+    public Map<ProductType, List<PackagingCapacityDto>> getCapacities() {
+        Map<ProductType, List<PackagingCapacityDto>> result = new LinkedHashMap<>();
+        capacities().forEach((type, list) -> result.put(type,
+                list.stream().map(PackagingCapacityDto::fromEntity).collect(Collectors.toList())));
+        return result;
+    }
+
+    public ScaledRecipeDto scale(Long productId, ScaleRequest request) {
+        ProductDto product = productService.getProductById(productId);
+        return scale(product, request);
+    }
+
+    /**
+     * Scales several orders at once; recipes are loaded with a single batch get.
+     * Results are returned in request order.
+     */
+    public List<ScaledRecipeDto> scaleBatch(List<ScaleRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (requests.size() > MAX_BATCH_SCALE) {
+            throw new ValidationException("At most " + MAX_BATCH_SCALE + " items can be scaled at once");
+        }
+
+        LinkedHashSet<Long> ids = new LinkedHashSet<>();
+        for (ScaleRequest request : requests) {
+            if (request.getProductId() == null) {
+                throw new ValidationException("Product id is required for every item");
+            }
+            ids.add(request.getProductId());
+        }
+        Map<Long, ProductDto> products = new HashMap<>();
+        productService.getProductsByIds(new ArrayList<>(ids)).forEach(product -> products.put(product.getId(), product));
+
+        List<ScaledRecipeDto> results = new ArrayList<>(requests.size());
+        for (ScaleRequest request : requests) {
+            ProductDto product = products.get(request.getProductId());
+            if (product == null) {
+                throw new ProductNotFoundException(request.getProductId());
+            }
+            results.add(scale(product, request));
+        }
+        return results;
+    }
+
+    ScaledRecipeDto scale(ProductDto product, ScaleRequest request) {
+        if (request.getQuantity() == null || !(request.getQuantity() > 0) || request.getQuantity().isInfinite()) {
+            throw new ValidationException("Quantity must be a positive number");
+        }
+        PackagingCapacity capacity = resolveCapacity(product.getProductType(), request.getCapacity());
+        CompiledRecipe recipe = compiled(product);
+
+        Buffers buffers = BUFFERS.get();
+        long[] componentTenths = buffers.components(recipe.componentCount());
+        double[] ingredientAmounts = buffers.ingredients(recipe.ingredientCount());
+        long totalTenths = recipe.totalTenths(request.getQuantity(), capacity.getMultiplier());
+        recipe.scaleComponents(totalTenths, componentTenths);
+        recipe.scaleIngredients(totalTenths, ingredientAmounts);
+
+        List<ScaledRecipeDto.ScaledComponent> components = new ArrayList<>(recipe.componentCount());
+        for (int i = 0; i < recipe.componentCount(); i++) {
+            components.add(new ScaledRecipeDto.ScaledComponent(
+                    recipe.componentName(i), recipe.percentage(i), componentTenths[i] / 10.0));
+        }
+        List<ScaledRecipeDto.ScaledIngredient> ingredients = new ArrayList<>(recipe.ingredientCount());
+        for (int i = 0; i < recipe.ingredientCount(); i++) {
+            ingredients.add(new ScaledRecipeDto.ScaledIngredient(recipe.ingredientName(i),
+                    recipe.ingredientQuantity(i), ingredientAmounts[i], recipe.ingredientUnit(i)));
+        }
+
+        ScaledRecipeDto dto = new ScaledRecipeDto();
+        dto.setProductId(product.getId());
+        dto.setProductName(product.getName());
+        dto.setProductType(product.getProductType());
+        dto.setVersion(product.getVersion());
+        dto.setCapacity(capacity.getCode());
+        dto.setQuantity(request.getQuantity());
+        dto.setMultiplier(capacity.getMultiplier());
+        dto.setTotalWeight(totalTenths / 10.0);
+        dto.setWeightUnit(product.getProductType().getBaseWeightUnit());
+        dto.setComponents(components);
+        dto.setIngredients(ingredients);
+        return dto;
+    }
+
+    PackagingCapacity resolveCapacity(ProductType productType, String code) {
+        List<PackagingCapacity> options = capacities().getOrDefault(productType, List.of());
+        if (options.isEmpty()) {
+            throw new ValidationException("No packaging configured for product type " + productType);
+        }
+        if (code == null || code.isBlank()) {
+            return options.get(0);
+        }
+        for (PackagingCapacity option : options) {
+            if (option.getCode().equalsIgnoreCase(code.trim())) {
+                return option;
+            }
+        }
+        throw new ValidationException("Unknown packaging '" + code + "' for product type " + productType);
+    }
+
+    private Map<ProductType, List<PackagingCapacity>> capacities() {
+        if (capacities == null) {
+            loadCapacities();
+        }
+        return capacities;
+    }
+
+    // Compiled recipes are keyed by id and replaced when the product version moves on
+    CompiledRecipe compiled(ProductDto product) {
+        long version = product.getVersion() != null ? product.getVersion() : -1;
+        CompiledRecipe recipe = compiledRecipes.getIfPresent(product.getId());
+        if (recipe == null || recipe.getVersion() != version) {
+            recipe = compile(product, version);
+            compiledRecipes.put(product.getId(), recipe);
+        }
+        return recipe;
+    }
+
+    private static CompiledRecipe compile(ProductDto product, long version) {
+        List<ProductCompositionDto> compositions = product.getCompositions() != null
+                ? product.getCompositions() : List.of();
+        List<ProductIngredientDto> ingredients = product.getAdditionalIngredients() != null
+                ? product.getAdditionalIngredients() : List.of();
+
+        String[] componentNames = new String[compositions.size()];
+        double[] percentages = new double[compositions.size()];
+        for (int i = 0; i < compositions.size(); i++) {
+            componentNames[i] = compositions.get(i).getComponentName();
+            percentages[i] = compositions.get(i).getPercentage() != null ? compositions.get(i).getPercentage() : 0;
+        }
+        String[] ingredientNames = new String[ingredients.size()];
+        double[] quantities = new double[ingredients.size()];
+        String[] units = new String[ingredients.size()];
+        for (int i = 0; i < ingredients.size(); i++) {
+            ingredientNames[i] = ingredients.get(i).getIngredientName();
+            quantities[i] = ingredients.get(i).getQuantity() != null ? ingredients.get(i).getQuantity() : 0;
+            units[i] = ingredients.get(i).getUnit();
+        }
+        return new CompiledRecipe(product.getId(), version, product.getProductType().getBaseWeight(),
+                componentNames, percentages, ingredientNames, quantities, units);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        compiledRecipes.invalidate(event.getProductId());
+    }
+
+    // Scratch arrays reused by every scale call on the same thread
+    private static final class Buffers {
+        private long[] components = new long[32];
+        private double[] ingredients = new double[16];
+
+        private long[] components(int size) {
+            if (components.length < size) {
+                components = new long[Math.max(size, components.length * 2)];
+            }
+            return components;
+        }
+
+        private double[] ingredients(int size) {
+            if (ingredients.length < size) {
+                ingredients = new double[Math.max(size, ingredients.length * 2)];
+            }
+            return ingredients;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.synprod.SynProd.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.synprod.SynProd.dto.CursorPage;
+import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.dto.ProductSummaryDto;
+import com.synprod.SynProd.event.ProductChangedEvent;
+import com.synprod.SynProd.event.ProductsImportedEvent;
+import com.synprod.SynProd.util.EntityTags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized JSON bodies of hot responses, kept as UTF-8 bytes together with a
+ * gzip variant, so a cache hit is written to the response without running
+ * Jackson or a compressor.
+ *
+ * Recipe bodies are keyed by product id and only served while their version
+ * matches the product returned by the detail cache. Listing pages are keyed by
+ * the catalog generation, which every committed product write or import moves
+ * on, so an older page is simply never looked up again.
+ */
+@Component
+public class ResponseBodyCache {
+
+    // Below this size gzip saves less than its header costs (same threshold as nginx)
+    static final int GZIP_MIN_LENGTH = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, SerializedBody> products;
+    private final Cache<String, SerializedPage> pages;
+    private final AtomicLong catalogGeneration = new AtomicLong();
+
+    public ResponseBodyCache(ObjectMapper objectMapper,
+            @Value("${app.cache.response-body.max-bytes:67108864}") long maxBytes,
+            @Value("${app.cache.product-detail.ttl-minutes:60}") long ttlMinutes,
+            @Value("${app.pagination.count-cache-ttl-seconds:30}") long pageTtlSeconds) {
+        this.objectMapper = objectMapper;
+        this.products = Caffeine.newBuilder()
+                .maximumWeight(maxBytes / 2)
+                .weigher((Long id, SerializedBody body) -> body.weight())
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        // Summaries also show the creator's name, which does not move the generation; keep pages short-lived
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxBytes / 2)
+                .weigher((String key, SerializedPage page) -> page.body().weight())
+                .expireAfterWrite(Duration.ofSeconds(pageTtlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Serialized form of a recipe, reused while the product version is unchanged.
+     */
+    public SerializedBody product(ProductDto product) {
+        SerializedBody cached = products.getIfPresent(product.getId());
+        if (cached != null && cached.version() == version(product)) {
+            return cached;
+        }
+        SerializedBody body = serialize(product, version(product), EntityTags.forProduct(product));
+        products.put(product.getId(), body);
+        return body;
+    }
+
+    /**
+     * Serialized listing page for {@code key} in the current catalog generation;
+     * the loader runs on a miss. The generation is read before loading, so a
+     * page that raced with a write is filed under the generation it started in.
+     */
+    public SerializedPage page(String key, Supplier<CursorPage<ProductSummaryDto>> loader) {
+        long generation = catalogGeneration.get();
+        String cacheKey = generation + ":" + key;
+        SerializedPage cached = pages.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        CursorPage<ProductSummaryDto> page = loader.get();
+        String etag = EntityTags.forPage(page.getItems(), page.getNextCursor(), page.getTotalCount());
+        SerializedPage serialized = new SerializedPage(serialize(page.getItems(), generation, etag),
+                page.getNextCursor(), page.getTotalCount());
+        pages.put(cacheKey, serialized);
+        return serialized;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        catalogGeneration.incrementAndGet();
+        products.invalidate(event.getProductId());
+    }
+
+    @EventListener
+    public void onProductsImported(ProductsImportedEvent event) {
+        catalogGeneration.incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        catalogGeneration.incrementAndGet();
+        products.invalidateAll();
+        pages.invalidateAll();
+    }
+
+    // Hit/miss counters for the admin cache endpoint
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("generation", catalogGeneration.get());
+        result.put("products", stats(products.stats(), products.estimatedSize()));
+        result.put("pages", stats(pages.stats(), pages.estimatedSize()));
+        return result;
+    }
+
+    private static Map<String, Object> stats(CacheStats stats, long size) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", size);
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    private SerializedBody serialize(Object value, long version, String etag) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(value);
+            return new SerializedBody(version, etag, identity, identity.length >= GZIP_MIN_LENGTH ? gzip(identity) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response body", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        // Compressed once and served many times, so the best ratio is worth it
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static long version(ProductDto product) {
+        return product.getVersion() != null ? product.getVersion() : -1;
+    }
+
+    /**
+     * UTF-8 JSON of one response and, for bodies large enough, its gzip form
+     * (null otherwise).
+     */
+    public record SerializedBody(long version, String etag, byte[] identity, byte[] gzip) {
+
+        public boolean hasGzip() {
+            return gzip != null;
+        }
+
+        // Variants must carry their own strong tag
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+
+        private int weight() {
+            return identity.length + (gzip != null ? gzip.length : 0) + etag.length();
+        }
+    }
+
+    public record SerializedPage(SerializedBody body, String nextCursor, long totalCount) {
+    }
+}
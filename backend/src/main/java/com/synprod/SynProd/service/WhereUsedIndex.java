@@ -0,0 +1,285 @@
+package com.synprod.SynProd.service;
+
+import com.synprod.SynProd.dto.CursorPage;
+import com.synprod.SynProd.dto.WhereUsedDto;
+import com.synprod.SynProd.event.ProductChangedEvent;
+import com.synprod.SynProd.event.ProductsImportedEvent;
+import com.synprod.SynProd.exception.ValidationException;
+import com.synprod.SynProd.repository.MaterialUsageRow;
+import com.synprod.SynProd.repository.ProductRepository;
+import com.synprod.SynProd.util.PageCursor;
+import com.synprod.SynProd.util.TrigramIndex;
+import com.synprod.SynProd.util.UnitConversion;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Reverse index from normalized component / ingredient name to every live
+ * recipe using it, with the percentage or quantity. Each name maps to an
+ * immutable array sorted by share (largest first), so a lookup is one hash
+ * probe plus a binary search for the page cursor, independent of catalog size.
+ * Ingredient quantities are compared in their base unit (see
+ * {@link UnitConversion}), so 1 kg ranks above 500 g.
+ *
+ * Built once the application is ready; a committed product write re-sorts only
+ * the names that product uses (before or after the write). Those updates run on
+ * a background thread in commit order, so committing threads do not wait.
+ */
+@Service
+public class WhereUsedIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(WhereUsedIndex.class);
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
+    public enum Material {
+        COMPONENT, INGREDIENT
+    }
+
+    // Largest share first; the product id makes the order total for the page cursor
+    private static final Comparator<Usage> BY_SHARE = Comparator.comparingDouble(Usage::share).reversed()
+            .thenComparingLong(Usage::productId);
+
+    private static final Usage[] NONE = new Usage[0];
+
+    private final ProductRepository productRepository;
+
+    // Guarded by "this"; readers only touch the per-name arrays
+    private final Map<Material, Map<Long, List<Usage>>> usagesByProduct = new EnumMap<>(Material.class);
+    private final Map<Material, Map<String, Usage[]>> usagesByName = new EnumMap<>(Material.class);
+    private volatile boolean ready;
+
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "where-used-update");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public WhereUsedIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+        for (Material material : Material.values()) {
+            usagesByProduct.put(material, new HashMap<>());
+            usagesByName.put(material, new ConcurrentHashMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        load(Material.COMPONENT, productRepository.findLiveComponentUsages());
+        load(Material.INGREDIENT, productRepository.findLiveIngredientUsages());
+        ready = true;
+        log.info("Where-used index built in {} ms", System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!ready) {
+            return;
+        }
+        Long id = event.getProductId();
+        updater.execute(() -> {
+            try {
+                refresh(id);
+            } catch (Exception e) {
+                log.warn("Could not update where-used entries of product {}: {}", id, e.getMessage());
+            }
+        });
+    }
+
+    // Queries before locking; updates run in order on one thread, so the last one
+    // applied read the latest committed state
+    private void refresh(Long id) {
+        List<MaterialUsageRow> components = productRepository.findLiveComponentUsages(id);
+        List<MaterialUsageRow> ingredients = productRepository.findLiveIngredientUsages(id);
+        synchronized (this) {
+            update(Material.COMPONENT, id, components);
+            update(Material.INGREDIENT, id, ingredients);
+        }
+    }
+
+    // Bulk imports do not publish per-product events; reload everything
+    @EventListener
+    public void onProductsImported(ProductsImportedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * One page of the recipes using a material, by share descending (or
+     * ascending), continuing after the cursor of the previous page.
+     */
+    public CursorPage<WhereUsedDto> whereUsed(Material material, String name, String cursor, boolean ascending,
+            Integer limit) {
+        String key = TrigramIndex.normalize(name);
+        if (key.isEmpty()) {
+            throw new ValidationException("Name is required");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String sortField = ascending ? PageCursor.SORT_BY_SHARE_ASC : PageCursor.SORT_BY_SHARE;
+        PageCursor after = PageCursor.decode(cursor, sortField);
+        if (!ready) {
+            rebuild();
+        }
+
+        Usage[] usages = usagesByName.get(material).getOrDefault(key, NONE);
+        Usage cursorKey = after == null ? null : new Usage(after.getId(), null, null, 0, null, parseAmount(after));
+
+        List<WhereUsedDto> items = new ArrayList<>(Math.min(pageSize, usages.length));
+        Usage last = null;
+        boolean more;
+        if (!ascending) {
+            int from = cursorKey == null ? 0 : firstAfter(usages, cursorKey);
+            int to = Math.min(from + pageSize, usages.length);
+            for (int i = from; i < to; i++) {
+                items.add(usages[i].toDto());
+                last = usages[i];
+            }
+            more = to < usages.length;
+        } else {
+            // Walk the same array backwards
+            int to = cursorKey == null ? usages.length : firstNotBefore(usages, cursorKey);
+            int from = Math.max(0, to - pageSize);
+            for (int i = to - 1; i >= from; i--) {
+                items.add(usages[i].toDto());
+                last = usages[i];
+            }
+            more = from > 0;
+        }
+
+        String nextCursor = more && last != null
+                ? PageCursor.of(sortField, Double.toString(last.share()), last.productId()).encode()
+                : null;
+        return new CursorPage<>(items, nextCursor, usages.length);
+    }
+
+    private void load(Material material, List<MaterialUsageRow> rows) {
+        Map<Long, List<Usage>> byProduct = rows.stream().map(Usage::fromRow)
+                .collect(Collectors.groupingBy(Usage::productId, HashMap::new, Collectors.toList()));
+        Map<String, List<Usage>> byName = byProduct.values().stream().flatMap(List::stream)
+                .collect(Collectors.groupingBy(usage -> TrigramIndex.normalize(usage.name())));
+
+        Map<String, Usage[]> sorted = new HashMap<>(byName.size() * 2);
+        byName.forEach((key, usages) -> sorted.put(key, sort(usages)));
+        usagesByProduct.put(material, byProduct);
+        Map<String, Usage[]> index = usagesByName.get(material);
+        index.putAll(sorted);
+        index.keySet().retainAll(sorted.keySet());
+    }
+
+    // Replace one product's usages and re-sort only the names it touches
+    private void update(Material material, Long productId, List<MaterialUsageRow> rows) {
+        List<Usage> current = rows.stream().map(Usage::fromRow).collect(Collectors.toList());
+        Map<Long, List<Usage>> byProduct = usagesByProduct.get(material);
+        List<Usage> previous = current.isEmpty() ? byProduct.remove(productId) : byProduct.put(productId, current);
+
+        Set<String> keys = new HashSet<>();
+        if (previous != null) {
+            previous.forEach(usage -> keys.add(TrigramIndex.normalize(usage.name())));
+        }
+        current.forEach(usage -> keys.add(TrigramIndex.normalize(usage.name())));
+
+        Map<String, Usage[]> index = usagesByName.get(material);
+        for (String key : keys) {
+            List<Usage> usages = new ArrayList<>();
+            for (Usage usage : index.getOrDefault(key, NONE)) {
+                if (usage.productId() != productId) {
+                    usages.add(usage);
+                }
+            }
+            for (Usage usage : current) {
+                if (TrigramIndex.normalize(usage.name()).equals(key)) {
+                    usages.add(usage);
+                }
+            }
+            if (usages.isEmpty()) {
+                index.remove(key);
+            } else {
+                index.put(key, sort(usages));
+            }
+        }
+    }
+
+    private static Usage[] sort(List<Usage> usages) {
+        Usage[] array = usages.toArray(NONE);
+        Arrays.sort(array, BY_SHARE);
+        return array;
+    }
+
+    // Index of the first entry ordered after the cursor
+    private static int firstAfter(Usage[] usages, Usage cursorKey) {
+        int low = 0;
+        int high = usages.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (BY_SHARE.compare(usages[mid], cursorKey) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Index of the first entry not ordered before the cursor
+    private static int firstNotBefore(Usage[] usages, Usage cursorKey) {
+        int low = 0;
+        int high = usages.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (BY_SHARE.compare(usages[mid], cursorKey) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static double parseAmount(PageCursor cursor) {
+        try {
+            return Double.parseDouble(cursor.getSortKey());
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid page cursor");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updater.shutdownNow();
+    }
+
+    // share is the sort key: the amount in its base unit; percentages have no unit and keep their value
+    private record Usage(long productId, String productName, String name, double amount, String unit, double share) {
+
+        private static Usage fromRow(MaterialUsageRow row) {
+            double amount = row.getAmount() != null ? row.getAmount() : 0;
+            return new Usage(row.getProductId(), row.getProductName(), row.getName(), amount, row.getUnit(),
+                    UnitConversion.of(row.getUnit()).toBase(amount));
+        }
+
+        private WhereUsedDto toDto() {
+            return new WhereUsedDto(productId, productName, name, amount, unit);
+        }
+    }
+}
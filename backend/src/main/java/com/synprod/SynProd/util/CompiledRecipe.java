@@ -0,0 +1,168 @@
+package com.synprod.SynProd.util;
+
+/**
+ * A recipe reduced to primitive arrays for scaling: component fractions of the
+ * batch weight and ingredient amounts per gram of the product's base weight.
+ * Instances are immutable; the scale methods write into caller-supplied
+ * buffers and allocate nothing, so one compiled recipe can serve any number of
+ * concurrent scale requests.
+ *
+ * Weights are computed in tenths of a gram. When the component percentages add
+ * up to 100%, the rounded component weights are distributed with the
+ * largest-remainder method so they always sum exactly to the batch weight; ties
+ * go to the earlier component, which keeps the result deterministic.
+ */
+public final class CompiledRecipe {
+
+    // Same tolerance the recipe validation allows for the percentage total
+    private static final double COMPLETE_TOLERANCE = 0.0001;
+
+    private final long productId;
+    private final long version;
+    private final double baseWeight;
+    private final String[] componentNames;
+    private final double[] percentages;
+    private final double[] fractions;
+    private final boolean complete;
+    private final String[] ingredientNames;
+    private final double[] ingredientQuantities;
+    private final double[] ingredientPerGram;
+    private final String[] ingredientUnits;
+
+    public CompiledRecipe(long productId, long version, double baseWeight,
+            String[] componentNames, double[] percentages,
+            String[] ingredientNames, double[] ingredientQuantities, String[] ingredientUnits) {
+        if (baseWeight <= 0) {
+            throw new IllegalArgumentException("Base weight must be positive");
+        }
+        this.productId = productId;
+        this.version = version;
+        this.baseWeight = baseWeight;
+        this.componentNames = componentNames.clone();
+        this.percentages = percentages.clone();
+        this.ingredientNames = ingredientNames.clone();
+        this.ingredientQuantities = ingredientQuantities.clone();
+        this.ingredientUnits = ingredientUnits.clone();
+
+        double total = 0;
+        for (double percentage : percentages) {
+            total += percentage;
+        }
+        this.complete = total > 0 && Math.abs(total / 100.0 - 1.0) <= COMPLETE_TOLERANCE;
+        this.fractions = new double[percentages.length];
+        for (int i = 0; i < percentages.length; i++) {
+            // Normalized so the fractions of a complete recipe sum to exactly 1
+            fractions[i] = complete ? percentages[i] / total : percentages[i] / 100.0;
+        }
+        this.ingredientPerGram = new double[ingredientQuantities.length];
+        for (int i = 0; i < ingredientQuantities.length; i++) {
+            ingredientPerGram[i] = ingredientQuantities[i] / baseWeight;
+        }
+    }
+
+    /**
+     * Batch weight in tenths of a gram for {@code quantity} packages holding
+     * {@code multiplier} base weights each, rounded half up.
+     */
+    public long totalTenths(double quantity, double multiplier) {
+        return Math.round(baseWeight * quantity * multiplier * 10.0);
+    }
+
+    /**
+     * Writes the weight of every component, in tenths of a gram, into
+     * {@code out[0..componentCount())}.
+     */
+    public void scaleComponents(long totalTenths, long[] out) {
+        int n = fractions.length;
+        if (!complete) {
+            for (int i = 0; i < n; i++) {
+                out[i] = Math.round(totalTenths * fractions[i]);
+            }
+            return;
+        }
+
+        long assigned = 0;
+        for (int i = 0; i < n; i++) {
+            out[i] = (long) Math.floor(totalTenths * fractions[i]);
+            assigned += out[i];
+        }
+        // Hand the leftover tenths to the largest remainders. A component that
+        // already got its extra tenth has a negative remainder and is skipped.
+        for (long left = totalTenths - assigned; left > 0; left--) {
+            int best = -1;
+            double bestRemainder = 0;
+            for (int i = 0; i < n; i++) {
+                double remainder = totalTenths * fractions[i] - out[i];
+                if (remainder > bestRemainder) {
+                    best = i;
+                    bestRemainder = remainder;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            out[best]++;
+        }
+    }
+
+    /**
+     * Writes every ingredient amount for the batch, rounded half up to two
+     * decimals, into {@code out[0..ingredientCount())}.
+     */
+    public void scaleIngredients(long totalTenths, double[] out) {
+        double grams = totalTenths / 10.0;
+        for (int i = 0; i < ingredientPerGram.length; i++) {
+            out[i] = Math.round(ingredientPerGram[i] * grams * 100.0) / 100.0;
+        }
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public double getBaseWeight() {
+        return baseWeight;
+    }
+
+    public int componentCount() {
+        return componentNames.length;
+    }
+
+    public String componentName(int index) {
+        return componentNames[index];
+    }
+
+    public double percentage(int index) {
+        return percentages[index];
+    }
+
+    // Share of the batch weight, normalized for complete recipes
+    public double fraction(int index) {
+        return fractions[index];
+    }
+
+    public int ingredientCount() {
+        return ingredientNames.length;
+    }
+
+    public String ingredientName(int index) {
+        return ingredientNames[index];
+    }
+
+    public double ingredientQuantity(int index) {
+        return ingredientQuantities[index];
+    }
+
+    // Ingredient amount per gram of batch weight
+    public double ingredientPerGram(int index) {
+        return ingredientPerGram[index];
+    }
+
+    public String ingredientUnit(int index) {
+        return ingredientUnits[index];
+    }
+}
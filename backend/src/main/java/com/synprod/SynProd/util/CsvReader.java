@@ -0,0 +1,108 @@
+package com.synprod.SynProd.util;
+
+import com.synprod.SynProd.exception.ValidationException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, fields optionally quoted
+ * with double quotes ("" inside quotes is a literal quote), quoted fields may
+ * span lines, and both LF and CRLF end a record. Reads one record at a time
+ * and never buffers more than {@code maxRecordLength} characters of it.
+ */
+public final class CsvReader {
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private int peeked = -2;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Reads the next record, or returns null at the end of the input.
+     *
+     * @throws ValidationException if the record is longer than the limit
+     */
+    public List<String> readRecord() throws IOException {
+        int ch = read();
+        if (ch == -1) {
+            return null;
+        }
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (++length > maxRecordLength) {
+                throw new ValidationException("CSV record starting on line " + recordLine + " is longer than "
+                        + maxRecordLength + " characters");
+            }
+            if (quoted) {
+                if (ch == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (ch == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) ch);
+                }
+            } else if (ch == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\r' && peek() == '\n') {
+                // CRLF: the LF ends the record on the next pass
+            } else if (ch == '\n' || ch == -1) {
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) ch);
+            }
+            ch = read();
+        }
+    }
+
+    /**
+     * Line number (1-based) on which the last record returned started.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        int ch;
+        if (peeked != -2) {
+            ch = peeked;
+            peeked = -2;
+        } else {
+            ch = reader.read();
+        }
+        if (ch == '\n') {
+            line++;
+        }
+        return ch;
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+}
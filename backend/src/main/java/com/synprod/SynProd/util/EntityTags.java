@@ -0,0 +1,110 @@
+package com.synprod.SynProd.util;
+
+import com.synprod.SynProd.dto.ProductCompositionDto;
+import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.dto.ProductIngredientDto;
+import com.synprod.SynProd.dto.ProductSummaryDto;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Builds strong HTTP entity tags from the @Version columns of products and their
+ * recipe rows. A tag changes whenever any version, or the set of child rows,
+ * changes, so unchanged resources can be answered with 304 Not Modified.
+ */
+public final class EntityTags {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private EntityTags() {
+    }
+
+    /**
+     * Tag for a full recipe: "&lt;product version&gt;.&lt;digest of child ids and versions&gt;".
+     */
+    public static String forProduct(ProductDto product) {
+        long hash = mix(FNV_OFFSET, product.getId());
+        if (product.getCompositions() != null) {
+            for (ProductCompositionDto composition : product.getCompositions()) {
+                hash = mix(mix(hash, composition.getId()), composition.getVersion());
+            }
+        }
+        hash = mix(hash, -1L); // separates compositions from ingredients
+        if (product.getAdditionalIngredients() != null) {
+            for (ProductIngredientDto ingredient : product.getAdditionalIngredients()) {
+                hash = mix(mix(hash, ingredient.getId()), ingredient.getVersion());
+            }
+        }
+        return quote(product.getVersion() + "." + Long.toHexString(hash));
+    }
+
+    /**
+     * Tag for one page of a listing, covering every row's id and version plus the
+     * paging metadata sent in headers.
+     */
+    public static String forPage(List<ProductSummaryDto> items, String nextCursor, long totalCount) {
+        long hash = mix(FNV_OFFSET, totalCount);
+        for (ProductSummaryDto item : items) {
+            hash = mix(mix(hash, item.getId()), item.getVersion());
+            hash = mix(hash, (long) Objects.hashCode(item.getCreatedByName()));
+        }
+        hash = mix(hash, (long) Objects.hashCode(nextCursor));
+        return quote("p." + Long.toHexString(hash));
+    }
+
+    /**
+     * Tag for a pre-rendered JSON document, e.g. a recipe assembled by the
+     * database. The document carries every version, so a digest of it is exact.
+     */
+    public static String forJson(String json) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < json.length(); i++) {
+            hash ^= json.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return quote("j." + Long.toHexString(hash));
+    }
+
+    /**
+     * Extracts the product version from a tag produced by {@link #forProduct}
+     * (including its "-gz", "-cbor" and "-smile" variants), or from a bare version
+     * number. Returns null when the value cannot be parsed.
+     */
+    public static Long parseProductVersion(String tag) {
+        if (tag == null) {
+            return null;
+        }
+        String value = tag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        int dot = value.indexOf('.');
+        if (dot >= 0) {
+            value = value.substring(0, dot);
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // FNV-1a over the 8 bytes of the value; null contributes a fixed marker
+    private static long mix(long hash, Long value) {
+        long v = value != null ? value : 0x9e3779b97f4a7c15L;
+        for (int i = 0; i < 8; i++) {
+            hash ^= (v >>> (i * 8)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -0,0 +1,115 @@
+package com.synprod.SynProd.util;
+
+import com.synprod.SynProd.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset (seek) pagination.
+ * Encodes the sort field, the sort key of the last row on a page and its id so
+ * the next page can resume with "WHERE (key, id) > (:key, :id)" instead of an
+ * OFFSET scan. Clients must treat the encoded value as opaque.
+ */
+public final class PageCursor {
+
+    public static final String SORT_BY_NAME = "name";
+    public static final String SORT_BY_CREATED_AT = "createdAt";
+    public static final String SORT_BY_RANK = "rank";
+    public static final String SORT_BY_SHARE = "share";
+    public static final String SORT_BY_SHARE_ASC = "shareAsc";
+    // Name order of the in-memory search index (String.compareTo), which is not the
+    // database collation, so its cursors cannot be resumed by a SORT_BY_NAME query
+    public static final String SORT_BY_INDEXED_NAME = "indexedName";
+
+    private static final char SEPARATOR = '|';
+
+    private final String sortField;
+    private final String sortKey;
+    private final Long id;
+
+    private PageCursor(String sortField, String sortKey, Long id) {
+        this.sortField = sortField;
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    public static PageCursor of(String sortField, String sortKey, Long id) {
+        return new PageCursor(sortField, sortKey, id);
+    }
+
+    /**
+     * Encodes the cursor as a URL-safe token.
+     */
+    public String encode() {
+        String raw = sortField + SEPARATOR + id + SEPARATOR + sortKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()} and checks that it was issued
+     * for the expected sort order.
+     *
+     * @param token         The token from the client, may be null or blank for the first page
+     * @param expectedField The sort field of the endpoint being paged
+     * @return The decoded cursor, or null when no token was given
+     */
+    public static PageCursor decode(String token, String expectedField) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid page cursor");
+        }
+
+        int first = raw.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : raw.indexOf(SEPARATOR, first + 1);
+        if (first < 0 || second < 0) {
+            throw new ValidationException("Invalid page cursor");
+        }
+
+        String field = raw.substring(0, first);
+        if (!field.equals(expectedField)) {
+            throw new ValidationException("Page cursor does not match the requested sort order");
+        }
+
+        try {
+            Long id = Long.valueOf(raw.substring(first + 1, second));
+            return new PageCursor(field, raw.substring(second + 1), id);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid page cursor");
+        }
+    }
+
+    /**
+     * True when the token decodes and was issued for the given sort field. Lets a
+     * caller choose the code path a token belongs to before decoding it.
+     */
+    public static boolean isSortedBy(String token, String field) {
+        if (token == null || token.isBlank()) {
+            return false;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            return raw.startsWith(field + SEPARATOR);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public String getSortField() {
+        return sortField;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,131 @@
+package com.synprod.SynProd.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.synprod.SynProd.dto.ProductCompositionDto;
+import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.dto.ProductIngredientDto;
+import com.synprod.SynProd.entity.ProductType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Difference between two saved states of a recipe, stored as the payload of a
+ * delta row in product_revisions. Recipe rows are matched by id: a new or
+ * changed row is stored whole, a removed row by its id only, and unchanged rows
+ * not at all. The header (name, description, type) is only present when one of
+ * its fields changed.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record RecipeDelta(
+        Header header,
+        List<ProductCompositionDto> compositions,
+        List<Long> removedCompositions,
+        List<ProductIngredientDto> ingredients,
+        List<Long> removedIngredients) {
+
+    public record Header(String name, String description, ProductType productType) {
+    }
+
+    private static final Comparator<ProductCompositionDto> COMPOSITION_ORDER = Comparator.comparing(
+            ProductCompositionDto::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ProductCompositionDto::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final Comparator<ProductIngredientDto> INGREDIENT_ORDER = Comparator.comparing(
+            ProductIngredientDto::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ProductIngredientDto::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    public static RecipeDelta between(ProductDto before, ProductDto after) {
+        Header header = null;
+        if (!Objects.equals(before.getName(), after.getName())
+                || !Objects.equals(before.getDescription(), after.getDescription())
+                || before.getProductType() != after.getProductType()) {
+            header = new Header(after.getName(), after.getDescription(), after.getProductType());
+        }
+
+        List<ProductCompositionDto> compositions = new ArrayList<>();
+        List<Long> removedCompositions = new ArrayList<>();
+        diff(before.getCompositions(), after.getCompositions(), ProductCompositionDto::getId,
+                RecipeDelta::sameComposition, compositions, removedCompositions);
+
+        List<ProductIngredientDto> ingredients = new ArrayList<>();
+        List<Long> removedIngredients = new ArrayList<>();
+        diff(before.getAdditionalIngredients(), after.getAdditionalIngredients(), ProductIngredientDto::getId,
+                RecipeDelta::sameIngredient, ingredients, removedIngredients);
+
+        return new RecipeDelta(header, compositions, removedCompositions, ingredients, removedIngredients);
+    }
+
+    /**
+     * Applies this delta to a rebuilt recipe in place. Version and timestamps are
+     * left to the caller, which takes them from the revision row.
+     */
+    public void applyTo(ProductDto product) {
+        if (header != null) {
+            product.setName(header.name());
+            product.setDescription(header.description());
+            product.setProductType(header.productType());
+        }
+        product.setCompositions(apply(product.getCompositions(), compositions, removedCompositions,
+                ProductCompositionDto::getId, COMPOSITION_ORDER));
+        product.setAdditionalIngredients(apply(product.getAdditionalIngredients(), ingredients, removedIngredients,
+                ProductIngredientDto::getId, INGREDIENT_ORDER));
+    }
+
+    private static <T> void diff(List<T> before, List<T> after, Function<T, Long> id, BiPredicate<T, T> same,
+            List<T> changed, List<Long> removed) {
+        Map<Long, T> previous = index(before, id);
+        if (after != null) {
+            for (T row : after) {
+                T old = previous.remove(id.apply(row));
+                if (old == null || !same.test(old, row)) {
+                    changed.add(row);
+                }
+            }
+        }
+        removed.addAll(previous.keySet());
+    }
+
+    private static <T> List<T> apply(List<T> rows, List<T> changed, List<Long> removed, Function<T, Long> id,
+            Comparator<T> order) {
+        Map<Long, T> result = index(rows, id);
+        if (removed != null) {
+            removed.forEach(result::remove);
+        }
+        if (changed != null) {
+            changed.forEach(row -> result.put(id.apply(row), row));
+        }
+        List<T> sorted = new ArrayList<>(result.values());
+        sorted.sort(order);
+        return sorted;
+    }
+
+    private static <T> Map<Long, T> index(List<T> rows, Function<T, Long> id) {
+        Map<Long, T> byId = new LinkedHashMap<>();
+        if (rows != null) {
+            rows.forEach(row -> byId.put(id.apply(row), row));
+        }
+        return byId;
+    }
+
+    private static boolean sameComposition(ProductCompositionDto a, ProductCompositionDto b) {
+        return Objects.equals(a.getComponentName(), b.getComponentName())
+                && Objects.equals(a.getPercentage(), b.getPercentage())
+                && Objects.equals(a.getNotes(), b.getNotes())
+                && Objects.equals(a.getSortOrder(), b.getSortOrder());
+    }
+
+    private static boolean sameIngredient(ProductIngredientDto a, ProductIngredientDto b) {
+        return Objects.equals(a.getIngredientName(), b.getIngredientName())
+                && Objects.equals(a.getQuantity(), b.getQuantity())
+                && Objects.equals(a.getUnit(), b.getUnit())
+                && Objects.equals(a.getNotes(), b.getNotes())
+                && Objects.equals(a.getSortOrder(), b.getSortOrder());
+    }
+}
@@ -0,0 +1,172 @@
+package com.synprod.SynProd.util;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import com.synprod.SynProd.dto.ProductCompositionDto;
+import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.dto.ProductIngredientDto;
+import com.synprod.SynProd.dto.ScaledRecipeDto;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders a production recipe sheet (the layout of the former browser PDF):
+ * header with product type and base weight, order summary, component table
+ * with scaled weights and ingredient table with scaled amounts.
+ *
+ * Stateless and thread-safe; each call builds its own document.
+ */
+public final class RecipePdfRenderer {
+
+    private static final Color TITLE_COLOR = new Color(0x2f, 0x3a, 0x2a);
+    private static final Color SUBTITLE_COLOR = new Color(0x4b, 0x5b, 0x3f);
+    private static final Color HEADER_BACKGROUND = new Color(0xf1, 0xf6, 0xe8);
+    private static final Color BORDER_COLOR = new Color(0xd9, 0xe4, 0xc2);
+
+    private static final DateTimeFormatter GENERATED_AT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private RecipePdfRenderer() {
+    }
+
+    /**
+     * Writes the PDF for one recipe and its scaled order to {@code out}. The
+     * stream is closed when the document is finished.
+     */
+    public static void render(ProductDto product, ScaledRecipeDto scaled, OutputStream out) throws IOException {
+        Font title = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, TITLE_COLOR);
+        Font subtitle = FontFactory.getFont(FontFactory.HELVETICA, 12, SUBTITLE_COLOR);
+        Font section = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, TITLE_COLOR);
+        Font body = FontFactory.getFont(FontFactory.HELVETICA, 10);
+        Font bold = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+        Font small = FontFactory.getFont(FontFactory.HELVETICA, 8, Color.GRAY);
+
+        Document document = new Document(PageSize.A4, 32, 32, 32, 32);
+        try {
+            PdfWriter.getInstance(document, out);
+            document.open();
+
+            document.add(new Paragraph(product.getName(), title));
+            String unit = product.getProductType().getBaseWeightUnit();
+            document.add(new Paragraph(product.getProductType().getDisplayName() + " • Base "
+                    + number(product.getProductType().getBaseWeight(), 0) + unit, subtitle));
+            if (product.getDescription() != null && !product.getDescription().isBlank()) {
+                document.add(new Paragraph(product.getDescription(), body));
+            }
+
+            PdfPTable order = table(new float[] { 1, 1, 1 });
+            headerCell(order, "Quantity", bold);
+            headerCell(order, "Packaging", bold);
+            headerCell(order, "Total Weight", bold);
+            cell(order, number(scaled.getQuantity(), 2), body, Element.ALIGN_CENTER);
+            cell(order, scaled.getCapacity() + " (x" + number(scaled.getMultiplier(), 2) + ")", body, Element.ALIGN_CENTER);
+            cell(order, number(scaled.getTotalWeight(), 1) + unit, body, Element.ALIGN_CENTER);
+            document.add(order);
+
+            List<ProductCompositionDto> compositions = product.getCompositions();
+            if (compositions != null && !compositions.isEmpty()) {
+                document.add(sectionTitle("Components", section));
+                PdfPTable components = table(new float[] { 4, 1, 1.5f });
+                headerCell(components, "Component", bold);
+                headerCell(components, "%", bold);
+                headerCell(components, "Weight", bold);
+                double totalPercent = 0;
+                for (int i = 0; i < compositions.size(); i++) {
+                    ProductCompositionDto composition = compositions.get(i);
+                    ScaledRecipeDto.ScaledComponent weight = scaled.getComponents().get(i);
+                    cell(components, withNotes(composition.getComponentName(), composition.getNotes()), body,
+                            Element.ALIGN_LEFT);
+                    cell(components, number(weight.getPercentage(), 2) + "%", body, Element.ALIGN_CENTER);
+                    cell(components, number(weight.getWeight(), 1) + unit, body, Element.ALIGN_CENTER);
+                    totalPercent += weight.getPercentage();
+                }
+                cell(components, "Total", bold, Element.ALIGN_LEFT);
+                cell(components, number(totalPercent, 1) + "%", bold, Element.ALIGN_CENTER);
+                cell(components, number(scaled.getTotalWeight(), 1) + unit, bold, Element.ALIGN_CENTER);
+                document.add(components);
+            }
+
+            List<ProductIngredientDto> ingredients = product.getAdditionalIngredients();
+            if (ingredients != null && !ingredients.isEmpty()) {
+                document.add(sectionTitle("Additional Ingredients", section));
+                PdfPTable table = table(new float[] { 4, 1.5f, 1.5f });
+                headerCell(table, "Ingredient", bold);
+                headerCell(table, "Per Base", bold);
+                headerCell(table, "Amount", bold);
+                for (int i = 0; i < ingredients.size(); i++) {
+                    ProductIngredientDto ingredient = ingredients.get(i);
+                    ScaledRecipeDto.ScaledIngredient amount = scaled.getIngredients().get(i);
+                    cell(table, withNotes(ingredient.getIngredientName(), ingredient.getNotes()), body,
+                            Element.ALIGN_LEFT);
+                    cell(table, number(amount.getBaseQuantity(), 2) + " " + amount.getUnit() + " / "
+                            + number(product.getProductType().getBaseWeight(), 0) + unit, body, Element.ALIGN_CENTER);
+                    cell(table, number(amount.getQuantity(), 2) + " " + amount.getUnit(), body, Element.ALIGN_CENTER);
+                }
+                document.add(table);
+            }
+
+            Paragraph footer = new Paragraph("Generated by SynProd • version " + product.getVersion() + " • "
+                    + LocalDateTime.now().format(GENERATED_AT), small);
+            footer.setSpacingBefore(24);
+            document.add(footer);
+        } catch (DocumentException e) {
+            throw new IOException("Could not render PDF for product " + product.getId(), e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+    }
+
+    private static PdfPTable table(float[] widths) {
+        PdfPTable table = new PdfPTable(widths);
+        table.setWidthPercentage(100);
+        table.setSpacingBefore(8);
+        return table;
+    }
+
+    private static Paragraph sectionTitle(String text, Font font) {
+        Paragraph paragraph = new Paragraph(text, font);
+        paragraph.setSpacingBefore(16);
+        return paragraph;
+    }
+
+    private static void headerCell(PdfPTable table, String text, Font font) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, font));
+        cell.setBackgroundColor(HEADER_BACKGROUND);
+        cell.setBorderColor(BORDER_COLOR);
+        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        cell.setPadding(6);
+        table.addCell(cell);
+    }
+
+    private static void cell(PdfPTable table, String text, Font font, int alignment) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, font));
+        cell.setBorderColor(BORDER_COLOR);
+        cell.setHorizontalAlignment(alignment);
+        cell.setPadding(6);
+        table.addCell(cell);
+    }
+
+    private static String withNotes(String name, String notes) {
+        return notes == null || notes.isBlank() ? name : name + " — " + notes;
+    }
+
+    private static String number(Double value, int decimals) {
+        return String.format(Locale.ROOT, "%." + decimals + "f", value != null ? value : 0.0);
+    }
+}
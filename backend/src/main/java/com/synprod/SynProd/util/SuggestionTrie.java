@@ -0,0 +1,350 @@
+package com.synprod.SynProd.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable compressed prefix trie (radix tree) of weighted suggestions.
+ * Every node stores the largest weight found below it, so the top N completions
+ * of a prefix are found best-first without visiting the whole subtree. When a
+ * prefix has too few completions, a bounded Levenshtein walk over the same trie
+ * adds near matches for typos ("skimed milk" finds "skimmed milk").
+ *
+ * Keys are normalized with {@link TrigramIndex#normalize(String)}; build a new
+ * trie with {@link Builder} whenever the dictionary changes.
+ */
+public final class SuggestionTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root;
+    private final int size;
+
+    private SuggestionTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns up to {@code limit} suggestions for the query, ranked by weight.
+     * Prefix completions come first; fuzzy matches only fill the remaining slots.
+     */
+    public List<Match> suggest(String query, int limit) {
+        String key = TrigramIndex.normalize(query);
+        List<Match> results = new ArrayList<>(limit);
+        if (limit <= 0) {
+            return results;
+        }
+
+        Node start = key.isEmpty() ? root : findPrefix(key);
+        if (start != null) {
+            collectTop(start, limit, 0, results);
+        }
+
+        int maxDistance = maxDistance(key.length());
+        if (results.size() < limit && maxDistance > 0) {
+            for (Match match : fuzzy(key, maxDistance, limit)) {
+                if (results.size() >= limit) {
+                    break;
+                }
+                if (results.stream().noneMatch(existing -> existing.value.equals(match.value))) {
+                    results.add(match);
+                }
+            }
+        }
+        return results;
+    }
+
+    // Typo budget grows with the query; very short queries are prefix-only
+    private static int maxDistance(int length) {
+        if (length < 4) {
+            return 0;
+        }
+        return length < 8 ? 1 : 2;
+    }
+
+    private Node findPrefix(String key) {
+        Node node = root;
+        int pos = 0;
+        while (pos < key.length()) {
+            Node child = node.child(key.charAt(pos));
+            if (child == null) {
+                return null;
+            }
+            int remaining = key.length() - pos;
+            if (remaining <= child.label.length()) {
+                return child.label.startsWith(key.substring(pos)) ? child : null;
+            }
+            if (!key.startsWith(child.label, pos)) {
+                return null;
+            }
+            pos += child.label.length();
+            node = child;
+        }
+        return node;
+    }
+
+    // Best-first walk: a node is expanded only while its subtree can still beat the results.
+    // Terminals are queued as their own entries so they surface in weight order.
+    private static void collectTop(Node start, int limit, int distance, List<Match> out) {
+        PriorityQueue<QueueEntry> queue = new PriorityQueue<>();
+        queue.add(new QueueEntry(start, start.maxWeight, false));
+        int target = out.size() + limit;
+        while (!queue.isEmpty() && out.size() < target) {
+            QueueEntry entry = queue.poll();
+            Node node = entry.node;
+            if (entry.terminal) {
+                out.add(new Match(node.value, node.weight, distance));
+                continue;
+            }
+            if (node.value != null) {
+                queue.add(new QueueEntry(node, node.weight, true));
+            }
+            for (Node child : node.children) {
+                queue.add(new QueueEntry(child, child.maxWeight, false));
+            }
+        }
+    }
+
+    private List<Match> fuzzy(String key, int maxDistance, int limit) {
+        int[] firstRow = new int[key.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        Map<String, Match> found = new LinkedHashMap<>();
+        for (Node child : root.children) {
+            walk(child, key, firstRow, Integer.MAX_VALUE, maxDistance, limit, found);
+        }
+        List<Match> matches = new ArrayList<>(found.values());
+        matches.sort(Comparator.comparingInt((Match match) -> match.distance)
+                .thenComparing(Comparator.comparingInt((Match match) -> match.weight).reversed())
+                .thenComparing(match -> match.value));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    /**
+     * Levenshtein rows along the edge labels. {@code best} is the smallest
+     * distance between the query and any prefix of the path so far; once the
+     * rows can no longer come back under the budget, everything below a node
+     * that already matched is a completion at that distance.
+     */
+    private void walk(Node node, String key, int[] previousRow, int best, int maxDistance, int limit,
+            Map<String, Match> found) {
+        int[] row = previousRow;
+        for (int c = 0; c < node.label.length(); c++) {
+            row = nextRow(row, key, node.label.charAt(c));
+            best = Math.min(best, row[key.length()]);
+            if (min(row) > maxDistance) {
+                if (best <= maxDistance) {
+                    addAll(node, best, limit, found);
+                }
+                return;
+            }
+        }
+
+        if (node.value != null && best <= maxDistance) {
+            addMatch(new Match(node.value, node.weight, best), found);
+        }
+        for (Node child : node.children) {
+            walk(child, key, row, best, maxDistance, limit, found);
+        }
+    }
+
+    private static void addAll(Node node, int distance, int limit, Map<String, Match> found) {
+        List<Match> top = new ArrayList<>(limit);
+        collectTop(node, limit, distance, top);
+        top.forEach(match -> addMatch(match, found));
+    }
+
+    private static void addMatch(Match match, Map<String, Match> found) {
+        found.merge(match.value, match, (a, b) -> a.distance <= b.distance ? a : b);
+    }
+
+    private static int[] nextRow(int[] previous, String key, char ch) {
+        int[] row = new int[previous.length];
+        row[0] = previous[0] + 1;
+        for (int i = 1; i < row.length; i++) {
+            int substitution = previous[i - 1] + (key.charAt(i - 1) == ch ? 0 : 1);
+            row[i] = Math.min(Math.min(row[i - 1] + 1, previous[i] + 1), substitution);
+        }
+        return row;
+    }
+
+    private static int min(int[] row) {
+        int min = Integer.MAX_VALUE;
+        for (int value : row) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    /**
+     * One suggestion: the display value, its weight (usage count) and the edit
+     * distance from the query (0 for prefix completions).
+     */
+    public static final class Match {
+        private final String value;
+        private final int weight;
+        private final int distance;
+
+        private Match(String value, int weight, int distance) {
+            this.value = value;
+            this.weight = weight;
+            this.distance = distance;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+    }
+
+    public static final class Builder {
+        private final Map<String, Match> entries = new HashMap<>();
+
+        /**
+         * Adds a value; values that normalize to the same key are merged and
+         * their weights summed, keeping the first display form.
+         */
+        public Builder add(String value, int weight) {
+            if (value == null || value.isBlank()) {
+                return this;
+            }
+            String key = TrigramIndex.normalize(value);
+            entries.merge(key, new Match(value.trim(), weight, 0),
+                    (a, b) -> new Match(a.value, a.weight + b.weight, 0));
+            return this;
+        }
+
+        public SuggestionTrie build() {
+            MutableNode root = new MutableNode("");
+            entries.forEach((key, entry) -> root.insert(key, 0, entry.value, entry.weight));
+            return new SuggestionTrie(root.freeze(), entries.size());
+        }
+    }
+
+    private static final class MutableNode {
+        private String label;
+        private String value;
+        private int weight;
+        private final Map<Character, MutableNode> children = new HashMap<>();
+
+        private MutableNode(String label) {
+            this.label = label;
+        }
+
+        private void insert(String key, int pos, String value, int weight) {
+            if (pos == key.length()) {
+                this.value = value;
+                this.weight = weight;
+                return;
+            }
+            MutableNode child = children.get(key.charAt(pos));
+            if (child == null) {
+                MutableNode leaf = new MutableNode(key.substring(pos));
+                leaf.value = value;
+                leaf.weight = weight;
+                children.put(key.charAt(pos), leaf);
+                return;
+            }
+
+            int common = 0;
+            int max = Math.min(child.label.length(), key.length() - pos);
+            while (common < max && child.label.charAt(common) == key.charAt(pos + common)) {
+                common++;
+            }
+            if (common < child.label.length()) {
+                // Split the edge at the point where the keys diverge
+                MutableNode middle = new MutableNode(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children.put(child.label.charAt(0), child);
+                children.put(middle.label.charAt(0), middle);
+                child = middle;
+            }
+            child.insert(key, pos + common, value, weight);
+        }
+
+        private Node freeze() {
+            Node[] frozen = children.isEmpty() ? NO_CHILDREN : children.values().stream()
+                    .map(MutableNode::freeze)
+                    .sorted(Comparator.comparing((Node node) -> node.label))
+                    .toArray(Node[]::new);
+            int maxWeight = value != null ? weight : 0;
+            for (Node child : frozen) {
+                maxWeight = Math.max(maxWeight, child.maxWeight);
+            }
+            return new Node(label, value, weight, maxWeight, frozen);
+        }
+    }
+
+    private static final class Node {
+        private final String label;
+        private final String value;
+        private final int weight;
+        private final int maxWeight;
+        private final Node[] children;
+        private final char[] firstChars;
+
+        private Node(String label, String value, int weight, int maxWeight, Node[] children) {
+            this.label = label;
+            this.value = value;
+            this.weight = weight;
+            this.maxWeight = maxWeight;
+            this.children = children;
+            this.firstChars = new char[children.length];
+            for (int i = 0; i < children.length; i++) {
+                firstChars[i] = children[i].label.charAt(0);
+            }
+        }
+
+        private Node child(char ch) {
+            int pos = Arrays.binarySearch(firstChars, ch);
+            return pos >= 0 ? children[pos] : null;
+        }
+    }
+
+    private static final class QueueEntry implements Comparable<QueueEntry> {
+        private final Node node;
+        private final int priority;
+        private final boolean terminal;
+
+        private QueueEntry(Node node, int priority, boolean terminal) {
+            this.node = node;
+            this.priority = priority;
+            this.terminal = terminal;
+        }
+
+        // Highest weight first; on ties a finished suggestion wins over a subtree
+        @Override
+        public int compareTo(QueueEntry other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            if (terminal != other.terminal) {
+                return terminal ? -1 : 1;
+            }
+            return node.label.compareTo(other.node.label);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.synprod.SynProd.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Case-insensitive substring index over short strings (names), keyed by int
+ * document ids. Every trigram of a value maps to a sorted primitive int posting
+ * list; a query intersects the postings of its trigrams and verifies the few
+ * remaining candidates with a plain substring check, which gives the same
+ * results as ILIKE '%term%'.
+ *
+ * Not thread-safe: callers guard access with a read/write lock.
+ */
+public final class TrigramIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<Long, IntPostings> postings = new HashMap<>();
+    private final Map<Integer, String[]> values = new HashMap<>();
+
+    /**
+     * Replaces the indexed values of a document.
+     */
+    public void put(int doc, Collection<String> rawValues) {
+        remove(doc);
+        String[] normalized = rawValues.stream()
+                .filter(value -> value != null && !value.isBlank())
+                .map(TrigramIndex::normalize)
+                .distinct()
+                .toArray(String[]::new);
+        if (normalized.length == 0) {
+            return;
+        }
+        values.put(doc, normalized);
+        for (String value : normalized) {
+            for (long gram : trigrams(value)) {
+                postings.computeIfAbsent(gram, key -> new IntPostings()).add(doc);
+            }
+        }
+    }
+
+    public void remove(int doc) {
+        String[] previous = values.remove(doc);
+        if (previous == null) {
+            return;
+        }
+        for (String value : previous) {
+            for (long gram : trigrams(value)) {
+                IntPostings list = postings.get(gram);
+                if (list != null && list.remove(doc) && list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        values.clear();
+    }
+
+    public int documentCount() {
+        return values.size();
+    }
+
+    /**
+     * Returns the ids of documents with at least one value containing the term,
+     * in ascending order.
+     */
+    public int[] search(String term) {
+        String needle = normalize(term);
+        if (needle.isEmpty()) {
+            return EMPTY;
+        }
+
+        // Too short for a trigram: scan the stored values
+        if (needle.length() < 3) {
+            int[] matches = values.entrySet().stream()
+                    .filter(entry -> containsAny(entry.getValue(), needle))
+                    .mapToInt(Map.Entry::getKey)
+                    .toArray();
+            Arrays.sort(matches);
+            return matches;
+        }
+
+        long[] grams = trigrams(needle);
+        IntPostings[] lists = new IntPostings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return EMPTY;
+            }
+        }
+
+        // Intersect starting from the shortest list
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] candidates = Arrays.copyOf(lists[0].docs, lists[0].size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            count = intersect(candidates, count, lists[i]);
+        }
+
+        // Trigram hits are a superset; confirm the substring
+        int matched = 0;
+        for (int i = 0; i < count; i++) {
+            if (containsAny(values.get(candidates[i]), needle)) {
+                candidates[matched++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(candidates, matched);
+    }
+
+    public static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean containsAny(String[] docValues, String needle) {
+        if (docValues == null) {
+            return false;
+        }
+        for (String value : docValues) {
+            if (value.contains(needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // In-place intersection of a sorted candidate prefix with a posting list
+    private static int intersect(int[] candidates, int count, IntPostings list) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < list.size; i++) {
+            int doc = candidates[i];
+            while (j < list.size && list.docs[j] < doc) {
+                j++;
+            }
+            if (j < list.size && list.docs[j] == doc) {
+                candidates[kept++] = doc;
+            }
+        }
+        return kept;
+    }
+
+    // Distinct trigrams of a normalized value, each packed into a long
+    private static long[] trigrams(String value) {
+        if (value.length() < 3) {
+            return new long[0];
+        }
+        long[] grams = new long[value.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    // Sorted, growable posting list of document ids
+    private static final class IntPostings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos >= 0) {
+                return;
+            }
+            int insertAt = -pos - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+            docs[insertAt] = doc;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.synprod.SynProd.util;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Base unit of an ingredient quantity and the factor that converts the given
+ * unit into it: mg and kg fold into g, cl, dl and l into ml. Any other unit is
+ * its own base with factor 1, so "pcs" quantities stay as entered.
+ */
+public record UnitConversion(String unit, double factor) {
+
+    private static final Map<String, UnitConversion> UNITS = Map.of(
+            "mg", new UnitConversion("g", 0.001),
+            "g", new UnitConversion("g", 1),
+            "kg", new UnitConversion("g", 1000),
+            "ml", new UnitConversion("ml", 1),
+            "cl", new UnitConversion("ml", 10),
+            "dl", new UnitConversion("ml", 100),
+            "l", new UnitConversion("ml", 1000));
+
+    /**
+     * Conversion for a unit as entered; case and surrounding blanks are ignored.
+     */
+    public static UnitConversion of(String unit) {
+        String key = unit != null ? unit.trim().toLowerCase(Locale.ROOT) : "";
+        UnitConversion known = UNITS.get(key);
+        return known != null ? known : new UnitConversion(key, 1);
+    }
+
+    public double toBase(double amount) {
+        return amount * factor;
+    }
+}
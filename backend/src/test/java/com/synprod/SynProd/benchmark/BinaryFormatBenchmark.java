@@ -0,0 +1,102 @@
+package com.synprod.SynProd.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.dto.ProductSummaryDto;
+import com.synprod.SynProd.repository.ProductRepository;
+import com.synprod.SynProd.service.ProductService;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Payload size and encode/decode time of full recipes (ProductDto) as JSON,
+ * CBOR and Smile, using the same mapper configuration as the HTTP converters.
+ *
+ * Run with ./gradlew benchmark; excluded from the regular test task.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class BinaryFormatBenchmark {
+
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 1000;
+    private static final int SAMPLE_SIZE = 100;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void compareRecipeEncodings() throws IOException {
+        List<Long> ids = productRepository.findSummaryPageOrderByName(Limit.of(SAMPLE_SIZE))
+                .stream().map(ProductSummaryDto::getId).toList();
+        Assumptions.assumeFalse(ids.isEmpty(), "No products to benchmark");
+        List<ProductDto> products = productService.getProductsByIds(ids);
+
+        System.out.printf("Recipe encodings over %d products x %d rounds%n", products.size(), MEASURED_ROUNDS);
+        measure("JSON ", objectMapper, products);
+        measure("CBOR ", objectMapper.copyWith(new CBORFactory()), products);
+        measure("Smile", objectMapper.copyWith(new SmileFactory()), products);
+    }
+
+    private static void measure(String label, ObjectMapper mapper, List<ProductDto> products) throws IOException {
+        byte[][] encoded = new byte[products.size()][];
+        long bytes = 0;
+        for (int i = 0; i < products.size(); i++) {
+            encoded[i] = mapper.writeValueAsBytes(products.get(i));
+            bytes += encoded[i].length;
+        }
+        // Both directions must round-trip to the same document
+        if (!mapper.readValue(encoded[0], ProductDto.class).getName().equals(products.get(0).getName())) {
+            throw new IllegalStateException(label + " does not round-trip");
+        }
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            encodeAll(mapper, products);
+            decodeAll(mapper, encoded);
+        }
+
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            encodeAll(mapper, products);
+            encodeNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            decodeAll(mapper, encoded);
+            decodeNanos += System.nanoTime() - start;
+        }
+
+        long operations = (long) products.size() * MEASURED_ROUNDS;
+        System.out.printf("  %s: %6.0f bytes/recipe, encode %5.1f us, decode %5.1f us%n", label,
+                bytes / (double) products.size(), encodeNanos / 1000.0 / operations,
+                decodeNanos / 1000.0 / operations);
+    }
+
+    private static void encodeAll(ObjectMapper mapper, List<ProductDto> products) throws IOException {
+        for (ProductDto product : products) {
+            mapper.writeValueAsBytes(product);
+        }
+    }
+
+    private static void decodeAll(ObjectMapper mapper, byte[][] encoded) throws IOException {
+        for (byte[] payload : encoded) {
+            mapper.readValue(payload, ProductDto.class);
+        }
+    }
+}
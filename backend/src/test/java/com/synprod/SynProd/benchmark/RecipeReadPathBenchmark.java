@@ -0,0 +1,103 @@
+package com.synprod.SynProd.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.dto.ProductSummaryDto;
+import com.synprod.SynProd.entity.Product;
+import com.synprod.SynProd.repository.ProductRepository;
+import com.synprod.SynProd.service.ProductService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Compares the two uncached recipe read paths against the configured database:
+ * the entity path used by getProductById (three queries, entity graph, DTO,
+ * Jackson) and the single json_agg query that returns the finished document.
+ *
+ * Run with ./gradlew benchmark; excluded from the regular test task.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class RecipeReadPathBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int SAMPLE_SIZE = 100;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void compareEntityAndJsonReadPaths() {
+        List<Long> ids = productRepository.findSummaryPageOrderByName(Limit.of(SAMPLE_SIZE))
+                .stream().map(ProductSummaryDto::getId).toList();
+        Assumptions.assumeFalse(ids.isEmpty(), "No products to benchmark");
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            readWithEntities(ids);
+            readAsJson(ids);
+        }
+
+        long entityNanos = 0;
+        long jsonNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            readWithEntities(ids);
+            entityNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            readAsJson(ids);
+            jsonNanos += System.nanoTime() - start;
+        }
+
+        long reads = (long) ids.size() * MEASURED_ROUNDS;
+        System.out.printf("Recipe read paths over %d products x %d rounds%n", ids.size(), MEASURED_ROUNDS);
+        System.out.printf("  entity path (3 queries + DTO + Jackson): %.1f us/recipe%n", entityNanos / 1000.0 / reads);
+        System.out.printf("  json_agg path (1 query, pass-through):   %.1f us/recipe%n", jsonNanos / 1000.0 / reads);
+    }
+
+    // Mirrors an uncached getProductById, including serialization of the response body
+    private void readWithEntities(List<Long> ids) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Long id : ids) {
+                Product product = productRepository.findByIdWithRecipeData(id).orElseThrow();
+                productRepository.findByIdWithCompositions(id);
+                productRepository.findByIdWithIngredients(id);
+                try {
+                    objectMapper.writeValueAsString(ProductDto.fromEntity(product));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                entityManager.clear();
+            }
+        });
+    }
+
+    private void readAsJson(List<Long> ids) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Long id : ids) {
+                productService.getProductJsonById(id);
+            }
+        });
+    }
+}
@@ -0,0 +1,113 @@
+package com.synprod.SynProd.benchmark;
+
+import com.synprod.SynProd.entity.Product;
+import com.synprod.SynProd.entity.ProductComposition;
+import com.synprod.SynProd.entity.ProductIngredient;
+import com.synprod.SynProd.entity.ProductType;
+import com.synprod.SynProd.entity.User;
+import com.synprod.SynProd.repository.ProductRepository;
+import com.synprod.SynProd.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Saves large recipes (25 components, 5 ingredients) and counts the JDBC
+ * statements Hibernate prepares. With pooled sequence ids and jdbc.batch_size
+ * the child rows go out as a few batches; with IDENTITY every row was its own
+ * INSERT round trip. All writes are rolled back.
+ *
+ * Run with ./gradlew benchmark; excluded from the regular test task.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class RecipeSaveBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int RECIPES_PER_ROUND = 20;
+    private static final int COMPONENTS = 25;
+    private static final int INGREDIENTS = 5;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void measureLargeRecipeInserts() {
+        List<User> users = userRepository.findAll();
+        Assumptions.assumeFalse(users.isEmpty(), "No user to own the benchmark recipes");
+        User owner = users.get(0);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            saveAndRollBack(owner, i);
+        }
+
+        statistics.clear();
+        long nanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            saveAndRollBack(owner, WARMUP_ROUNDS + i);
+            nanos += System.nanoTime() - start;
+        }
+
+        long recipes = (long) RECIPES_PER_ROUND * MEASURED_ROUNDS;
+        long rowsPerRecipe = 1 + COMPONENTS + INGREDIENTS;
+        System.out.printf("Saving %d recipes of %d rows each%n", recipes, rowsPerRecipe);
+        System.out.printf("  statements prepared: %.2f per recipe (IDENTITY needs at least %d)%n",
+                (double) statistics.getPrepareStatementCount() / recipes, rowsPerRecipe);
+        System.out.printf("  entity inserts:      %.1f per recipe%n", (double) statistics.getEntityInsertCount() / recipes);
+        System.out.printf("  time:                %.1f us per recipe%n", nanos / 1000.0 / recipes);
+        statistics.setStatisticsEnabled(false);
+    }
+
+    private void saveAndRollBack(User owner, int round) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int r = 0; r < RECIPES_PER_ROUND; r++) {
+                productRepository.save(recipe(owner, "Benchmark recipe " + round + "-" + r));
+            }
+            entityManager.flush();
+            entityManager.clear();
+            status.setRollbackOnly();
+        });
+    }
+
+    private static Product recipe(User owner, String name) {
+        Product product = new Product(name, null, ProductType.DRINKS);
+        product.setCreatedBy(owner);
+        for (int i = 0; i < COMPONENTS; i++) {
+            ProductComposition composition = new ProductComposition("Component " + i, 4.0);
+            composition.setSortOrder(i);
+            product.addComposition(composition);
+        }
+        for (int i = 0; i < INGREDIENTS; i++) {
+            ProductIngredient ingredient = new ProductIngredient("Ingredient " + i, 1.5, "g");
+            ingredient.setSortOrder(i);
+            product.addIngredient(ingredient);
+        }
+        return product;
+    }
+}
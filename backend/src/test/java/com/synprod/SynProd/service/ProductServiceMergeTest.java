@@ -0,0 +1,140 @@
+package com.synprod.SynProd.service;
+
+import com.synprod.SynProd.dto.ProductCompositionDto;
+import com.synprod.SynProd.dto.ProductIngredientDto;
+import com.synprod.SynProd.entity.Product;
+import com.synprod.SynProd.entity.ProductComposition;
+import com.synprod.SynProd.entity.ProductIngredient;
+import com.synprod.SynProd.entity.ProductType;
+import com.synprod.SynProd.util.InputSanitizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductServiceMergeTest {
+
+    // The merge methods only touch the sanitizer and the product's collections
+    private final ProductService service = new ProductService(null, null, new InputSanitizer(),
+            null, null, null, null, null, null, null);
+
+    private Product product;
+    private ProductComposition milk;
+    private ProductComposition strawberries;
+    private ProductComposition sugar;
+
+    @BeforeEach
+    void setUp() {
+        product = new Product("Strawberry Yogurt", "Fruit yogurt", ProductType.GREEK_YOGURT);
+        milk = storedComposition(10L, "Milk", 70.0, 0);
+        strawberries = storedComposition(20L, "Strawberries", 20.0, 1);
+        sugar = storedComposition(30L, "Sugar", 10.0, 2);
+    }
+
+    @Test
+    void rowsMatchedByIdAreUpdatedInPlaceInTheRequestedOrder() {
+        service.mergeCompositions(product, List.of(
+                composition(30L, "Sugar", 12.0),
+                composition(10L, "Milk", 68.0),
+                composition(20L, "Strawberries", 20.0)));
+
+        assertThat(product.getCompositions()).containsExactly(sugar, milk, strawberries);
+        assertThat(product.getCompositions()).extracting(ProductComposition::getSortOrder).containsExactly(0, 1, 2);
+        assertThat(sugar.getPercentage()).isEqualTo(12.0);
+        assertThat(milk.getPercentage()).isEqualTo(68.0);
+    }
+
+    @Test
+    void rowsWithoutIdReuseLeftoverStoredRowsByPosition() {
+        service.mergeCompositions(product, List.of(
+                composition(20L, "Strawberries", 20.0),
+                composition(null, "Cream", 60.0),
+                composition(null, "Honey", 15.0),
+                composition(null, "Vanilla", 5.0)));
+
+        List<ProductComposition> rows = product.getCompositions();
+        assertThat(rows).extracting(ProductComposition::getComponentName)
+                .containsExactly("Strawberries", "Cream", "Honey", "Vanilla");
+        // Leftovers are taken in stored order; only the row with no spare left is new
+        assertThat(rows.get(0)).isSameAs(strawberries);
+        assertThat(rows.get(1)).isSameAs(milk);
+        assertThat(rows.get(2)).isSameAs(sugar);
+        assertThat(rows.get(3).getId()).isNull();
+        assertThat(rows.get(3).getProduct()).isSameAs(product);
+    }
+
+    @Test
+    void unknownIdsAreTreatedLikeNewRows() {
+        service.mergeCompositions(product, List.of(
+                composition(99L, "Cream", 80.0),
+                composition(10L, "Milk", 20.0)));
+
+        assertThat(product.getCompositions()).containsExactly(strawberries, milk);
+        assertThat(strawberries.getComponentName()).isEqualTo("Cream");
+    }
+
+    @Test
+    void unmatchedStoredRowsAreRemoved() {
+        service.mergeCompositions(product, List.of(composition(20L, "Strawberries", 100.0)));
+
+        assertThat(product.getCompositions()).containsExactly(strawberries);
+
+        service.mergeCompositions(product, null);
+
+        assertThat(product.getCompositions()).isEmpty();
+    }
+
+    @Test
+    void mergedValuesAreSanitizedAndRounded() {
+        service.mergeCompositions(product, List.of(composition(10L, "<b>Milk</b>", 70.005)));
+
+        assertThat(milk.getComponentName()).isEqualTo("Milk");
+        assertThat(milk.getPercentage()).isEqualTo(70.01);
+    }
+
+    @Test
+    void ingredientsAreReconciledTheSameWay() {
+        ProductIngredient pectin = storedIngredient(50L, "Pectin", 1.5, "g", 0);
+        ProductIngredient water = storedIngredient(51L, "Water", 100.0, "ml", 1);
+        ProductIngredient salt = storedIngredient(52L, "Salt", 0.5, "g", 2);
+
+        service.mergeIngredients(product, List.of(
+                ingredient(51L, "Water", 0.1, "l"),
+                ingredient(null, "Vanilla", 2.0, "g")));
+
+        assertThat(product.getAdditionalIngredients()).containsExactly(water, pectin);
+        assertThat(water.getUnit()).isEqualTo("l");
+        assertThat(pectin.getIngredientName()).isEqualTo("Vanilla");
+        assertThat(pectin.getSortOrder()).isEqualTo(1);
+    }
+
+    private ProductComposition storedComposition(Long id, String name, Double percentage, int sortOrder) {
+        ProductComposition composition = new ProductComposition(name, percentage);
+        composition.setId(id);
+        composition.setSortOrder(sortOrder);
+        product.addComposition(composition);
+        return composition;
+    }
+
+    private ProductIngredient storedIngredient(Long id, String name, Double quantity, String unit, int sortOrder) {
+        ProductIngredient ingredient = new ProductIngredient(name, quantity, unit);
+        ingredient.setId(id);
+        ingredient.setSortOrder(sortOrder);
+        product.addIngredient(ingredient);
+        return ingredient;
+    }
+
+    private static ProductCompositionDto composition(Long id, String name, Double percentage) {
+        ProductCompositionDto composition = new ProductCompositionDto(name, percentage);
+        composition.setId(id);
+        return composition;
+    }
+
+    private static ProductIngredientDto ingredient(Long id, String name, Double quantity, String unit) {
+        ProductIngredientDto ingredient = new ProductIngredientDto(name, quantity, unit);
+        ingredient.setId(id);
+        return ingredient;
+    }
+}
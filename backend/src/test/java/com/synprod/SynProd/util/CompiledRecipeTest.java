@@ -0,0 +1,94 @@
+package com.synprod.SynProd.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledRecipeTest {
+
+    private static final String[] NONE = new String[0];
+
+    @Test
+    void componentWeightsAlwaysSumToTheBatchWeight() {
+        CompiledRecipe recipe = recipe(12.5, 37.3, 50.2);
+        double[] fractions = { 0.125, 0.373, 0.502 };
+        long[] out = new long[3];
+
+        for (long total = 0; total <= 5000; total++) {
+            recipe.scaleComponents(total, out);
+
+            assertThat(Arrays.stream(out).sum()).as("total %d", total).isEqualTo(total);
+            for (int i = 0; i < out.length; i++) {
+                assertThat((double) out[i]).as("total %d, component %d", total, i)
+                        .isBetween(Math.floor(total * fractions[i]), Math.ceil(total * fractions[i]));
+            }
+        }
+    }
+
+    @Test
+    void leftoverTenthsGoToTheLargestRemainders() {
+        long[] out = new long[3];
+
+        recipe(50, 25, 25).scaleComponents(3, out);
+
+        // Exact shares 1.5, 0.75, 0.75: both 0.75 remainders beat 0.5
+        assertThat(out).containsExactly(1, 1, 1);
+    }
+
+    @Test
+    void tiesGoToTheEarlierComponent() {
+        long[] out = new long[3];
+        CompiledRecipe recipe = recipe(100 / 3.0, 100 / 3.0, 100 / 3.0);
+
+        recipe.scaleComponents(10, out);
+        assertThat(out).containsExactly(4, 3, 3);
+
+        recipe.scaleComponents(11, out);
+        assertThat(out).containsExactly(4, 4, 3);
+    }
+
+    @Test
+    void incompleteRecipesAreRoundedPerComponent() {
+        long[] out = new long[2];
+
+        // 90% in total: no normalization and no redistribution of the rest
+        recipe(45, 45).scaleComponents(15, out);
+
+        assertThat(out).containsExactly(7, 7);
+    }
+
+    @Test
+    void batchWeightIsRoundedHalfUpToATenthOfAGram() {
+        CompiledRecipe recipe = new CompiledRecipe(1, 1, 1000, NONE, new double[0], NONE, new double[0], NONE);
+
+        assertThat(recipe.totalTenths(2.5, 1)).isEqualTo(25_000);
+        assertThat(recipe.totalTenths(0.00005, 1)).isEqualTo(1);
+        assertThat(recipe.totalTenths(0.00004, 1)).isZero();
+    }
+
+    @Test
+    void ingredientsScaleWithTheBatchAndRoundToHundredths() {
+        CompiledRecipe recipe = new CompiledRecipe(1, 1, 300, NONE, new double[0],
+                new String[] { "Salt", "Water" }, new double[] { 1, 250 }, new String[] { "g", "ml" });
+        double[] out = new double[2];
+
+        recipe.scaleIngredients(10_000, out);
+
+        assertThat(out).containsExactly(3.33, 833.33);
+    }
+
+    @Test
+    void rejectsANonPositiveBaseWeight() {
+        assertThatThrownBy(() -> new CompiledRecipe(1, 1, 0, NONE, new double[0], NONE, new double[0], NONE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static CompiledRecipe recipe(double... percentages) {
+        String[] names = new String[percentages.length];
+        Arrays.setAll(names, i -> "Component " + (i + 1));
+        return new CompiledRecipe(1, 1, 1000, names, percentages, NONE, new double[0], NONE);
+    }
+}
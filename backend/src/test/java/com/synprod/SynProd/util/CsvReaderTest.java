@@ -0,0 +1,42 @@
+package com.synprod.SynProd.util;
+
+import com.synprod.SynProd.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsAcrossLines() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,\"b,\"\"c\"\"\"\r\n\"multi\nline\",d\n"), 100);
+
+        assertThat(csv.readRecord()).containsExactly("a", "b,\"c\"");
+        assertThat(csv.getRecordLine()).isEqualTo(1);
+        assertThat(csv.readRecord()).containsExactly("multi\nline", "d");
+        assertThat(csv.getRecordLine()).isEqualTo(2);
+        assertThat(csv.readRecord()).isNull();
+    }
+
+    @Test
+    void acceptsARecordAtTheLengthLimit() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("abc,def\n"), 8);
+
+        assertThat(csv.readRecord()).isEqualTo(List.of("abc", "def"));
+    }
+
+    @Test
+    void rejectsARecordOverTheLengthLimit() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("ok\n\"" + "x".repeat(50) + "\n"), 20);
+
+        assertThat(csv.readRecord()).containsExactly("ok");
+        assertThatThrownBy(csv::readRecord)
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("line 2");
+    }
+}
@@ -0,0 +1,75 @@
+package com.synprod.SynProd.util;
+
+import com.synprod.SynProd.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripsFieldKeyAndId() {
+        String token = PageCursor.of(PageCursor.SORT_BY_NAME, "Crème | brûlée", 42L).encode();
+
+        PageCursor cursor = PageCursor.decode(token, PageCursor.SORT_BY_NAME);
+
+        assertThat(cursor.getSortField()).isEqualTo(PageCursor.SORT_BY_NAME);
+        assertThat(cursor.getSortKey()).isEqualTo("Crème | brûlée");
+        assertThat(cursor.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void tokensAreUrlSafe() {
+        String token = PageCursor.of(PageCursor.SORT_BY_CREATED_AT, "2026-10-16T09:00:00??>>", 7L).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void missingTokenMeansFirstPage() {
+        assertThat(PageCursor.decode(null, PageCursor.SORT_BY_NAME)).isNull();
+        assertThat(PageCursor.decode("  ", PageCursor.SORT_BY_NAME)).isNull();
+    }
+
+    @Test
+    void rejectsATokenIssuedForAnotherSortOrder() {
+        String token = PageCursor.of(PageCursor.SORT_BY_RANK, "0.5", 1L).encode();
+
+        assertThatThrownBy(() -> PageCursor.decode(token, PageCursor.SORT_BY_NAME))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("sort order");
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        assertInvalid("not base64!");
+        assertInvalid(raw("name"));
+        assertInvalid(raw("name|42"));
+        assertInvalid(raw("name|forty-two|Milk"));
+        assertInvalid(raw("name||Milk"));
+    }
+
+    @Test
+    void isSortedByChecksTheFieldWithoutThrowing() {
+        String token = PageCursor.of(PageCursor.SORT_BY_INDEXED_NAME, "milk", 3L).encode();
+
+        assertThat(PageCursor.isSortedBy(token, PageCursor.SORT_BY_INDEXED_NAME)).isTrue();
+        assertThat(PageCursor.isSortedBy(token, PageCursor.SORT_BY_NAME)).isFalse();
+        assertThat(PageCursor.isSortedBy("not base64!", PageCursor.SORT_BY_NAME)).isFalse();
+        assertThat(PageCursor.isSortedBy(null, PageCursor.SORT_BY_NAME)).isFalse();
+    }
+
+    private static void assertInvalid(String token) {
+        assertThatThrownBy(() -> PageCursor.decode(token, PageCursor.SORT_BY_NAME))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Invalid page cursor");
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
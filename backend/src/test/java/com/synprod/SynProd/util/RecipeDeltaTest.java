@@ -0,0 +1,131 @@
+package com.synprod.SynProd.util;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.synprod.SynProd.dto.ProductCompositionDto;
+import com.synprod.SynProd.dto.ProductDto;
+import com.synprod.SynProd.dto.ProductIngredientDto;
+import com.synprod.SynProd.entity.ProductType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipeDeltaTest {
+
+    @Test
+    void applyingTheDeltaToTheEarlierStateRebuildsTheLaterOne() throws Exception {
+        ProductDto before = recipe();
+        ProductDto after = recipe();
+        after.setDescription("Less sugar");
+        after.getCompositions().get(1).setPercentage(25.0);
+        after.getCompositions().remove(2);
+        after.getCompositions().add(composition(40L, "Honey", 5.0, 2));
+        after.getAdditionalIngredients().remove(0);
+        after.getAdditionalIngredients().add(ingredient(60L, "Vanilla", 2.0, "g", 1));
+
+        RecipeDelta delta = RecipeDelta.between(before, after);
+        // Deltas are stored as JSON; apply the one read back. Spring Boot's mapper, which
+        // ProductRevisionService uses, ignores derived getters such as displayText.
+        ObjectMapper mapper = JsonMapper.builder().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).build();
+        RecipeDelta stored = mapper.readValue(mapper.writeValueAsString(delta), RecipeDelta.class);
+        ProductDto rebuilt = recipe();
+        stored.applyTo(rebuilt);
+
+        assertSameRecipe(rebuilt, after);
+    }
+
+    @Test
+    void storesOnlyWhatChanged() {
+        ProductDto before = recipe();
+        ProductDto after = recipe();
+        after.getCompositions().get(0).setNotes("organic");
+        after.getCompositions().remove(2);
+        after.getAdditionalIngredients().get(1).setUnit("kg");
+
+        RecipeDelta delta = RecipeDelta.between(before, after);
+
+        assertThat(delta.header()).isNull();
+        assertThat(delta.compositions()).extracting(ProductCompositionDto::getId).containsExactly(10L);
+        assertThat(delta.removedCompositions()).containsExactly(30L);
+        assertThat(delta.ingredients()).extracting(ProductIngredientDto::getId).containsExactly(51L);
+        assertThat(delta.removedIngredients()).isEmpty();
+    }
+
+    @Test
+    void unchangedRecipeGivesAnEmptyDelta() {
+        RecipeDelta delta = RecipeDelta.between(recipe(), recipe());
+
+        assertThat(delta.header()).isNull();
+        assertThat(delta.compositions()).isEmpty();
+        assertThat(delta.removedCompositions()).isEmpty();
+        assertThat(delta.ingredients()).isEmpty();
+        assertThat(delta.removedIngredients()).isEmpty();
+    }
+
+    @Test
+    void headerChangesCarryTheWholeHeader() {
+        ProductDto after = recipe();
+        after.setProductType(ProductType.DRINKS);
+
+        RecipeDelta delta = RecipeDelta.between(recipe(), after);
+
+        assertThat(delta.header()).isEqualTo(new RecipeDelta.Header("Strawberry Yogurt", "Fruit yogurt",
+                ProductType.DRINKS));
+    }
+
+    @Test
+    void reorderedRowsComeBackInSortOrder() {
+        ProductDto after = recipe();
+        after.getCompositions().get(0).setSortOrder(5);
+
+        ProductDto rebuilt = recipe();
+        RecipeDelta.between(recipe(), after).applyTo(rebuilt);
+
+        assertThat(rebuilt.getCompositions()).extracting(ProductCompositionDto::getComponentName)
+                .containsExactly("Strawberries", "Sugar", "Milk");
+    }
+
+    private static void assertSameRecipe(ProductDto actual, ProductDto expected) {
+        assertThat(actual.getName()).isEqualTo(expected.getName());
+        assertThat(actual.getDescription()).isEqualTo(expected.getDescription());
+        assertThat(actual.getProductType()).isEqualTo(expected.getProductType());
+        assertThat(actual.getCompositions()).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected.getCompositions());
+        assertThat(actual.getAdditionalIngredients()).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected.getAdditionalIngredients());
+    }
+
+    private static ProductDto recipe() {
+        ProductDto product = new ProductDto();
+        product.setId(1L);
+        product.setName("Strawberry Yogurt");
+        product.setDescription("Fruit yogurt");
+        product.setProductType(ProductType.GREEK_YOGURT);
+        product.setCompositions(new ArrayList<>(List.of(
+                composition(10L, "Milk", 70.0, 0),
+                composition(20L, "Strawberries", 20.0, 1),
+                composition(30L, "Sugar", 10.0, 2))));
+        product.setAdditionalIngredients(new ArrayList<>(List.of(
+                ingredient(50L, "Pectin", 1.5, "g", 0),
+                ingredient(51L, "Water", 100.0, "ml", 1))));
+        return product;
+    }
+
+    private static ProductCompositionDto composition(Long id, String name, Double percentage, int sortOrder) {
+        ProductCompositionDto composition = new ProductCompositionDto(name, percentage);
+        composition.setId(id);
+        composition.setSortOrder(sortOrder);
+        return composition;
+    }
+
+    private static ProductIngredientDto ingredient(Long id, String name, Double quantity, String unit, int sortOrder) {
+        ProductIngredientDto ingredient = new ProductIngredientDto(name, quantity, unit);
+        ingredient.setId(id);
+        ingredient.setSortOrder(sortOrder);
+        return ingredient;
+    }
+}
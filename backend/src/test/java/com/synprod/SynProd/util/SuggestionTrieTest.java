@@ -0,0 +1,81 @@
+package com.synprod.SynProd.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SuggestionTrieTest {
+
+    private final SuggestionTrie trie = SuggestionTrie.builder()
+            .add("Skimmed Milk", 5)
+            .add("Whole Milk", 3)
+            .add("Milk Powder", 2)
+            .add("Silk Protein", 9)
+            .add("Sugar", 10)
+            .add("Cocoa", 1)
+            .build();
+
+    @Test
+    void prefixCompletionsAreRankedByWeight() {
+        assertThat(values(trie.suggest("s", 10))).containsExactly("Sugar", "Silk Protein", "Skimmed Milk");
+        assertThat(trie.suggest("s", 10)).allMatch(match -> match.getDistance() == 0);
+    }
+
+    @Test
+    void emptyQueryReturnsTheHeaviestEntries() {
+        assertThat(values(trie.suggest("", 3))).containsExactly("Sugar", "Silk Protein", "Skimmed Milk");
+        assertThat(trie.suggest("", 0)).isEmpty();
+    }
+
+    @Test
+    void queriesAreNormalizedButDisplayFormsAreKept() {
+        assertThat(values(trie.suggest("  SKIM", 5))).containsExactly("Skimmed Milk");
+    }
+
+    @Test
+    void builderMergesValuesThatNormalizeToTheSameKey() {
+        SuggestionTrie merged = SuggestionTrie.builder().add("Sugar", 2).add(" sugar ", 3).add(" ", 7).build();
+
+        assertThat(merged.size()).isEqualTo(1);
+        assertThat(merged.suggest("sug", 5)).extracting(SuggestionTrie.Match::getValue, SuggestionTrie.Match::getWeight)
+                .containsExactly(tuple("Sugar", 5));
+    }
+
+    @Test
+    void shortQueriesAreNeverFuzzy() {
+        // "sgr" is one edit from the prefix "sug", but queries under 4 characters are prefix-only
+        assertThat(trie.suggest("sgr", 5)).isEmpty();
+    }
+
+    @Test
+    void mediumQueriesAllowOneEdit() {
+        assertThat(trie.suggest("sugr", 5)).extracting(SuggestionTrie.Match::getValue, SuggestionTrie.Match::getDistance)
+                .containsExactly(tuple("Sugar", 1));
+        // A transposition is two edits
+        assertThat(trie.suggest("suagr", 5)).isEmpty();
+    }
+
+    @Test
+    void longQueriesAllowTwoEdits() {
+        assertThat(trie.suggest("skimed milk", 5)).extracting(SuggestionTrie.Match::getValue,
+                SuggestionTrie.Match::getDistance).containsExactly(tuple("Skimmed Milk", 1));
+        assertThat(trie.suggest("skimed mlik", 5)).isEmpty();
+    }
+
+    @Test
+    void fuzzyMatchesOnlyFillSlotsAfterPrefixCompletions() {
+        List<SuggestionTrie.Match> matches = trie.suggest("milk", 5);
+
+        // "Silk Protein" outweighs "Milk Powder" but is one edit away
+        assertThat(values(matches)).containsExactly("Milk Powder", "Silk Protein");
+        assertThat(matches.get(1).getDistance()).isEqualTo(1);
+        assertThat(values(trie.suggest("milk", 1))).containsExactly("Milk Powder");
+    }
+
+    private static List<String> values(List<SuggestionTrie.Match> matches) {
+        return matches.stream().map(SuggestionTrie.Match::getValue).toList();
+    }
+}
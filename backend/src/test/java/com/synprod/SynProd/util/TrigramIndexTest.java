@@ -0,0 +1,77 @@
+package com.synprod.SynProd.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(3, List.of("Skimmed Milk", "Cocoa Powder"));
+        index.put(1, List.of("Whole milk"));
+        index.put(2, List.of("Sugar"));
+    }
+
+    @Test
+    void findsCaseInsensitiveSubstringsInAscendingDocOrder() {
+        assertThat(index.search("MILK")).containsExactly(1, 3);
+        assertThat(index.search("  cocoa pow ")).containsExactly(3);
+    }
+
+    @Test
+    void termsShorterThanATrigramScanTheStoredValues() {
+        assertThat(index.search("mi")).containsExactly(1, 3);
+        assertThat(index.search("g")).containsExactly(2);
+    }
+
+    @Test
+    void trigramHitsAreConfirmedAsSubstrings() {
+        index.put(4, List.of("abc bcd"));
+
+        // Both trigrams of "abcd" occur in "abc bcd", the substring does not
+        assertThat(index.search("abcd")).isEmpty();
+        assertThat(index.search("bc b")).containsExactly(4);
+    }
+
+    @Test
+    void blankOrUnknownTermsMatchNothing() {
+        assertThat(index.search("")).isEmpty();
+        assertThat(index.search("   ")).isEmpty();
+        assertThat(index.search(null)).isEmpty();
+        assertThat(index.search("vanilla")).isEmpty();
+    }
+
+    @Test
+    void putReplacesTheValuesOfADocument() {
+        index.put(3, List.of("Vanilla"));
+
+        assertThat(index.search("milk")).containsExactly(1);
+        assertThat(index.search("cocoa")).isEmpty();
+        assertThat(index.search("vanil")).containsExactly(3);
+        assertThat(index.documentCount()).isEqualTo(3);
+    }
+
+    @Test
+    void removeDropsTheDocumentFromEveryPosting() {
+        index.remove(1);
+        index.remove(99);
+
+        assertThat(index.search("milk")).containsExactly(3);
+        assertThat(index.search("wh")).isEmpty();
+        assertThat(index.documentCount()).isEqualTo(2);
+    }
+
+    @Test
+    void blankValuesAreNotIndexed() {
+        index.put(5, List.of(" ", ""));
+
+        assertThat(index.documentCount()).isEqualTo(3);
+    }
+}
@@ -1,11 +1,13 @@
 import React, { useState, useEffect, useRef } from 'react';
 import { productAPI } from '../../../services/api';
-import { ProductType, getProductTypeDisplayName } from '../../../types/product';
+import { FacetCount, ProductType, getProductTypeDisplayName } from '../../../types/product';
+import { useSuggestions } from '../../../hooks/useSuggestions';
 
 interface FilterOptions {
   productTypes: ProductType[];
-  components: string[];
-  ingredients: string[];
+  counts?: {
+    productTypes: FacetCount[];
+  };
 }
 
 interface RecipeFiltersProps {
@@ -39,13 +41,13 @@ export function RecipeFilters({
 }: RecipeFiltersProps) {
   const [filters, setFilters] = useState<SearchFilters>({});
   const [options, setOptions] = useState<FilterOptions>({
-    productTypes: [],
-    components: [],
-    ingredients: []
+    productTypes: []
   });
   const [showAdvanced, setShowAdvanced] = useState(false);
   const [isLoadingOptions, setIsLoadingOptions] = useState(false);
   const debounceRef = useRef<number | null>(null);
+  const componentSuggestions = useSuggestions('component', filters.componentName);
+  const ingredientSuggestions = useSuggestions('ingredient', filters.ingredientName);
 
   useEffect(() => {
     loadFilterOptions();
@@ -54,7 +56,7 @@ export function RecipeFilters({
   const loadFilterOptions = async () => {
     try {
       setIsLoadingOptions(true);
-      const response = await productAPI.getFilterOptions();
+      const response = await productAPI.getFilterOptions(false);
       setOptions(response.data);
     } catch (error) {
       console.error('Error loading filter options:', error);
@@ -63,6 +65,9 @@ export function RecipeFilters({
     }
   };
 
+  const productTypeCount = (productType: ProductType) =>
+    options.counts?.productTypes.find(facet => facet.value === productType)?.count;
+
   const updateFilter = (key: keyof SearchFilters, value: string | number | undefined) => {
     const newFilters = { ...filters, [key]: value };
     setFilters(newFilters);
@@ -239,6 +244,7 @@ export function RecipeFilters({
                 {options.productTypes.map(productType => (
                   <option key={productType} value={productType}>
                     {getProductTypeDisplayName(productType)}
+                    {productTypeCount(productType) !== undefined && ` (${productTypeCount(productType)})`}
                   </option>
                 ))}
               </select>
@@ -256,8 +262,8 @@ export function RecipeFilters({
                 list="components-datalist"
               />
               <datalist id="components-datalist">
-                {options.components.map(component => (
-                  <option key={component} value={component} />
+                {componentSuggestions.map(suggestion => (
+                  <option key={suggestion.value} value={suggestion.value} />
                 ))}
               </datalist>
             </div>
@@ -272,8 +278,8 @@ export function RecipeFilters({
                 list="ingredients-datalist"
               />
               <datalist id="ingredients-datalist">
-                {options.ingredients.map(ingredient => (
-                  <option key={ingredient} value={ingredient} />
+                {ingredientSuggestions.map(suggestion => (
+                  <option key={suggestion.value} value={suggestion.value} />
                 ))}
               </datalist>
             </div>
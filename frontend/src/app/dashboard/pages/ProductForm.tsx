@@ -194,7 +194,7 @@ export function ProductForm() {
       setIsSubmitting(true);
       
       if (isEditing && product) {
-        await productAPI.updateProduct(product.id, requestData);
+        await productAPI.updateProduct(product.id, requestData, product.version);
         setIsSuccess(true);
         setTimeout(() => {
           navigate(`/dashboard/products/${product.id}`);
@@ -207,6 +207,10 @@ export function ProductForm() {
         }, 1500);
       }
     } catch (err: any) {
+      if (err.response?.status === 412) {
+        setError('This product was changed by someone else while you were editing. Reload it and apply your changes again.');
+        return;
+      }
       setError(err.response?.data?.message || `Failed to ${isEditing ? 'update' : 'create'} product`);
     } finally {
       setIsSubmitting(false);
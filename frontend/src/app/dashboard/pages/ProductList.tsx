@@ -1,20 +1,20 @@
 import React, { useState, useEffect } from 'react';
 import { Link, useLocation } from 'react-router-dom';
-import { productAPI } from '../../../services/api';
-import { Product, getProductTypeDisplayName } from '../../../types/product';
+import { productAPI, fetchAllPages } from '../../../services/api';
+import { ProductSummary, getProductTypeDisplayName } from '../../../types/product';
 import { useAuth } from '../../../contexts/AuthContext';
 import { ProductFilters, SearchFilters } from '../components/ProductFilters';
 
 export function ProductList() {
-  const [products, setProducts] = useState<Product[]>([]);
+  const [products, setProducts] = useState<ProductSummary[]>([]);
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState('');
-  const [searchResults, setSearchResults] = useState<Product[]>([]);
+  const [searchResults, setSearchResults] = useState<ProductSummary[]>([]);
   const [isSearching, setIsSearching] = useState(false);
   const [activeFilters, setActiveFilters] = useState<SearchFilters>({});
   const [sortBy, setSortBy] = useState<'name' | 'createdAt' | 'productType'>('name');
   const [sortOrder, setSortOrder] = useState<'asc' | 'desc'>('asc');
-  const [deleteConfirm, setDeleteConfirm] = useState<{ show: boolean; product: Product | null }>({ show: false, product: null });
+  const [deleteConfirm, setDeleteConfirm] = useState<{ show: boolean; product: ProductSummary | null }>({ show: false, product: null });
   const [isDeleting, setIsDeleting] = useState(false);
   const { user } = useAuth();
   const location = useLocation();
@@ -64,8 +64,8 @@ export function ProductList() {
     try {
       setIsLoading(true);
       setError('');
-      const response = await productAPI.getAllProducts();
-      setProducts(response.data);
+      // The list is sorted client-side, so it needs every page
+      setProducts(await fetchAllPages<ProductSummary>((page) => productAPI.getAllProducts(page)));
     } catch (err: any) {
       setError('Failed to load products');
       console.error('Error loading products:', err);
@@ -80,8 +80,7 @@ export function ProductList() {
       setError('');
       setActiveFilters(filters);
       
-      const response = await productAPI.searchProductsAdvanced(filters);
-      setSearchResults(response.data);
+      setSearchResults(await fetchAllPages<ProductSummary>((page) => productAPI.searchProductsAdvanced(filters, page)));
     } catch (err: any) {
       setError('Search failed');
       console.error('Search error:', err);
@@ -117,7 +116,7 @@ export function ProductList() {
     }
   };
 
-  const sortProducts = (productsToSort: Product[]) => {
+  const sortProducts = (productsToSort: ProductSummary[]) => {
     return [...productsToSort].sort((a, b) => {
       let aValue: any, bValue: any;
       
@@ -279,7 +278,7 @@ export function ProductList() {
                       {getProductTypeDisplayName(product.productType)}
                     </span>
                     
-                    {product.compositions && product.compositions.length > 0 && (
+                    {product.componentCount > 0 && (
                       <span style={{
                         background: 'linear-gradient(135deg, #91b029, #7a9a1f)',
                         color: 'white',
@@ -288,11 +287,11 @@ export function ProductList() {
                         fontSize: '0.75rem',
                         fontWeight: '500'
                       }}>
-                        {product.compositions.length} Component{product.compositions.length !== 1 ? 's' : ''}
+                        {product.componentCount} Component{product.componentCount !== 1 ? 's' : ''}
                       </span>
                     )}
                     
-                    {product.additionalIngredients && product.additionalIngredients.length > 0 && (
+                    {product.ingredientCount > 0 && (
                       <span style={{
                         background: 'linear-gradient(135deg, #445c3c, #5a6e42)',
                         color: 'white',
@@ -301,7 +300,7 @@ export function ProductList() {
                         fontSize: '0.75rem',
                         fontWeight: '500'
                       }}>
-                        +{product.additionalIngredients.length} Ingredient{product.additionalIngredients.length !== 1 ? 's' : ''}
+                        +{product.ingredientCount} Ingredient{product.ingredientCount !== 1 ? 's' : ''}
                       </span>
                     )}
                   </div>
@@ -1,15 +1,15 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
-import { productAPI } from '../../../services/api';
-import { Product, getProductTypeDisplayName } from '../../../types/product';
+import { productAPI, fetchAllPages } from '../../../services/api';
+import { ProductSummary, getProductTypeDisplayName } from '../../../types/product';
 import { useAuth } from '../../../contexts/AuthContext';
 import { RecipeFilters, SearchFilters } from '../components/RecipeFilters';
 
 export function RecipeList() {
-  const [products, setProducts] = useState<Product[]>([]);
+  const [products, setProducts] = useState<ProductSummary[]>([]);
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState('');
-  const [searchResults, setSearchResults] = useState<Product[]>([]);
+  const [searchResults, setSearchResults] = useState<ProductSummary[]>([]);
   const [isSearching, setIsSearching] = useState(false);
   const [activeFilters, setActiveFilters] = useState<SearchFilters>({});
   const [sortBy, setSortBy] = useState<'name' | 'createdAt' | 'productType'>('name');
@@ -24,8 +24,8 @@ export function RecipeList() {
     try {
       setIsLoading(true);
       setError('');
-      const response = await productAPI.getAllProducts();
-      setProducts(response.data);
+      // The list is sorted client-side, so it needs every page
+      setProducts(await fetchAllPages<ProductSummary>((page) => productAPI.getAllProducts(page)));
     } catch (err: any) {
       setError('Failed to load recipes');
       console.error('Error loading products:', err);
@@ -40,8 +40,7 @@ export function RecipeList() {
       setError('');
       setActiveFilters(filters);
       
-      const response = await productAPI.searchProductsAdvanced(filters);
-      setSearchResults(response.data);
+      setSearchResults(await fetchAllPages<ProductSummary>((page) => productAPI.searchProductsAdvanced(filters, page)));
     } catch (err: any) {
       setError('Search failed');
       console.error('Search error:', err);
@@ -57,7 +56,7 @@ export function RecipeList() {
     setIsSearching(false);
   };
 
-  const sortProducts = (productsToSort: Product[]) => {
+  const sortProducts = (productsToSort: ProductSummary[]) => {
     return [...productsToSort].sort((a, b) => {
       let aValue: any, bValue: any;
       
@@ -212,7 +211,7 @@ export function RecipeList() {
                       {getProductTypeDisplayName(product.productType)}
                     </span>
                     
-                    {product.compositions && product.compositions.length > 0 && (
+                    {product.componentCount > 0 && (
                       <span style={{
                         background: 'linear-gradient(135deg, #91b029, #7a9a1f)',
                         color: 'white',
@@ -221,11 +220,11 @@ export function RecipeList() {
                         fontSize: '0.75rem',
                         fontWeight: '500'
                       }}>
-                        {product.compositions.length} Component{product.compositions.length !== 1 ? 's' : ''}
+                        {product.componentCount} Component{product.componentCount !== 1 ? 's' : ''}
                       </span>
                     )}
                     
-                    {product.additionalIngredients && product.additionalIngredients.length > 0 && (
+                    {product.ingredientCount > 0 && (
                       <span style={{
                         background: 'linear-gradient(135deg, #445c3c, #5a6e42)',
                         color: 'white',
@@ -234,53 +233,11 @@ export function RecipeList() {
                         fontSize: '0.75rem',
                         fontWeight: '500'
                       }}>
-                        +{product.additionalIngredients.length} Ingredient{product.additionalIngredients.length !== 1 ? 's' : ''}
+                        +{product.ingredientCount} Ingredient{product.ingredientCount !== 1 ? 's' : ''}
                       </span>
                     )}
                   </div>
 
-                  {/* Recipe composition preview */}
-                  {product.compositions && product.compositions.length > 0 && (
-                    <div style={{ marginBottom: '12px' }}>
-                      <h4 style={{ 
-                        fontSize: '0.8rem', 
-                        fontWeight: '600', 
-                        color: '#445c3c',
-                        margin: '0 0 6px 0',
-                        textTransform: 'uppercase',
-                        letterSpacing: '0.025em'
-                      }}>
-                        Main Components:
-                      </h4>
-                      <div style={{ display: 'flex', flexWrap: 'wrap', gap: '4px' }}>
-                        {product.compositions.slice(0, 3).map((comp, index) => (
-                          <span
-                            key={index}
-                            style={{
-                              fontSize: '0.7rem',
-                              background: 'rgba(145, 176, 41, 0.1)',
-                              color: '#445c3c',
-                              padding: '2px 6px',
-                              borderRadius: '3px',
-                              border: '1px solid rgba(145, 176, 41, 0.2)'
-                            }}
-                          >
-                            {comp.componentName} ({comp.percentage.toFixed(2)}%)
-                          </span>
-                        ))}
-                        {product.compositions.length > 3 && (
-                          <span style={{
-                            fontSize: '0.7rem',
-                            color: '#718096',
-                            padding: '2px 6px'
-                          }}>
-                            +{product.compositions.length - 3} more
-                          </span>
-                        )}
-                      </div>
-                    </div>
-                  )}
-
                   {product.createdByName && (
                     <p style={{ 
                       color: '#a0aec0',
@@ -0,0 +1,29 @@
+import { useEffect, useState } from 'react';
+import { productAPI, SuggestionField } from '../services/api';
+import { Suggestion } from '../types/product';
+
+// Fetch typeahead suggestions for a filter input, debounced per keystroke
+export function useSuggestions(field: SuggestionField, query: string | undefined, delayMs = 150) {
+  const [suggestions, setSuggestions] = useState<Suggestion[]>([]);
+
+  useEffect(() => {
+    let cancelled = false;
+    const timer = window.setTimeout(async () => {
+      try {
+        const response = await productAPI.suggest(field, query || '');
+        if (!cancelled) {
+          setSuggestions(response.data);
+        }
+      } catch (error) {
+        console.error('Error loading suggestions:', error);
+      }
+    }, delayMs);
+
+    return () => {
+      cancelled = true;
+      window.clearTimeout(timer);
+    };
+  }, [field, query, delayMs]);
+
+  return suggestions;
+}
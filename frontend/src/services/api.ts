@@ -1,4 +1,5 @@
-import axios from 'axios';
+import axios, { AxiosResponse } from 'axios';
+import { CreateProductRequest } from '../types/product';
 
 // Support environment variable for API URL (for cross-domain deployments)
 // Defaults to '/api' for same-domain deployment (works with Nginx proxy)
@@ -119,6 +120,9 @@ export const authAPI = {
 export const adminAPI = {
   inviteUser: (data: { email: string; role: string }) =>
     api.post('/admin/invite', data),
+
+  // Restore a deleted product (also from the archive)
+  restoreProduct: (id: number) => api.post(`/admin/products/${id}/restore`),
 };
 
 // User API
@@ -138,13 +142,69 @@ export const userAPI = {
   }) => api.put(`/user/${id}`, data),
 };
 
+// Keyset pagination params; pass the X-Next-Cursor header of the previous page as cursor
+export type SuggestionField = 'name' | 'component' | 'ingredient';
+
+export interface PageParams {
+  cursor?: string;
+  limit?: number;
+}
+
+// Largest page the server returns; bigger limits are capped
+const MAX_PAGE_SIZE = 500;
+
+// Requests pages until X-Next-Cursor is absent and returns the rows of all of them
+export const fetchAllPages = async <T>(
+  fetchPage: (page: PageParams) => Promise<AxiosResponse<T[]>>
+): Promise<T[]> => {
+  const rows: T[] = [];
+  let cursor: string | undefined;
+  do {
+    const response = await fetchPage({ cursor, limit: MAX_PAGE_SIZE });
+    rows.push(...response.data);
+    cursor = (response.headers['x-next-cursor'] as string | undefined) || undefined;
+  } while (cursor);
+  return rows;
+};
+
 // Product API
 export const productAPI = {
-  // Get all products (accessible by all authenticated users)
-  getAllProducts: () => api.get('/products'),
+  // Get a page of products (accessible by all authenticated users)
+  getAllProducts: (page?: PageParams) => api.get('/products', { params: page }),
+
+  // Products created, updated or deleted since a change token (omit `since` for an initial sync);
+  // fails with 410 when the token is too old and the client has to sync from scratch
+  getProductChanges: (since?: string, limit?: number) =>
+    api.get('/products/changes', { params: { since, limit } }),
   
-  // Get product by ID with full recipe data
-  getProductById: (id: number) => api.get(`/products/${id}`),
+  // Get product by ID with full recipe data; with asOf (ISO date-time) the recipe as saved at that time
+  getProductById: (id: number, asOf?: string) => api.get(`/products/${id}`, { params: { asOf } }),
+
+  // Revision history of a recipe, newest first; page back with before = last revisionNo
+  getProductRevisions: (id: number, before?: number, limit?: number) =>
+    api.get(`/products/${id}/revisions`, { params: { before, limit } }),
+
+  // Get several products with full recipe data in one request (returned in request order)
+  getProductsByIds: (ids: number[]) => api.post('/products/batch-get', { ids }),
+
+  // Scale a recipe to an order of `quantity` packages (capacity defaults to the first packaging unit)
+  scaleProduct: (id: number, quantity: number, capacity?: string) =>
+    api.post(`/products/${id}/scale`, { quantity, capacity }),
+
+  // Scale several orders in one request
+  scaleProducts: (items: Array<{ productId: number; quantity: number; capacity?: string }>) =>
+    api.post('/products/scale', { items }),
+
+  // Server-rendered recipe sheet for an order (PDF blob)
+  getProductPdf: (id: number, quantity: number, capacity?: string) =>
+    api.get(`/products/${id}/pdf`, { params: { quantity, capacity }, responseType: 'blob' }),
+
+  // Recipe sheets for several orders as one ZIP blob
+  getProductPdfBundle: (items: Array<{ productId: number; quantity: number; capacity?: string }>) =>
+    api.post('/products/pdf-bundle', { items }, { responseType: 'blob' }),
+
+  // Packaging units per product type
+  getPackagingCapacities: () => api.get('/products/capacities'),
   
   // Search products by name
   searchProducts: (name: string) => api.get('/products/search', { params: { name } }),
@@ -156,7 +216,7 @@ export const productAPI = {
     componentName?: string;
     ingredientName?: string;
     productType?: string;
-  }) => api.get('/products/search/advanced', { params: filters }),
+  }, page?: PageParams) => api.get('/products/search/advanced', { params: { ...filters, ...page } }),
 
   // Search by component
   searchByComponent: (componentName: string) => 
@@ -170,8 +230,13 @@ export const productAPI = {
   searchByProductType: (productType: string) => 
     api.get('/products/search/type', { params: { productType } }),
 
-  // Get filter options
-  getFilterOptions: () => api.get('/products/filter-options'),
+  // Get filter options (includeNames=false returns only the product types)
+  getFilterOptions: (includeNames = true) =>
+    api.get('/products/filter-options', { params: { includeNames } }),
+
+  // Typeahead suggestions for a filter field, ranked by usage
+  suggest: (field: SuggestionField, q: string, limit?: number) =>
+    api.get('/products/suggest', { params: { field, q, limit } }),
   
   // Create new product (MANAGER and ADMIN only)
   createProduct: (data: {
@@ -192,6 +257,7 @@ export const productAPI = {
   }) => api.post('/products', data),
   
   // Update existing product (MANAGER and ADMIN only)
+  // Pass the version that was edited to get 412 instead of overwriting someone else's save
   updateProduct: (id: number, data: {
     name: string;
     description?: string;
@@ -207,13 +273,38 @@ export const productAPI = {
       unit: string;
       notes?: string;
     }>;
-  }) => api.put(`/products/${id}`, data),
+  }, version?: number) =>
+    api.put(`/products/${id}`, data, version != null ? { headers: { 'If-Match': `"${version}"` } } : undefined),
+  
+  // Partially update a product; omitted fields keep their current values (MANAGER and ADMIN only)
+  patchProduct: (id: number, data: Partial<CreateProductRequest>) => api.patch(`/products/${id}`, data),
+  
+  // Bulk import from a CSV or NDJSON file (MANAGER and ADMIN only)
+  importProducts: (file: File) => api.post('/products/import', file, {
+    headers: { 'Content-Type': file.name.toLowerCase().endsWith('.csv') ? 'text/csv' : 'application/x-ndjson' },
+  }),
   
   // Delete product (ADMIN only)
   deleteProduct: (id: number) => api.delete(`/products/${id}`),
   
   // Get products by current user
-  getMyProducts: () => api.get('/products/my-products'),
+  getMyProducts: (page?: PageParams) => api.get('/products/my-products', { params: page }),
+};
+
+// Where-used API: recipes using a component or ingredient, by share
+export const materialAPI = {
+  getComponentWhereUsed: (name: string, params?: { direction?: 'asc' | 'desc'; cursor?: string; limit?: number }) =>
+    api.get(`/components/${encodeURIComponent(name)}/where-used`, { params }),
+
+  getIngredientWhereUsed: (name: string, params?: { direction?: 'asc' | 'desc'; cursor?: string; limit?: number }) =>
+    api.get(`/ingredients/${encodeURIComponent(name)}/where-used`, { params }),
+};
+
+// Planning API
+export const planningAPI = {
+  // Summed component and ingredient needs for a list of orders
+  getRequirements: (lines: Array<{ productId: number; quantity: number; capacity?: string }>) =>
+    api.post('/planning/requirements', { lines }),
 };
 
 // Test API
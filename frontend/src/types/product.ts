@@ -62,6 +62,77 @@ export interface Product {
   baseWeightDisplay?: string;
 }
 
+// Packaging unit from /products/capacities
+export interface PackagingCapacity {
+  productType: ProductType;
+  code: string;
+  label: string;
+  multiplier: number;
+}
+
+// Recipe scaled to an order by /products/{id}/scale
+export interface ScaledRecipe {
+  productId: number;
+  productName: string;
+  productType: ProductType;
+  version: number;
+  capacity: string;
+  quantity: number;
+  multiplier: number;
+  totalWeight: number;
+  weightUnit: string;
+  components: Array<{ componentName: string; percentage: number; weight: number }>;
+  ingredients: Array<{ ingredientName: string; baseQuantity: number; quantity: number; unit: string }>;
+}
+
+// Filter option with the number of live products matching it
+export interface FacetCount {
+  value: string;
+  count: number;
+}
+
+// Typeahead entry returned by /products/suggest
+export interface Suggestion {
+  value: string;
+  usageCount: number;
+  fuzzy: boolean;
+}
+
+// Lightweight row returned by the list and search endpoints
+export interface ProductSummary {
+  id: number;
+  name: string;
+  description?: string;
+  productType: ProductType;
+  createdAt: string;
+  updatedAt: string;
+  createdByName?: string;
+  componentCount: number;
+  ingredientCount: number;
+  // Convenience properties (calculated from productType)
+  baseWeight?: number;
+  baseWeightUnit?: string;
+  baseWeightDisplay?: string;
+}
+
+// One batch of GET /products/changes; send `token` as `since` on the next poll.
+// resyncRequired (HTTP 410): the token predates purged deletions; drop the local copy and sync without a token
+export interface ProductChanges {
+  updated: ProductSummary[];
+  deleted: number[];
+  token: string | null;
+  hasMore: boolean;
+  resyncRequired: boolean;
+}
+
+// One entry of GET /products/{id}/revisions; load it with getProductById(id, createdAt)
+export interface ProductRevision {
+  revisionNo: number;
+  version: number | null;
+  changeType: 'BASELINE' | 'CREATED' | 'UPDATED' | 'DELETED';
+  createdAt: string;
+}
+
 export interface CreateProductRequest {
   name: string;
   description?: string;
@@ -0,0 +1,20 @@
+-- Migration: product_keyset_indexes
+-- Created: Fri Oct 16 09:00:00 UTC 2026
+-- Description: Composite indexes backing keyset pagination of the product listings
+
+-- Up migration
+BEGIN;
+
+-- Serves ORDER BY name, id with "(name, id) > (:name, :id)" seeks
+CREATE INDEX IF NOT EXISTS idx_product_name_id ON products (name, id);
+
+-- Serves the "my products" listing: created_by = :user ORDER BY created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_product_created_by_created_at ON products (created_by, created_at DESC, id DESC);
+
+COMMIT;
+
+-- Down migration (rollback)
+-- BEGIN;
+-- DROP INDEX IF EXISTS idx_product_created_by_created_at;
+-- DROP INDEX IF EXISTS idx_product_name_id;
+-- COMMIT;
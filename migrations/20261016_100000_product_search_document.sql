@@ -0,0 +1,46 @@
+-- Migration: product_search_document
+-- Created: Fri Oct 16 10:00:00 UTC 2026
+-- Description: Full-text search document (tsvector + GIN) and pg_trgm indexes for product search
+
+-- Up migration
+BEGIN;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- One search document per product: name (A), component and ingredient names (B), description (C)
+ALTER TABLE products ADD COLUMN IF NOT EXISTS search_document tsvector;
+
+CREATE OR REPLACE FUNCTION product_search_document(p_id bigint) RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(p.name, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(
+               (SELECT string_agg(c.component_name, ' ') FROM product_compositions c WHERE c.product_id = p.id), '')), 'B')
+        || setweight(to_tsvector('simple', coalesce(
+               (SELECT string_agg(i.ingredient_name, ' ') FROM product_ingredients i WHERE i.product_id = p.id), '')), 'B')
+        || setweight(to_tsvector('simple', coalesce(p.description, '')), 'C')
+    FROM products p
+    WHERE p.id = p_id;
+$$ LANGUAGE sql STABLE;
+
+-- Backfill existing rows; the application refreshes the document on every product write
+UPDATE products SET search_document = product_search_document(id);
+
+CREATE INDEX IF NOT EXISTS idx_product_search_document ON products USING gin (search_document);
+
+-- Trigram indexes let the existing ILIKE '%term%' filters use an index instead of a sequential scan
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON products USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_product_description_trgm ON products USING gin (description gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_composition_component_trgm ON product_compositions USING gin (component_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_ingredient_name_trgm ON product_ingredients USING gin (ingredient_name gin_trgm_ops);
+
+COMMIT;
+
+-- Down migration (rollback)
+-- BEGIN;
+-- DROP INDEX IF EXISTS idx_ingredient_name_trgm;
+-- DROP INDEX IF EXISTS idx_composition_component_trgm;
+-- DROP INDEX IF EXISTS idx_product_description_trgm;
+-- DROP INDEX IF EXISTS idx_product_name_trgm;
+-- DROP INDEX IF EXISTS idx_product_search_document;
+-- DROP FUNCTION IF EXISTS product_search_document(bigint);
+-- ALTER TABLE products DROP COLUMN IF EXISTS search_document;
+-- COMMIT;
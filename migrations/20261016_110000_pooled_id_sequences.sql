@@ -0,0 +1,44 @@
+-- Migration: pooled_id_sequences
+-- Created: Fri Oct 16 11:00:00 UTC 2026
+-- Description: Replace identity/serial ids with sequences incremented by 50 (Hibernate pooled-lo)
+
+-- Up migration
+BEGIN;
+
+-- For each table: drop the identity (or serial default), create <table>_seq starting
+-- after the current maximum id and make it the column default. Each nextval reserves
+-- a block of 50 ids, so plain SQL inserts through the default never collide with
+-- blocks the application has taken.
+DO $$
+DECLARE
+    tbl TEXT;
+    old_seq TEXT;
+    next_id BIGINT;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY['users', 'products', 'product_compositions', 'product_ingredients'] LOOP
+        old_seq := pg_get_serial_sequence(tbl, 'id');
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', tbl);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP DEFAULT', tbl);
+        IF old_seq IS NOT NULL AND old_seq <> quote_ident(tbl || '_seq') THEN
+            EXECUTE format('DROP SEQUENCE IF EXISTS %s', old_seq);
+        END IF;
+
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) + 1 FROM %I', tbl) INTO next_id;
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50 MINVALUE 1', tbl || '_seq');
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50 OWNED BY %I.id', tbl || '_seq', tbl);
+        PERFORM setval(quote_ident(tbl || '_seq'), next_id, false);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', tbl, tbl || '_seq');
+    END LOOP;
+END $$;
+
+COMMIT;
+
+-- Down migration (rollback)
+-- The old identity columns are not restored exactly; ids keep coming from the sequences,
+-- one per row, which is what GenerationType.IDENTITY expects.
+-- BEGIN;
+-- ALTER SEQUENCE users_seq INCREMENT BY 1;
+-- ALTER SEQUENCE products_seq INCREMENT BY 1;
+-- ALTER SEQUENCE product_compositions_seq INCREMENT BY 1;
+-- ALTER SEQUENCE product_ingredients_seq INCREMENT BY 1;
+-- COMMIT;
@@ -0,0 +1,36 @@
+-- Migration: packaging_capacities
+-- Created: Fri Oct 16 12:00:00 UTC 2026
+-- Description: Packaging units per product type with the number of base units each one holds
+
+-- Up migration
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS packaging_capacities_seq INCREMENT BY 50 MINVALUE 1;
+
+CREATE TABLE IF NOT EXISTS packaging_capacities (
+    id BIGINT PRIMARY KEY DEFAULT nextval('packaging_capacities_seq'),
+    product_type VARCHAR(255) NOT NULL,
+    code VARCHAR(50) NOT NULL,
+    label VARCHAR(100) NOT NULL,
+    multiplier DOUBLE PRECISION NOT NULL CHECK (multiplier > 0),
+    sort_order INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT uk_packaging_capacity_type_code UNIQUE (product_type, code)
+);
+
+ALTER SEQUENCE packaging_capacities_seq OWNED BY packaging_capacities.id;
+
+-- Values previously hard-coded in the recipe detail page
+INSERT INTO packaging_capacities (product_type, code, label, multiplier, sort_order) VALUES
+    ('CHEESE', 'tubs', 'Tubs', 1, 0),
+    ('GREEK_YOGURT', 'tubs', 'Tubs', 1, 0),
+    ('DRINKS', 'bottles', 'Bottles', 1, 0),
+    ('DRINKS', 'pouches', 'Pouches', 5.5, 1)
+ON CONFLICT (product_type, code) DO NOTHING;
+
+COMMIT;
+
+-- Down migration (rollback)
+-- BEGIN;
+-- DROP TABLE IF EXISTS packaging_capacities;
+-- DROP SEQUENCE IF EXISTS packaging_capacities_seq;
+-- COMMIT;
@@ -0,0 +1,51 @@
+-- Migration: product_change_seq
+-- Created: Fri Oct 16 13:00:00 UTC 2026
+-- Description: Monotonic change sequence on products for the delta-sync feed (GET /api/products/changes)
+
+-- Up migration
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS product_change_seq MINVALUE 1;
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS change_seq BIGINT;
+
+-- Backfill in the order the rows last changed
+UPDATE products p SET change_seq = o.seq
+FROM (SELECT id, row_number() OVER (ORDER BY COALESCE(deleted_at, updated_at, created_at), id) AS seq
+      FROM products) o
+WHERE p.id = o.id;
+
+SELECT setval('product_change_seq', COALESCE((SELECT max(change_seq) FROM products), 0) + 1, false);
+
+ALTER TABLE products ALTER COLUMN change_seq SET NOT NULL;
+
+-- Every insert or update (including a soft delete) takes the next number. The
+-- transaction-level advisory lock makes product writers take their numbers in
+-- commit order: a writer waits until the previous one has committed, so a
+-- reader can never see change N+1 before change N, and a client watermark
+-- never skips a change that was still in flight.
+CREATE OR REPLACE FUNCTION products_next_change_seq() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('products.change_seq'));
+    NEW.change_seq := nextval('product_change_seq');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_products_change_seq ON products;
+CREATE TRIGGER trg_products_change_seq
+    BEFORE INSERT OR UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION products_next_change_seq();
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_product_change_seq ON products (change_seq);
+
+COMMIT;
+
+-- Down migration (rollback)
+-- BEGIN;
+-- DROP TRIGGER IF EXISTS trg_products_change_seq ON products;
+-- DROP FUNCTION IF EXISTS products_next_change_seq();
+-- DROP INDEX IF EXISTS idx_product_change_seq;
+-- ALTER TABLE products DROP COLUMN IF EXISTS change_seq;
+-- DROP SEQUENCE IF EXISTS product_change_seq;
+-- COMMIT;
@@ -0,0 +1,94 @@
+-- Migration: product_archive
+-- Created: Fri Oct 16 14:00:00 UTC 2026
+-- Description: Archive tables for purged soft-deleted products and partial indexes over live products only
+
+-- Up migration
+BEGIN;
+
+-- Products deleted longer than the retention window are moved here with their
+-- recipe rows by ProductArchiveService; an admin can restore them.
+CREATE TABLE IF NOT EXISTS products_archive (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(500),
+    product_type VARCHAR(255) NOT NULL,
+    created_by BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    deleted_at TIMESTAMP,
+    version BIGINT,
+    archived_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE TABLE IF NOT EXISTS product_compositions_archive (
+    id BIGINT PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products_archive (id) ON DELETE CASCADE,
+    component_name VARCHAR(255) NOT NULL,
+    percentage DOUBLE PRECISION NOT NULL,
+    notes VARCHAR(255),
+    sort_order INTEGER,
+    version BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS product_ingredients_archive (
+    id BIGINT PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products_archive (id) ON DELETE CASCADE,
+    ingredient_name VARCHAR(255) NOT NULL,
+    quantity DOUBLE PRECISION NOT NULL,
+    unit VARCHAR(255) NOT NULL,
+    notes VARCHAR(255),
+    sort_order INTEGER,
+    version BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_composition_archive_product ON product_compositions_archive (product_id);
+CREATE INDEX IF NOT EXISTS idx_ingredient_archive_product ON product_ingredients_archive (product_id);
+
+-- Every read path filters deleted_at IS NULL, so the listing and search indexes
+-- only need live rows
+DROP INDEX IF EXISTS idx_product_name_id;
+CREATE INDEX idx_product_name_id ON products (name, id) WHERE deleted_at IS NULL;
+
+DROP INDEX IF EXISTS idx_product_created_by_created_at;
+CREATE INDEX idx_product_created_by_created_at ON products (created_by, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+DROP INDEX IF EXISTS idx_product_type;
+CREATE INDEX idx_product_type ON products (product_type) WHERE deleted_at IS NULL;
+
+DROP INDEX IF EXISTS idx_product_search_document;
+CREATE INDEX idx_product_search_document ON products USING gin (search_document) WHERE deleted_at IS NULL;
+
+DROP INDEX IF EXISTS idx_product_name_trgm;
+CREATE INDEX idx_product_name_trgm ON products USING gin (name gin_trgm_ops) WHERE deleted_at IS NULL;
+
+DROP INDEX IF EXISTS idx_product_description_trgm;
+CREATE INDEX idx_product_description_trgm ON products USING gin (description gin_trgm_ops)
+    WHERE deleted_at IS NULL;
+
+-- The archive job looks for the opposite: deleted rows past the retention window
+DROP INDEX IF EXISTS idx_product_deleted_at;
+CREATE INDEX idx_product_deleted_at ON products (deleted_at) WHERE deleted_at IS NOT NULL;
+
+COMMIT;
+
+-- Down migration (rollback)
+-- BEGIN;
+-- DROP INDEX IF EXISTS idx_product_deleted_at;
+-- CREATE INDEX idx_product_deleted_at ON products (deleted_at);
+-- DROP INDEX IF EXISTS idx_product_description_trgm;
+-- CREATE INDEX idx_product_description_trgm ON products USING gin (description gin_trgm_ops);
+-- DROP INDEX IF EXISTS idx_product_name_trgm;
+-- CREATE INDEX idx_product_name_trgm ON products USING gin (name gin_trgm_ops);
+-- DROP INDEX IF EXISTS idx_product_search_document;
+-- CREATE INDEX idx_product_search_document ON products USING gin (search_document);
+-- DROP INDEX IF EXISTS idx_product_type;
+-- CREATE INDEX idx_product_type ON products (product_type);
+-- DROP INDEX IF EXISTS idx_product_created_by_created_at;
+-- CREATE INDEX idx_product_created_by_created_at ON products (created_by, created_at DESC, id DESC);
+-- DROP INDEX IF EXISTS idx_product_name_id;
+-- CREATE INDEX idx_product_name_id ON products (name, id);
+-- DROP TABLE IF EXISTS product_ingredients_archive;
+-- DROP TABLE IF EXISTS product_compositions_archive;
+-- DROP TABLE IF EXISTS products_archive;
+-- COMMIT;
@@ -0,0 +1,67 @@
+-- Migration: product_revisions
+-- Created: Fri Oct 16 15:00:00 UTC 2026
+-- Description: Recipe revision history (periodic full snapshots plus deltas) for GET /api/products/{id}/revisions and ?asOf=
+
+-- Up migration
+BEGIN;
+
+-- One row per recipe save, numbered per product. A snapshot row holds the whole
+-- recipe as ProductDto JSON; a delta row holds only the header fields and recipe
+-- rows that changed since the previous revision. ProductRevisionService writes a
+-- snapshot every app.revisions.snapshot-interval revisions, so any revision is
+-- rebuilt from at most that many rows.
+-- product_id has no foreign key: history outlives the product row when the
+-- archive job purges it.
+CREATE TABLE IF NOT EXISTS product_revisions (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    revision_no INTEGER NOT NULL,
+    product_version BIGINT,
+    change_type VARCHAR(20) NOT NULL,
+    snapshot BOOLEAN NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_product_revision UNIQUE (product_id, revision_no)
+);
+
+-- Nearest snapshot at or before a revision
+CREATE INDEX IF NOT EXISTS idx_product_revision_snapshot ON product_revisions (product_id, revision_no)
+    WHERE snapshot;
+
+-- Revision in effect at a point in time (?asOf=)
+CREATE INDEX IF NOT EXISTS idx_product_revision_created_at ON product_revisions (product_id, created_at, revision_no);
+
+-- Baseline: the current state of every live product becomes its first snapshot
+INSERT INTO product_revisions (product_id, revision_no, product_version, change_type, snapshot, payload, created_at)
+SELECT p.id, 1, p.version, 'BASELINE', TRUE,
+       jsonb_build_object(
+           'id', p.id, 'name', p.name, 'description', p.description,
+           'productType', p.product_type, 'createdAt', p.created_at, 'updatedAt', p.updated_at,
+           'version', p.version,
+           'createdByName', CASE WHEN u.id IS NULL THEN NULL
+               WHEN COALESCE(btrim(u.first_name), '') = '' OR COALESCE(btrim(u.last_name), '') = '' THEN u.email
+               ELSE u.first_name || ' ' || u.last_name END,
+           'compositions', COALESCE(c.items, '[]'::jsonb),
+           'additionalIngredients', COALESCE(i.items, '[]'::jsonb)),
+       COALESCE(p.updated_at, p.created_at)
+FROM products p
+LEFT JOIN users u ON u.id = p.created_by
+LEFT JOIN LATERAL (SELECT jsonb_agg(jsonb_build_object(
+           'id', pc.id, 'componentName', pc.component_name, 'percentage', pc.percentage,
+           'notes', pc.notes, 'sortOrder', pc.sort_order, 'version', pc.version)
+           ORDER BY pc.sort_order, pc.id) AS items
+       FROM product_compositions pc WHERE pc.product_id = p.id) c ON TRUE
+LEFT JOIN LATERAL (SELECT jsonb_agg(jsonb_build_object(
+           'id', pi.id, 'ingredientName', pi.ingredient_name, 'quantity', pi.quantity,
+           'unit', pi.unit, 'notes', pi.notes, 'sortOrder', pi.sort_order, 'version', pi.version)
+           ORDER BY pi.sort_order, pi.id) AS items
+       FROM product_ingredients pi WHERE pi.product_id = p.id) i ON TRUE
+WHERE p.deleted_at IS NULL
+ON CONFLICT (product_id, revision_no) DO NOTHING;
+
+COMMIT;
+
+-- Down migration (rollback)
+-- BEGIN;
+-- DROP TABLE IF EXISTS product_revisions;
+-- COMMIT;
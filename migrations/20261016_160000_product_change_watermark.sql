@@ -0,0 +1,29 @@
+-- Migration: product_change_watermark
+-- Created: Fri Oct 16 16:00:00 UTC 2026
+-- Description: Purge watermark for the delta-sync feed, so clients whose token predates an archived deletion resync
+
+-- Up migration
+BEGIN;
+
+-- The archive job removes soft-deleted products from products, and with them the
+-- only record GET /api/products/changes could report the deletion from. It
+-- raises purged_through to the highest change_seq it removed; a change token
+-- below it may have missed a deletion and is answered with 410 Gone.
+CREATE TABLE IF NOT EXISTS product_change_watermark (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    purged_through BIGINT NOT NULL DEFAULT 0
+);
+
+-- Products archived before this migration left no trace of their change_seq:
+-- if there are any, every existing token has to resync once
+INSERT INTO product_change_watermark (id, purged_through)
+SELECT 1, CASE WHEN EXISTS (SELECT 1 FROM products_archive)
+               THEN COALESCE((SELECT max(change_seq) FROM products), 0) ELSE 0 END
+ON CONFLICT (id) DO NOTHING;
+
+COMMIT;
+
+-- Down migration (rollback)
+-- BEGIN;
+-- DROP TABLE IF EXISTS product_change_watermark;
+-- COMMIT;
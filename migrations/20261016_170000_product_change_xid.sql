@@ -0,0 +1,69 @@
+-- Migration: product_change_xid
+-- Created: Fri Oct 16 17:00:00 UTC 2026
+-- Description: Commit-safe ordering for the delta-sync feed without serializing product writes
+
+-- Up migration
+BEGIN;
+
+-- The transaction that wrote the row's last change. Existing rows are committed,
+-- so they all sort before any new write. Adding the column with a default does
+-- not rewrite the rows and does not fire the change trigger.
+ALTER TABLE products ADD COLUMN IF NOT EXISTS change_xid xid8 NOT NULL DEFAULT '0';
+ALTER TABLE products ALTER COLUMN change_xid DROP DEFAULT;
+
+-- The feed is ordered by (change_xid, change_seq) and only serves rows whose
+-- transaction id is below pg_snapshot_xmin(pg_current_snapshot()): every
+-- transaction older than that has finished, and any transaction still in flight
+-- commits with a larger id, so a client watermark never skips a change.
+-- The advisory lock that made writers take their numbers in commit order is
+-- no longer needed.
+CREATE OR REPLACE FUNCTION products_next_change_seq() RETURNS trigger AS $$
+BEGIN
+    NEW.change_seq := nextval('product_change_seq');
+    NEW.change_xid := pg_current_xact_id();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Updates only take a number when a column the feed reports on changes, so the
+-- search_document refresh that follows every save does not count as a change
+DROP TRIGGER IF EXISTS trg_products_change_seq ON products;
+DROP TRIGGER IF EXISTS trg_products_change_seq_update ON products;
+CREATE TRIGGER trg_products_change_seq
+    BEFORE INSERT ON products
+    FOR EACH ROW EXECUTE FUNCTION products_next_change_seq();
+CREATE TRIGGER trg_products_change_seq_update
+    BEFORE UPDATE ON products
+    FOR EACH ROW
+    WHEN ((OLD.name, OLD.description, OLD.product_type, OLD.created_by, OLD.created_at, OLD.updated_at,
+           OLD.deleted_at, OLD.version)
+          IS DISTINCT FROM
+          (NEW.name, NEW.description, NEW.product_type, NEW.created_by, NEW.created_at, NEW.updated_at,
+           NEW.deleted_at, NEW.version))
+    EXECUTE FUNCTION products_next_change_seq();
+
+CREATE INDEX IF NOT EXISTS idx_product_change_xid_seq ON products (change_xid, change_seq);
+
+-- The purge watermark is compared in the same (change_xid, change_seq) order
+ALTER TABLE product_change_watermark ADD COLUMN IF NOT EXISTS purged_through_xid xid8 NOT NULL DEFAULT '0';
+
+COMMIT;
+
+-- Down migration (rollback)
+-- BEGIN;
+-- ALTER TABLE product_change_watermark DROP COLUMN IF EXISTS purged_through_xid;
+-- DROP INDEX IF EXISTS idx_product_change_xid_seq;
+-- DROP TRIGGER IF EXISTS trg_products_change_seq_update ON products;
+-- DROP TRIGGER IF EXISTS trg_products_change_seq ON products;
+-- CREATE OR REPLACE FUNCTION products_next_change_seq() RETURNS trigger AS $$
+-- BEGIN
+--     PERFORM pg_advisory_xact_lock(hashtext('products.change_seq'));
+--     NEW.change_seq := nextval('product_change_seq');
+--     RETURN NEW;
+-- END;
+-- $$ LANGUAGE plpgsql;
+-- CREATE TRIGGER trg_products_change_seq
+--     BEFORE INSERT OR UPDATE ON products
+--     FOR EACH ROW EXECUTE FUNCTION products_next_change_seq();
+-- ALTER TABLE products DROP COLUMN IF EXISTS change_xid;
+-- COMMIT;
@@ -7,6 +7,7 @@ SET timezone = 'UTC';
 -- Create extensions if they don't exist
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 CREATE EXTENSION IF NOT EXISTS "pg_stat_statements";
+CREATE EXTENSION IF NOT EXISTS "pg_trgm";
 
 -- Set up database configuration for production
 ALTER SYSTEM SET shared_preload_libraries = 'pg_stat_statements';